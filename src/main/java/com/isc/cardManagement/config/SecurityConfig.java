@@ -1,5 +1,6 @@
 package com.isc.cardManagement.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -22,6 +23,9 @@ public class SecurityConfig {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/v1/cards/events").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/v1/cards/**").authenticated()
                         .requestMatchers("/swagger-ui/**",
                                 "/v3/api-docs/**",
@@ -44,6 +48,10 @@ public class SecurityConfig {
     }
 
 
+    // encoded with its encoder's id, as the user's password is; deliberately without a default
+    @Value("${app.security.admin-password}")
+    private String adminPassword;
+
     @Bean
     public InMemoryUserDetailsManager userDetailsService() {
 
@@ -52,7 +60,17 @@ public class SecurityConfig {
                 .roles("USER")
                 .build();
 
-        return new InMemoryUserDetailsManager(user);
+        if (!adminPassword.startsWith("{")) {
+            throw new IllegalStateException(
+                    "app.security.admin-password must be encoded with its encoder id, e.g. {bcrypt}$2a$10$...");
+        }
+        // may also watch the stream of every created card
+        UserDetails admin = User.withUsername("admin")
+                .password(adminPassword)
+                .roles("USER", "ADMIN")
+                .build();
+
+        return new InMemoryUserDetailsManager(user, admin);
     }
 }
 
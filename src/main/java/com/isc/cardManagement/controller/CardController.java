@@ -2,19 +2,29 @@ package com.isc.cardManagement.controller;
 
 import com.isc.cardManagement.dto.*;
 import com.isc.cardManagement.exception.BadRequestException;
+import com.isc.cardManagement.service.CardEventStreams;
 import com.isc.cardManagement.service.CardService;
+import com.isc.cardManagement.service.EncodedCards;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/cards")
@@ -26,21 +36,58 @@ public class CardController {
 
     private final CardService cardService;
 
+    private final CardEventStreams cardEventStreams;
+
 
     @Operation(
             summary = "Get card details",
             description = "Fetch the details of a specific card by card number",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Successfully retrieved card details"),
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved card details",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    array = @ArraySchema(schema = @Schema(implementation = CardResponseDto.class)))),
+                    @ApiResponse(responseCode = "304", description = "Cards unchanged since the ETag in If-None-Match"),
                     @ApiResponse(responseCode = "404", description = "Card not found")
             }
     )
     @GetMapping("/{nationalCode}")
-    public ResponseEntity<List<CardResponseDto>> getCardsByNationalCode(
-            @PathVariable String nationalCode) {
+    public ResponseEntity<byte[]> getCardsByNationalCode(
+            @PathVariable String nationalCode, WebRequest request) {
+
+        // an unchanged poll is answered from the card list's version, before any card is read or encoded
+        Optional<String> eTag = cardService.getCardsETag(nationalCode);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
+        }
+
+        EncodedCards cards = cardService.getEncodedCardsByNationalCode(nationalCode);
+        // the body is written as is; a GET whose If-None-Match matches the ETag gets a 304 instead
+        return ResponseEntity.ok()
+                .eTag(cards.eTag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cards.json());
+    }
+
 
-        List<CardResponseDto> cards = cardService.getCardsByNationalCode(nationalCode);
-        return ResponseEntity.ok(cards);
+    @Operation(summary = "رویدادهای کارت های یک شخص",
+            description = "هر کارت جدید شخص به صورت رویداد card-created ارسال می شود؛ رویداد cards-dropped یعنی "
+                    + "رویدادهایی از دست رفته و کارت ها باید دوباره خوانده شوند")
+    @GetMapping(path = "/{nationalCode}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCardEvents(@PathVariable String nationalCode) {
+        log.info("GET /api/v1/cards/{}/events - subscribed", nationalCode);
+        return cardEventStreams.subscribe(nationalCode);
+    }
+
+
+    @Operation(summary = "رویدادهای همه کارت ها", description = "هر کارت جدید به صورت رویداد card-created ارسال می شود؛ "
+            + "فقط برای مدیر سیستم")
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAllCardEvents() {
+        log.info("GET /api/v1/cards/events - subscribed");
+        return cardEventStreams.subscribeToAll();
     }
 
 
@@ -64,6 +111,25 @@ public class CardController {
     }
 
 
+    @Operation(summary = "افزودن گروهی کارت ها",
+            description = "هر کارت جداگانه بررسی و ثبت می شود و نتیجه هر کارت در پاسخ برمی گردد")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "نتیجه ثبت هر کارت"),
+            @ApiResponse(responseCode = "400", description = "لیست خالی یا بزرگتر از حد مجاز"),
+            @ApiResponse(responseCode = "500", description = "خطای داخلی سرور.")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCardResponseDto> createCards(@RequestBody List<CardDto> dtos)
+            throws BadRequestException {
+
+        log.info("POST /api/cards/batch - {} card(s)", dtos.size());
+
+        BatchCardResponseDto result = cardService.createCards(dtos);
+
+        return ResponseEntity.ok(result);
+    }
+
+
     @PostMapping("/search")
     @Operation(summary = "جستجوی پیشرفته کارت ها",
             description = "جستجو با فیلترهای مختلف و امکان صفحه بندی اختیاری")
@@ -0,0 +1,20 @@
+package com.isc.cardManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCardResponseDto {
+
+    private int total;
+    private int created;
+    private int rejected;
+    private List<BatchCardResultDto> results;   // به همان ترتیب درخواست
+}
@@ -0,0 +1,19 @@
+package com.isc.cardManagement.dto;
+
+import com.isc.cardManagement.enums.BatchItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCardResultDto {
+
+    private int index;                 // موقعیت کارت در درخواست (از 0)
+    private String cardNumber;
+    private BatchItemStatus status;
+    private String error;              // دلیل رد شدن، فقط برای REJECTED
+}
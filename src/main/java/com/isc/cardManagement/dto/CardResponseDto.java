@@ -2,6 +2,7 @@ package com.isc.cardManagement.dto;
 
 import com.isc.cardManagement.entity.CardEntity;
 import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.CardView;
 import lombok.*;
 
 @Getter
@@ -45,4 +46,22 @@ public class CardResponseDto {
                 personDto
         );
     }
+
+    public static CardResponseDto fromView(CardView card) {
+        var issuer = card.issuer();
+        var account = card.account();
+        var owner = account.owner();
+
+        return new CardResponseDto(
+                card.cardNumber(),
+                card.expirationMonth(),
+                card.expirationYear(),
+                card.active(),
+                card.cardType(),
+                new IssuerDto(issuer.issuerCode(), issuer.name()),
+                new AccountDto(account.accountNumber(), account.accountType()),
+                new PersonDto(owner.nationalCode(), owner.firstName(), owner.lastName(),
+                        owner.phone(), owner.address())
+        );
+    }
 }
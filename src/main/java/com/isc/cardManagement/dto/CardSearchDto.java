@@ -55,4 +55,14 @@ public class CardSearchDto {
     @Schema(description = "جهت مرتب سازی", example = "ASC", allowableValues = {"ASC", "DESC"}, defaultValue = "ASC")
     @Builder.Default
     private String sortDirection = "ASC";
+
+    @Schema(description = "صفحه بندی کلیدی (بدون offset و بدون شمارش کل) - مرتب سازی فقط بر اساس id، cardNumber، expirationYear یا expirationMonth",
+            example = "true", defaultValue = "false")
+    private Boolean keyset;
+
+    @Schema(description = "توکن ادامه که در پاسخ صفحه قبل (nextCursor) برگشته است؛ با ارسال آن صفحه بندی کلیدی فعال می شود")
+    private String cursor;
+
+    @Schema(description = "در صفحه بندی کلیدی، تعداد کل نتایج هم محاسبه شود", example = "false", defaultValue = "false")
+    private Boolean withTotal;
 }
@@ -21,4 +21,5 @@ public class PagedResponseDto<T> {
     private boolean first;             // آیا اولین صفحه است؟
     private boolean last;              // آیا آخرین صفحه است؟
     private boolean empty;             // آیا صفحه خالی است؟
+    private String nextCursor;         // توکن صفحه بعد در صفحه بندی کلیدی (در صفحه آخر null)
 }
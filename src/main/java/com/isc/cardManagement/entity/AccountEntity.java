@@ -13,7 +13,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "tbl_account")
+@Table(name = "tbl_account",
+        indexes = @Index(name = "idx_account_person", columnList = "person_id, account_id"))
 @NoArgsConstructor
 @Getter
 @Setter
@@ -22,7 +23,8 @@ import java.util.Set;
 public class AccountEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "seq_account", allocationSize = 50)
     @Column(name = "account_id")
     private Long id;
 
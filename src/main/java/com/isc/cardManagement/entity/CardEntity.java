@@ -18,6 +18,12 @@ import java.time.LocalDate;
                         name = "uk_person_cardtype_issuer",
                         columnNames = {"account_id", "card_type", "issuer_id"}
                 )
+        },
+        // account_id and card_number are already covered by the unique constraints above
+        indexes = {
+                @Index(name = "idx_card_issuer_type_active", columnList = "issuer_id, card_type, active"),
+                @Index(name = "idx_card_type_active", columnList = "card_type, active"),
+                @Index(name = "idx_card_expiration", columnList = "expiration_year, expiration_month")
         })
 @NoArgsConstructor
 @Getter
@@ -27,7 +33,8 @@ import java.time.LocalDate;
 public class CardEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_seq")
+    @SequenceGenerator(name = "card_seq", sequenceName = "seq_card", allocationSize = 50)
     @Column(name = "card_id")
     private Long id;
 
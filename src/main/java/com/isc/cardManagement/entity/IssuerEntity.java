@@ -21,7 +21,8 @@ import java.util.Set;
 public class IssuerEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "issuer_seq")
+    @SequenceGenerator(name = "issuer_seq", sequenceName = "seq_issuer", allocationSize = 50)
     @Column(name = "issuer_id")
     private Long id;
 
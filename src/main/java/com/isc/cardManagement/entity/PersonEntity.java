@@ -19,7 +19,8 @@ import java.util.*;
 public class PersonEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_seq")
+    @SequenceGenerator(name = "person_seq", sequenceName = "seq_person", allocationSize = 50)
     @Column(name = "person_id")
     private Long id;
 
@@ -0,0 +1,9 @@
+package com.isc.cardManagement.enums;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+@JsonFormat(shape = JsonFormat.Shape.STRING)
+public enum BatchItemStatus {
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,231 @@
+package com.isc.cardManagement.monitoring;
+
+import com.isc.cardManagement.monitoring.events.CacheLoadEvent;
+import com.isc.cardManagement.monitoring.events.CardCreationEvent;
+import com.isc.cardManagement.repository.CacheTier;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runtime telemetry streamed from JDK Flight Recorder in this process: GC pauses, heap used after GC, the
+ * allocation rate (from allocation samples), contended monitor enters and safepoint operations, plus the
+ * application's own {@link CacheLoadEvent} and {@link CardCreationEvent}. Every {@code app.telemetry.interval}
+ * one summary is logged, with the number of entries in each cache tier; nothing is queried from the database.
+ * <p>
+ * Events are read on the stream's own thread as JFR flushes them, about once a second. Contention and
+ * safepoint times are also published as the {@code jvm.monitor.contention} and {@code jvm.safepoints} timers,
+ * which the JVM metrics Spring Boot binds do not cover. Disabled with {@code app.telemetry.enabled=false}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RuntimeTelemetry {
+
+    private static final double BYTES_PER_MB = 1024.0 * 1024;
+
+    private final InMemoryRepository inMemoryRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.telemetry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.telemetry.interval:10m}")
+    private Duration interval;
+
+    /**
+     * Monitor enters that waited less than this are not recorded.
+     */
+    @Value("${app.telemetry.contention-threshold:10ms}")
+    private Duration contentionThreshold;
+
+    private RecordingStream stream;
+    private Timer contentionTimer;
+    private Timer safepointTimer;
+
+    // only touched on the stream thread
+    private Window window;
+
+    private volatile Summary lastSummary;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Runtime telemetry disabled");
+            return;
+        }
+        contentionTimer = Timer.builder("jvm.monitor.contention")
+                .description("Time threads waited to enter a contended monitor")
+                .register(meterRegistry);
+        safepointTimer = Timer.builder("jvm.safepoints")
+                .description("Time spent in VM operations at a safepoint")
+                .register(meterRegistry);
+
+        window = new Window(System.nanoTime(), 0);
+        stream = new RecordingStream();
+        stream.enable("jdk.GarbageCollection");
+        stream.enable("jdk.GCHeapSummary");
+        stream.enable("jdk.ObjectAllocationSample").with("throttle", "150/s");
+        stream.enable("jdk.JavaMonitorEnter").withThreshold(contentionThreshold);
+        stream.enable("jdk.ExecuteVMOperation").withThreshold(Duration.ZERO);
+        stream.enable(CacheLoadEvent.NAME);
+        stream.enable(CardCreationEvent.NAME);
+
+        stream.onEvent("jdk.GarbageCollection", this::onGarbageCollection);
+        stream.onEvent("jdk.GCHeapSummary", this::onHeapSummary);
+        stream.onEvent("jdk.ObjectAllocationSample", event -> window.allocatedBytes += event.getLong("weight"));
+        stream.onEvent("jdk.JavaMonitorEnter", this::onMonitorEnter);
+        stream.onEvent("jdk.ExecuteVMOperation", this::onVmOperation);
+        stream.onEvent(CacheLoadEvent.NAME, this::onCacheLoad);
+        stream.onEvent(CardCreationEvent.NAME, this::onCardCreation);
+        stream.onFlush(this::reportIfDue);
+        stream.onError(e -> log.warn("Runtime telemetry stream failed", e));
+        stream.startAsync();
+        log.info("Runtime telemetry started, reporting every {}", interval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * The last interval reported, or {@code null} before the first report.
+     */
+    public Summary getLastSummary() {
+        return lastSummary;
+    }
+
+    private void onGarbageCollection(RecordedEvent event) {
+        Duration pause = event.getDuration("sumOfPauses");
+        window.collections++;
+        window.gcPauses = window.gcPauses.plus(pause);
+        window.longestGcPause = max(window.longestGcPause, event.getDuration("longestPause"));
+    }
+
+    private void onHeapSummary(RecordedEvent event) {
+        if ("After GC".equals(event.getString("when"))) {
+            window.heapAfterGcBytes = event.getLong("heapUsed");
+        }
+    }
+
+    private void onMonitorEnter(RecordedEvent event) {
+        window.contendedEnters++;
+        window.contention = window.contention.plus(event.getDuration());
+        contentionTimer.record(event.getDuration());
+    }
+
+    private void onVmOperation(RecordedEvent event) {
+        if (event.getBoolean("safepoint")) {
+            window.safepoints++;
+            window.safepointTime = window.safepointTime.plus(event.getDuration());
+            safepointTimer.record(event.getDuration());
+        }
+    }
+
+    private void onCacheLoad(RecordedEvent event) {
+        log.info("Cache loaded from {} in {} ms: {} records, {} rejected, {}", event.getString("source"),
+                event.getDuration().toMillis(), event.getLong("records"), event.getLong("rejected"),
+                event.getBoolean("succeeded") ? "succeeded" : "failed");
+    }
+
+    private void onCardCreation(RecordedEvent event) {
+        if (event.getBoolean("succeeded")) {
+            window.cardsCreated++;
+        } else {
+            window.cardCreationsRejected++;
+        }
+        window.longestCardCreation = max(window.longestCardCreation, event.getDuration());
+    }
+
+    private void reportIfDue() {
+        long now = System.nanoTime();
+        if (now - window.startNanos < interval.toNanos()) {
+            return;
+        }
+        Summary summary = window.summarize(now, cachedEntries());
+        window = new Window(now, window.heapAfterGcBytes);
+        lastSummary = summary;
+
+        log.info("Runtime over {} s: {} GC(s) paused {} ms (longest {} ms), heap after GC {} MB, "
+                        + "allocating {} MB/s, {} contended monitor enter(s) waited {} ms, {} safepoint(s) took {} ms",
+                summary.interval().toSeconds(), summary.collections(), summary.gcPauses().toMillis(),
+                summary.longestGcPause().toMillis(), format(summary.heapAfterGcBytes() / BYTES_PER_MB),
+                format(summary.allocationBytesPerSecond() / BYTES_PER_MB), summary.contendedEnters(),
+                summary.contention().toMillis(), summary.safepoints(), summary.safepointTime().toMillis());
+        log.info("Cards: {} created, {} rejected (slowest {} ms); cache entries: {}", summary.cardsCreated(),
+                summary.cardCreationsRejected(), summary.longestCardCreation().toMillis(), summary.cachedEntries());
+    }
+
+    private Map<String, Long> cachedEntries() {
+        Map<String, Long> entries = new LinkedHashMap<>();
+        for (CacheTier<?, ?> tier : inMemoryRepository.getCacheTiers()) {
+            entries.put(tier.getName(), tier.size());
+        }
+        return entries;
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+
+    /**
+     * What was observed over one reporting interval.
+     *
+     * @param heapAfterGcBytes heap used after the latest collection, 0 before the first
+     */
+    public record Summary(Duration interval, long collections, Duration gcPauses, Duration longestGcPause,
+                          long heapAfterGcBytes, double allocationBytesPerSecond, long contendedEnters,
+                          Duration contention, long safepoints, Duration safepointTime, long cardsCreated,
+                          long cardCreationsRejected, Duration longestCardCreation, Map<String, Long> cachedEntries) {
+    }
+
+    private static final class Window {
+
+        private final long startNanos;
+        private long collections;
+        private Duration gcPauses = Duration.ZERO;
+        private Duration longestGcPause = Duration.ZERO;
+        private long heapAfterGcBytes;
+        private long allocatedBytes;
+        private long contendedEnters;
+        private Duration contention = Duration.ZERO;
+        private long safepoints;
+        private Duration safepointTime = Duration.ZERO;
+        private long cardsCreated;
+        private long cardCreationsRejected;
+        private Duration longestCardCreation = Duration.ZERO;
+
+        private Window(long startNanos, long heapAfterGcBytes) {
+            this.startNanos = startNanos;
+            this.heapAfterGcBytes = heapAfterGcBytes;
+        }
+
+        private Summary summarize(long endNanos, Map<String, Long> cachedEntries) {
+            Duration length = Duration.ofNanos(endNanos - startNanos);
+            double seconds = Math.max(length.toNanos(), 1) / 1e9;
+            return new Summary(length, collections, gcPauses, longestGcPause, heapAfterGcBytes,
+                    allocatedBytes / seconds, contendedEnters, contention, safepoints, safepointTime, cardsCreated,
+                    cardCreationsRejected, longestCardCreation, Collections.unmodifiableMap(cachedEntries));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.isc.cardManagement.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares as {@code db.statements{type}}, so a scrape shows how many
+ * requests the caches keep away from the database. Statements are classified by their first keyword; the
+ * counters are registered up front and the statement is passed on unchanged.
+ */
+@Component
+public class StatementMetrics implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final Counter selects;
+    private final Counter inserts;
+    private final Counter updates;
+    private final Counter deletes;
+    private final Counter others;
+
+    public StatementMetrics(MeterRegistry registry) {
+        this.selects = counter(registry, "select");
+        this.inserts = counter(registry, "insert");
+        this.updates = counter(registry, "update");
+        this.deletes = counter(registry, "delete");
+        this.others = counter(registry, "other");
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        counterFor(sql).increment();
+        return sql;
+    }
+
+    private Counter counterFor(String sql) {
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        if (startsWith(sql, start, "select") || startsWith(sql, start, "with")) {
+            return selects;
+        }
+        if (startsWith(sql, start, "insert")) {
+            return inserts;
+        }
+        if (startsWith(sql, start, "update")) {
+            return updates;
+        }
+        if (startsWith(sql, start, "delete")) {
+            return deletes;
+        }
+        return others;
+    }
+
+    private static boolean startsWith(String sql, int start, String keyword) {
+        return sql.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+
+    private static Counter counter(MeterRegistry registry, String type) {
+        return Counter.builder("db.statements")
+                .description("SQL statements prepared by Hibernate")
+                .tag("type", type)
+                .register(registry);
+    }
+}
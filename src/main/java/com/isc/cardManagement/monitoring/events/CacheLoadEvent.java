@@ -0,0 +1,48 @@
+package com.isc.cardManagement.monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one cache warm-up: where the cache was filled from, how many seed records
+ * were read and whether it succeeded.
+ */
+@Name(CacheLoadEvent.NAME)
+@Label("Cache Load")
+@Description("The in-memory cache filled from the snapshot or the seed file")
+@Category({"Card Management", "Cache"})
+@StackTrace(false)
+public class CacheLoadEvent extends Event {
+
+    public static final String NAME = "com.isc.cardManagement.CacheLoad";
+
+    @Label("Source")
+    private String source;
+
+    @Label("Records")
+    private long records;
+
+    @Label("Rejected Records")
+    private long rejected;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    /**
+     * Ends the event and commits it when it is recorded; the fields are only filled in then.
+     */
+    public void finish(String source, long records, long rejected, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.source = source;
+            this.records = records;
+            this.rejected = rejected;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
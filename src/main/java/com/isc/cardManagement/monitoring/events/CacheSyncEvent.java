@@ -0,0 +1,44 @@
+package com.isc.cardManagement.monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning a cache miss filled from the database: the query for the person's cards
+ * and putting them in the cache.
+ * <p>
+ * Off by default like {@link CardLookupEvent}, and turned on by the same settings file.
+ */
+@Name(CacheSyncEvent.NAME)
+@Label("Cache Sync")
+@Description("Cards of a national code read from the database into the cache")
+@Category({"Card Management", "Cache"})
+@StackTrace(false)
+@Enabled(false)
+public class CacheSyncEvent extends Event {
+
+    public static final String NAME = "com.isc.cardManagement.CacheSync";
+
+    @Label("National Code Hash")
+    private int nationalCodeHash;
+
+    @Label("Cards")
+    private int cards;
+
+    /**
+     * Ends the event and commits it when it is recorded; the fields are only filled in then.
+     */
+    public void finish(String nationalCode, int cards) {
+        end();
+        if (shouldCommit()) {
+            this.nationalCodeHash = nationalCode.hashCode();
+            this.cards = cards;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.isc.cardManagement.monitoring.events;
+
+import com.isc.cardManagement.enums.CardType;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one {@code createCard} call. The card number is left out; the issuer and
+ * card type are enough to group slow creations.
+ */
+@Name(CardCreationEvent.NAME)
+@Label("Card Creation")
+@Description("A card created, or rejected, by the card service")
+@Category({"Card Management", "Service"})
+@StackTrace(false)
+public class CardCreationEvent extends Event {
+
+    public static final String NAME = "com.isc.cardManagement.CardCreation";
+
+    @Label("Issuer Code")
+    private String issuerCode;
+
+    @Label("Card Type")
+    private String cardType;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    @Label("Failure")
+    @Description("Exception type of a rejected creation")
+    private String failure;
+
+    /**
+     * Ends the event and commits it when it is recorded; the fields are only filled in then.
+     *
+     * @param failure the exception that rejected the card, or {@code null} when it was created
+     */
+    public void finish(String issuerCode, CardType cardType, Throwable failure) {
+        end();
+        if (shouldCommit()) {
+            this.issuerCode = issuerCode;
+            this.cardType = cardType == null ? null : cardType.name();
+            this.succeeded = failure == null;
+            this.failure = failure == null ? null : failure.getClass().getSimpleName();
+            commit();
+        }
+    }
+}
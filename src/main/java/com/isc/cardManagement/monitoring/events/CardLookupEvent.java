@@ -0,0 +1,54 @@
+package com.isc.cardManagement.monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one {@code InMemoryRepository.getCardsByNationalCode} call and how it was
+ * answered. The national code is recorded as its hash, enough to tell whether slow lookups share a person.
+ * <p>
+ * Off by default, as it fires on every card read; {@code jfr/card-management.jfc} turns it on.
+ */
+@Name(CardLookupEvent.NAME)
+@Label("Card Lookup")
+@Description("Cards of a national code read through the in-memory cache")
+@Category({"Card Management", "Cache"})
+@StackTrace(false)
+@Enabled(false)
+public class CardLookupEvent extends Event {
+
+    public static final String NAME = "com.isc.cardManagement.CardLookup";
+
+    public static final String HIT = "hit";
+    public static final String NEGATIVE_HIT = "negative hit";
+    public static final String DATABASE = "database";
+    public static final String WARMING = "database during warm-up";
+
+    @Label("National Code Hash")
+    private int nationalCodeHash;
+
+    @Label("Result")
+    @Description("hit, negative hit, database, or database during warm-up")
+    private String result;
+
+    @Label("Cards")
+    private int cards;
+
+    /**
+     * Ends the event and commits it when it is recorded; the fields are only filled in then.
+     */
+    public void finish(String nationalCode, String result, int cards) {
+        end();
+        if (shouldCommit()) {
+            this.nationalCodeHash = nationalCode.hashCode();
+            this.result = result;
+            this.cards = cards;
+            commit();
+        }
+    }
+}
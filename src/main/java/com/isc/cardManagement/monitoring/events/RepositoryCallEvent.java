@@ -0,0 +1,49 @@
+package com.isc.cardManagement.monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one Spring Data repository method inside its transaction: the query, or
+ * the statements a save or delete runs. A flush at the commit of the repository's own transaction is not
+ * included.
+ * <p>
+ * Off by default; {@code jfr/card-management.jfc} turns it on with the other per-request events.
+ */
+@Name(RepositoryCallEvent.NAME)
+@Label("Repository Call")
+@Description("A Spring Data repository method")
+@Category({"Card Management", "Database"})
+@StackTrace(false)
+@Enabled(false)
+public class RepositoryCallEvent extends Event {
+
+    public static final String NAME = "com.isc.cardManagement.RepositoryCall";
+
+    @Label("Repository")
+    private String repository;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    /**
+     * Ends the event and commits it when it is recorded; the fields are only filled in then.
+     */
+    public void finish(String repository, String method, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.repository = repository;
+            this.method = method;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
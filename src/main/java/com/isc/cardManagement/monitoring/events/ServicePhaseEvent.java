@@ -0,0 +1,49 @@
+package com.isc.cardManagement.monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one phase of a card service operation, such as resolving the account of a
+ * new card or mapping search results. A phase that throws is not recorded; the operation's own event or
+ * timer shows the failure.
+ * <p>
+ * Off by default: several fire per request. Recorded with {@code jfr/card-management.jfc}.
+ */
+@Name(ServicePhaseEvent.NAME)
+@Label("Service Phase")
+@Description("One phase of a card service operation")
+@Category({"Card Management", "Service"})
+@StackTrace(false)
+@Enabled(false)
+public class ServicePhaseEvent extends Event {
+
+    public static final String NAME = "com.isc.cardManagement.ServicePhase";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Phase")
+    private String phase;
+
+    /**
+     * Begins the phase. Cheap enough to call unconditionally: with no recording the event is never
+     * committed and the JIT removes the allocation.
+     */
+    public static ServicePhaseEvent start(String operation, String phase) {
+        ServicePhaseEvent event = new ServicePhaseEvent();
+        event.operation = operation;
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    public void finish() {
+        commit();
+    }
+}
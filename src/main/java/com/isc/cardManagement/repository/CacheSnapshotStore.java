@@ -0,0 +1,243 @@
+package com.isc.cardManagement.repository;
+
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.entity.PersonEntity;
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the in-memory cache, so a restart can rebuild it with one sequential read
+ * instead of re-running the initial-data load.
+ * <p>
+ * Layout: magic, format version, {@link Header}, then persons, issuers, accounts and cards (references
+ * between them by id), followed by a CRC32 of everything before it. A snapshot is only handed back when
+ * the magic, version and checksum are intact and its header equals the one the caller expects; anything
+ * else is treated as stale and the caller falls back to the loader.
+ */
+@Slf4j
+@Component
+public class CacheSnapshotStore {
+
+    private static final int MAGIC = 0x434D4353; // "CMCS"
+    static final int VERSION = 2;
+
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    @Value("${app.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.snapshot.path:cache-snapshot.bin}")
+    private Path path;
+
+    /**
+     * Identifies the state a snapshot was taken from: the seed file it was loaded from, the content checksum
+     * of the database at the time and the number of rows of each table the snapshot holds.
+     */
+    public record Header(long seedFingerprint, long databaseChecksum,
+                         long persons, long issuers, long accounts, long cards) {
+    }
+
+    public record Contents(List<PersonEntity> persons, List<IssuerEntity> issuers,
+                           List<AccountEntity> accounts, List<CardEntity> cards) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Writes the snapshot to a temporary file next to the target and moves it into place, so a crash
+     * mid-write never leaves a truncated snapshot behind.
+     */
+    public void write(long seedFingerprint, long databaseChecksum, Collection<CardView.Owner> persons,
+                      Collection<CardView.Issuer> issuers, Collection<CardView.Account> accounts,
+                      Collection<CardView> cards) throws IOException {
+
+        Path target = path.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+
+        try {
+            CheckedOutputStream checked = new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), new CRC32());
+            try (DataOutputStream out = new DataOutputStream(checked)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(seedFingerprint);
+                out.writeLong(databaseChecksum);
+                out.writeLong(persons.size());
+                out.writeLong(issuers.size());
+                out.writeLong(accounts.size());
+                out.writeLong(cards.size());
+
+                for (CardView.Owner person : persons) {
+                    out.writeLong(person.id());
+                    out.writeUTF(person.nationalCode());
+                    out.writeUTF(person.firstName());
+                    out.writeUTF(person.lastName());
+                    out.writeUTF(person.phone());
+                    out.writeUTF(person.address());
+                }
+                for (CardView.Issuer issuer : issuers) {
+                    out.writeLong(issuer.id());
+                    out.writeUTF(issuer.issuerCode());
+                    out.writeUTF(issuer.name());
+                }
+                for (CardView.Account account : accounts) {
+                    out.writeLong(account.id());
+                    out.writeUTF(account.accountNumber());
+                    out.writeByte(account.accountType().ordinal());
+                    out.writeLong(account.owner().id());
+                }
+                for (CardView card : cards) {
+                    out.writeLong(card.id());
+                    out.writeUTF(card.cardNumber());
+                    out.writeByte(card.cardType().ordinal());
+                    out.writeBoolean(card.active());
+                    out.writeUTF(card.expirationMonth());
+                    out.writeUTF(card.expirationYear());
+                    out.writeLong(card.issuer().id());
+                    out.writeLong(card.account().id());
+                }
+
+                out.flush();
+                out.writeLong(checked.getChecksum().getValue());
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        log.info("Cache snapshot written to {}: {} person(s), {} issuer(s), {} account(s), {} card(s)",
+                target, persons.size(), issuers.size(), accounts.size(), cards.size());
+    }
+
+    /**
+     * @return the snapshot contents, or empty when there is no snapshot or it is corrupt, of another
+     * format version, or was taken from a different state than {@code expected}
+     */
+    public Optional<Contents> read(Header expected) {
+        CheckedInputStream checked;
+        try {
+            checked = new CheckedInputStream(
+                    new BufferedInputStream(Files.newInputStream(path), 1 << 16), new CRC32());
+        } catch (NoSuchFileException e) {
+            log.info("No cache snapshot at {}", path.toAbsolutePath());
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Cannot open cache snapshot {}", path.toAbsolutePath(), e);
+            return Optional.empty();
+        }
+
+        try (DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC) {
+                log.warn("Ignoring cache snapshot {}: not a snapshot file", path);
+                return Optional.empty();
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                log.info("Ignoring cache snapshot {}: format version {}, expected {}", path, version, VERSION);
+                return Optional.empty();
+            }
+
+            Header header = new Header(in.readLong(), in.readLong(),
+                    in.readLong(), in.readLong(), in.readLong(), in.readLong());
+            if (!header.equals(expected)) {
+                log.info("Ignoring stale cache snapshot {}: {} does not match {}", path, header, expected);
+                return Optional.empty();
+            }
+
+            Map<Long, PersonEntity> persons = new HashMap<>(capacity(header.persons()));
+            for (long i = 0; i < header.persons(); i++) {
+                PersonEntity person = new PersonEntity();
+                person.setId(in.readLong());
+                person.setNationalCode(in.readUTF());
+                person.setFirstName(in.readUTF());
+                person.setLastName(in.readUTF());
+                person.setPhone(in.readUTF());
+                person.setAddress(in.readUTF());
+                persons.put(person.getId(), person);
+            }
+
+            Map<Long, IssuerEntity> issuers = new HashMap<>(capacity(header.issuers()));
+            for (long i = 0; i < header.issuers(); i++) {
+                IssuerEntity issuer = new IssuerEntity();
+                issuer.setId(in.readLong());
+                issuer.setIssuerCode(in.readUTF());
+                issuer.setName(in.readUTF());
+                issuers.put(issuer.getId(), issuer);
+            }
+
+            Map<Long, AccountEntity> accounts = new HashMap<>(capacity(header.accounts()));
+            for (long i = 0; i < header.accounts(); i++) {
+                AccountEntity account = AccountEntity.builder()
+                        .id(in.readLong())
+                        .accountNumber(in.readUTF())
+                        .accountType(ACCOUNT_TYPES[in.readUnsignedByte()])
+                        .owner(reference(persons, in.readLong(), "person"))
+                        .cards(new HashSet<>())
+                        .build();
+                accounts.put(account.getId(), account);
+            }
+
+            List<CardEntity> cards = new ArrayList<>(capacity(header.cards()));
+            for (long i = 0; i < header.cards(); i++) {
+                cards.add(CardEntity.builder()
+                        .id(in.readLong())
+                        .cardNumber(in.readUTF())
+                        .cardType(CARD_TYPES[in.readUnsignedByte()])
+                        .active(in.readBoolean())
+                        .expirationMonth(in.readUTF())
+                        .expirationYear(in.readUTF())
+                        .issuer(reference(issuers, in.readLong(), "issuer"))
+                        .account(reference(accounts, in.readLong(), "account"))
+                        .build());
+            }
+
+            long actualChecksum = checked.getChecksum().getValue();
+            if (in.readLong() != actualChecksum) {
+                log.warn("Ignoring cache snapshot {}: checksum mismatch", path);
+                return Optional.empty();
+            }
+
+            return Optional.of(new Contents(new ArrayList<>(persons.values()), new ArrayList<>(issuers.values()),
+                    new ArrayList<>(accounts.values()), cards));
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable cache snapshot {}", path, e);
+            return Optional.empty();
+        }
+    }
+
+    private static <E> E reference(Map<Long, E> entities, long id, String kind) throws IOException {
+        E entity = entities.get(id);
+        if (entity == null) {
+            throw new IOException("Snapshot refers to unknown " + kind + " " + id);
+        }
+        return entity;
+    }
+
+    private static int capacity(long count) {
+        return (int) Math.min(Integer.MAX_VALUE - 8, count * 4 / 3 + 1);
+    }
+}
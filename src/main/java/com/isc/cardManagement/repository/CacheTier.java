@@ -0,0 +1,91 @@
+package com.isc.cardManagement.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One map of {@link InMemoryRepository}, backed by a Caffeine cache. With a maximum size it evicts by
+ * Caffeine's W-TinyLFU policy, keeping the entries that are read most often; with a maximum size of 0 it
+ * is unbounded and never evicts. Lookups through {@link #get} count as hits or misses; writes and
+ * compound operations go through {@link #asMap()}.
+ * <p>
+ * {@link #bindTo} publishes the tier with Micrometer's cache meter names, tagged {@code cache=<name>}:
+ * {@code cache.gets} by {@code result} hit or miss, {@code cache.evictions} and {@code cache.size}. They
+ * are read from Caffeine's statistics when scraped, so lookups pay nothing beyond Caffeine's own counters.
+ */
+public final class CacheTier<K, V> implements MeterBinder {
+
+    private final String name;
+    private final long maximumSize;
+    private final Cache<K, V> cache;
+
+    public CacheTier(String name, long maximumSize) {
+        this.name = name;
+        this.maximumSize = maximumSize;
+        // eviction runs on the writing thread, so the size never overshoots while a pool thread catches up
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().executor(Runnable::run).recordStats();
+        if (maximumSize > 0) {
+            builder.maximumSize(maximumSize);
+        }
+        this.cache = builder.build();
+    }
+
+    public V get(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    public ConcurrentMap<K, V> asMap() {
+        return cache.asMap();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isBounded() {
+        return maximumSize > 0;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", cache, c -> c.stats().hitCount())
+                .tags("cache", name, "result", "hit")
+                .description("Lookups that found an entry")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> c.stats().missCount())
+                .tags("cache", name, "result", "miss")
+                .description("Lookups that found no entry")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> c.stats().evictionCount())
+                .tags("cache", name)
+                .description("Entries evicted to stay within the maximum size")
+                .register(registry);
+        Gauge.builder("cache.size", cache, Cache::estimatedSize)
+                .tags("cache", name)
+                .description("Approximate number of entries")
+                .register(registry);
+    }
+}
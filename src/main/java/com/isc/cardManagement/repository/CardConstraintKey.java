@@ -0,0 +1,59 @@
+package com.isc.cardManagement.repository;
+
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.exception.BadRequestException;
+
+/**
+ * Packs the "one card per person, card type and issuer" constraint into a single {@code long}:
+ * <pre>
+ *   bits 63..24  national code (10 digits)
+ *   bits 23..20  card type ordinal
+ *   bits 19..0   issuer code (6 digits)
+ * </pre>
+ * Building a key parses digits in place and allocates nothing.
+ */
+public final class CardConstraintKey {
+
+    private static final int NATIONAL_CODE_LENGTH = 10;
+    private static final int ISSUER_CODE_LENGTH = 6;
+
+    private static final int ISSUER_BITS = 20;
+    private static final int CARD_TYPE_BITS = 4;
+    private static final int NATIONAL_CODE_SHIFT = ISSUER_BITS + CARD_TYPE_BITS;
+
+    private CardConstraintKey() {
+    }
+
+    public static long of(String nationalCode, CardType cardType, String issuerCode) {
+        long nationalDigits = digits(nationalCode, NATIONAL_CODE_LENGTH, "کد ملی");
+        long issuerDigits = digits(issuerCode, ISSUER_CODE_LENGTH, "کد صادرکننده");
+        return nationalDigits << NATIONAL_CODE_SHIFT
+                | (long) cardType.ordinal() << ISSUER_BITS
+                | issuerDigits;
+    }
+
+    /**
+     * Readable form of a packed key, for log messages.
+     */
+    public static String toString(long key) {
+        long nationalCode = key >>> NATIONAL_CODE_SHIFT;
+        int cardType = (int) (key >>> ISSUER_BITS) & ((1 << CARD_TYPE_BITS) - 1);
+        long issuerCode = key & ((1L << ISSUER_BITS) - 1);
+        return String.format("%010d_%s_%06d", nationalCode, CardType.values()[cardType], issuerCode);
+    }
+
+    private static long digits(String value, int length, String field) {
+        if (value == null || value.length() != length) {
+            throw new BadRequestException(field + " نامعتبر است: " + value);
+        }
+        long result = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new BadRequestException(field + " نامعتبر است: " + value);
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+}
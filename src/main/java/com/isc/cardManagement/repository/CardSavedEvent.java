@@ -0,0 +1,10 @@
+package com.isc.cardManagement.repository;
+
+/**
+ * Published by {@link InMemoryRepository} for every card it inserts, inside the inserting transaction;
+ * listeners that only want committed cards use {@code @TransactionalEventListener}.
+ *
+ * @param version the person's {@link InMemoryRepository#getCardsVersion card list version} with the card
+ */
+public record CardSavedEvent(CardView card, long version) {
+}
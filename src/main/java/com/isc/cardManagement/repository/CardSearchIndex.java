@@ -0,0 +1,320 @@
+package com.isc.cardManagement.repository;
+
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.jpa.CardSearchFilter;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * Secondary indexes over the cached cards for {@link InMemoryRepository#searchCards}.
+ * <p>
+ * Every card gets a dense slot. The few values of issuer code, card type and active flag each map to a
+ * {@link BitSet} of the slots holding them; account numbers and national codes, which take about as many
+ * values as there are cards, each map to a sorted array of their few slots, as a bitmap per value would
+ * grow with the number of cards squared. A search walks the shortest of the given account/national code
+ * postings and checks the other filters per slot, or otherwise intersects the bitmaps, smallest first,
+ * instead of scanning every card. Card number is unique and resolves to a single slot directly. Freed
+ * slots are reused.
+ */
+public final class CardSearchIndex {
+
+    public record Result(List<CardView> content, long total) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private CardView[] slots = new CardView[1024];
+    private int highWaterMark;
+    private final BitSet live = new BitSet();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<String, Integer> slotByCardNumber = new HashMap<>();
+
+    private final Map<String, BitSet> byIssuerCode = new HashMap<>();
+    private final Map<String, Postings> byAccountNumber = new HashMap<>();
+    private final Map<String, Postings> byNationalCode = new HashMap<>();
+    private final Map<CardType, BitSet> byCardType = new EnumMap<>(CardType.class);
+    private final BitSet activeCards = new BitSet();
+
+    /**
+     * Adds the card, replacing any card indexed under the same card number.
+     */
+    public void add(CardView card) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotByCardNumber.get(card.cardNumber());
+            if (existing != null) {
+                unindex(existing);
+            }
+
+            int slot = freeSlots.isEmpty() ? highWaterMark++ : freeSlots.pop();
+            if (slot == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+            }
+            slots[slot] = card;
+            live.set(slot);
+            slotByCardNumber.put(card.cardNumber(), slot);
+
+            bitmap(byIssuerCode, card.issuer().issuerCode()).set(slot);
+            byAccountNumber.computeIfAbsent(card.account().accountNumber(), k -> new Postings()).add(slot);
+            byNationalCode.computeIfAbsent(card.nationalCode(), k -> new Postings()).add(slot);
+            byCardType.computeIfAbsent(card.cardType(), k -> new BitSet()).set(slot);
+            activeCards.set(slot, card.active());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the card if it is the one indexed under its card number.
+     */
+    public void remove(CardView card) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByCardNumber.get(card.cardNumber());
+            if (slot != null && slots[slot] == card) {
+                unindex(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slots = new CardView[1024];
+            highWaterMark = 0;
+            live.clear();
+            freeSlots.clear();
+            slotByCardNumber.clear();
+            byIssuerCode.clear();
+            byAccountNumber.clear();
+            byNationalCode.clear();
+            byCardType.clear();
+            activeCards.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByCardNumber.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the matching cards ordered by {@code order}, skipping {@code offset} and keeping at most
+     * {@code limit} of them, together with the total number of matches. When only a small first part of
+     * the matches is needed it is selected with a bounded heap instead of sorting every match.
+     */
+    public Result search(CardSearchFilter filter, Comparator<CardView> order, long offset, int limit) {
+        List<CardView> matches;
+        lock.readLock().lock();
+        try {
+            int[] hits = match(filter);
+            matches = new ArrayList<>(hits.length);
+            for (int slot : hits) {
+                matches.add(slots[slot]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int total = matches.size();
+        if (offset >= total || limit <= 0) {
+            return new Result(List.of(), total);
+        }
+        int end = (int) Math.min(total, offset + limit);
+
+        List<CardView> ordered = end < total / 2 ? smallest(matches, order, end) : sorted(matches, order);
+        return new Result(List.copyOf(ordered.subList((int) offset, end)), total);
+    }
+
+    private int[] match(CardSearchFilter filter) {
+        if (filter.cardNumber() != null) {
+            Integer slot = slotByCardNumber.get(filter.cardNumber());
+            return slot != null && matches(slots[slot], filter) ? new int[]{slot} : new int[0];
+        }
+
+        List<Postings> postings = new ArrayList<>(2);
+        if (filter.nationalCode() != null) {
+            postings.add(byNationalCode.get(filter.nationalCode()));
+        }
+        if (filter.accountNumber() != null) {
+            postings.add(byAccountNumber.get(filter.accountNumber()));
+        }
+        List<BitSet> bitmaps = new ArrayList<>(2);
+        if (filter.issuerCode() != null) {
+            bitmaps.add(byIssuerCode.get(filter.issuerCode()));
+        }
+        if (filter.cardType() != null) {
+            bitmaps.add(byCardType.get(filter.cardType()));
+        }
+        if (postings.contains(null) || bitmaps.contains(null)) {
+            return new int[0];
+        }
+
+        if (!postings.isEmpty()) {
+            postings.sort(Comparator.comparingInt(Postings::size));
+            Postings others = postings.size() > 1 ? postings.get(1) : null;
+            return postings.get(0).filter(slot -> (others == null || others.contains(slot))
+                    && allSet(bitmaps, slot)
+                    && (filter.active() == null || filter.active() == activeCards.get(slot)));
+        }
+
+        bitmaps.sort(Comparator.comparingInt(BitSet::cardinality));
+        BitSet result = (BitSet) (bitmaps.isEmpty() ? live : bitmaps.get(0)).clone();
+        for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result.and(bitmaps.get(i));
+        }
+        applyActive(result, filter.active());
+        return result.stream().toArray();
+    }
+
+    private static boolean allSet(List<BitSet> bitmaps, int slot) {
+        for (BitSet bitmap : bitmaps) {
+            if (!bitmap.get(slot)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the remaining filters to a card-number hit by looking at the card itself.
+     */
+    private static boolean matches(CardView card, CardSearchFilter filter) {
+        return (filter.nationalCode() == null || filter.nationalCode().equals(card.nationalCode()))
+                && (filter.accountNumber() == null
+                        || filter.accountNumber().equals(card.account().accountNumber()))
+                && (filter.issuerCode() == null || filter.issuerCode().equals(card.issuer().issuerCode()))
+                && (filter.cardType() == null || filter.cardType() == card.cardType())
+                && (filter.active() == null || filter.active() == card.active());
+    }
+
+    private void applyActive(BitSet result, Boolean active) {
+        if (Boolean.TRUE.equals(active)) {
+            result.and(activeCards);
+        } else if (Boolean.FALSE.equals(active)) {
+            result.andNot(activeCards);
+        }
+    }
+
+    private static List<CardView> sorted(List<CardView> matches, Comparator<CardView> order) {
+        matches.sort(order);
+        return matches;
+    }
+
+    private static List<CardView> smallest(List<CardView> matches, Comparator<CardView> order, int count) {
+        // max-heap of the best `count` cards seen so far
+        PriorityQueue<CardView> heap = new PriorityQueue<>(count + 1, order.reversed());
+        for (CardView card : matches) {
+            if (heap.size() < count) {
+                heap.add(card);
+            } else if (order.compare(card, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(card);
+            }
+        }
+        List<CardView> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+
+    private void unindex(int slot) {
+        CardView card = slots[slot];
+        slots[slot] = null;
+        live.clear(slot);
+        activeCards.clear(slot);
+        slotByCardNumber.remove(card.cardNumber());
+        clearBit(byIssuerCode, card.issuer().issuerCode(), slot);
+        removeSlot(byAccountNumber, card.account().accountNumber(), slot);
+        removeSlot(byNationalCode, card.nationalCode(), slot);
+        BitSet types = byCardType.get(card.cardType());
+        if (types != null) {
+            types.clear(slot);
+        }
+        freeSlots.push(slot);
+    }
+
+    private static BitSet bitmap(Map<String, BitSet> index, String value) {
+        return index.computeIfAbsent(value, k -> new BitSet());
+    }
+
+    private static void clearBit(Map<String, BitSet> index, String value, int slot) {
+        BitSet bitmap = index.get(value);
+        if (bitmap != null) {
+            bitmap.clear(slot);
+            if (bitmap.isEmpty()) {
+                index.remove(value);
+            }
+        }
+    }
+
+    private static void removeSlot(Map<String, Postings> index, String value, int slot) {
+        Postings postings = index.get(value);
+        if (postings != null) {
+            postings.remove(slot);
+            if (postings.size() == 0) {
+                index.remove(value);
+            }
+        }
+    }
+
+    /**
+     * The slots holding one value of a high-cardinality attribute, in ascending order.
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[1];
+        private int size;
+
+        void add(int slot) {
+            int i = Arrays.binarySearch(slots, 0, size, slot);
+            if (i >= 0) {
+                return;
+            }
+            i = -i - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, i, slots, i + 1, size - i);
+            slots[i] = slot;
+            size++;
+        }
+
+        void remove(int slot) {
+            int i = Arrays.binarySearch(slots, 0, size, slot);
+            if (i >= 0) {
+                System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] filter(IntPredicate predicate) {
+            int[] kept = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (predicate.test(slots[i])) {
+                    kept[count++] = slots[i];
+                }
+            }
+            return count == size ? kept : Arrays.copyOf(kept, count);
+        }
+    }
+}
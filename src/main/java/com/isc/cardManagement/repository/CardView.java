@@ -0,0 +1,58 @@
+package com.isc.cardManagement.repository;
+
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.entity.PersonEntity;
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+
+/**
+ * Immutable read model of a cached card: only the fields card reads return, without the entity's
+ * persistence state or its owner's and issuer's collections. {@link InMemoryRepository} shares one
+ * {@link Issuer}, {@link Account} and {@link Owner} instance between all the cached cards that refer to it.
+ */
+public record CardView(long id, String cardNumber, CardType cardType, boolean active,
+                       String expirationMonth, String expirationYear, Issuer issuer, Account account) {
+
+    public record Issuer(long id, String issuerCode, String name) {
+
+        static Issuer of(IssuerEntity issuer) {
+            return new Issuer(issuer.getId(), issuer.getIssuerCode(), issuer.getName());
+        }
+    }
+
+    public record Owner(long id, String nationalCode, String firstName, String lastName,
+                        String phone, String address) {
+
+        static Owner of(PersonEntity person) {
+            return new Owner(person.getId(), person.getNationalCode(), person.getFirstName(),
+                    person.getLastName(), person.getPhone(), person.getAddress());
+        }
+    }
+
+    public record Account(long id, String accountNumber, AccountType accountType, Owner owner) {
+
+        static Account of(AccountEntity account, Owner owner) {
+            return new Account(account.getId(), account.getAccountNumber(), account.getAccountType(), owner);
+        }
+    }
+
+    /**
+     * Builds a view with its own, unshared issuer, account and owner parts.
+     */
+    public static CardView from(CardEntity card) {
+        Owner owner = Owner.of(card.getAccount().getOwner());
+        return of(card, Issuer.of(card.getIssuer()), Account.of(card.getAccount(), owner));
+    }
+
+    static CardView of(CardEntity card, Issuer issuer, Account account) {
+        // expiry months and years take only a handful of distinct values, so every card shares them
+        return new CardView(card.getId(), card.getCardNumber(), card.getCardType(), card.isActive(),
+                card.getExpirationMonth().intern(), card.getExpirationYear().intern(), issuer, account);
+    }
+
+    public String nationalCode() {
+        return account.owner().nationalCode();
+    }
+}
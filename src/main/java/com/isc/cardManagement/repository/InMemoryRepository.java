@@ -1,57 +1,137 @@
 package com.isc.cardManagement.repository;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.isc.cardManagement.entity.AccountEntity;
 import com.isc.cardManagement.entity.CardEntity;
 import com.isc.cardManagement.entity.IssuerEntity;
 import com.isc.cardManagement.entity.PersonEntity;
-import com.isc.cardManagement.enums.AccountType;
 import com.isc.cardManagement.enums.CardType;
 import com.isc.cardManagement.exception.BadRequestException;
 import com.isc.cardManagement.exception.BusinessException;
+import com.isc.cardManagement.monitoring.events.CacheLoadEvent;
+import com.isc.cardManagement.monitoring.events.CacheSyncEvent;
+import com.isc.cardManagement.monitoring.events.CardLookupEvent;
 import com.isc.cardManagement.repository.jpa.AccountRepository;
 import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.CardSearchFilter;
 import com.isc.cardManagement.repository.jpa.IssuerRepository;
 import com.isc.cardManagement.repository.jpa.PersonRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ResourceUtils;
 
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Slf4j
 @Repository
 @RequiredArgsConstructor
-public class InMemoryRepository {
+public class InMemoryRepository implements MeterBinder {
 
+    // never a card number
+    private static final String RESERVED = "";
 
-    private final Map<String, PersonEntity> personMap = new ConcurrentHashMap<>();
+    // created in init(), sized by app.cache.*.max-size; the maps are the tiers' live views
+    private CacheTier<String, PersonEntity> persons;
+    private CacheTier<String, IssuerEntity> issuers;
+    private CacheTier<String, AccountEntity> accounts;
+    private CacheTier<String, CardView> cards;
+    private CacheTier<String, Map<String, CardView>> nationalCodeCards;
+    // version of each person's card list, see getCardsVersion; bounded like the lists
+    private CacheTier<String, Long> cardVersions;
 
-    private final Map<String, IssuerEntity> issuerMap = new ConcurrentHashMap<>();
+    private Map<String, PersonEntity> personMap;
 
-    private final Map<String, AccountEntity> accountMap = new ConcurrentHashMap<>();
+    private Map<String, IssuerEntity> issuerMap;
 
-    private final Map<String, CardEntity> cardMap = new ConcurrentHashMap<>();
+    private Map<String, AccountEntity> accountMap;
 
-    private final Map<String, Set<CardEntity>> nationalCodeCardsMap = new ConcurrentHashMap<>();
-    private final Map<String, CardEntity> uniqueCardConstraintMap = new ConcurrentHashMap<>();
+    private Map<String, CardView> cardMap;
+
+    private Map<String, Map<String, CardView>> nationalCodeCardsMap;
+    // keyed by CardConstraintKey, holds the card number; RESERVED while the card is being inserted. Not a
+    // cache tier: it must know every card to reject duplicates, so it is never bounded
+    private final Map<Long, String> uniqueCardConstraintMap = new ConcurrentHashMap<>();
+
+    // read-model parts shared by the cached cards, kept only while a card refers to them
+    private final Cache<String, CardView.Issuer> issuerViews = Caffeine.newBuilder().weakValues().build();
+    private final Cache<String, CardView.Account> accountViews = Caffeine.newBuilder().weakValues().build();
+    private final Cache<String, CardView.Owner> ownerViews = Caffeine.newBuilder().weakValues().build();
+
+    private final CardSearchIndex searchIndex = new CardSearchIndex();
+
+    // never reset, so a version is never handed out twice, not even after clearAll or an eviction
+    private final AtomicLong cardVersionSequence = new AtomicLong();
 
     private final CardRepository cardRepository;
     private final AccountRepository accountRepository;
     private final PersonRepository personRepository;
     private final IssuerRepository issuerRepository;
+    private final InitialDataLoader initialDataLoader;
+    private final CacheSnapshotStore snapshotStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceLoader resourceLoader;
 
     @Value("${app.data.file-path:data/initial-data.txt}")
     private String dataFilePath;
 
+    @Value("${app.warmup.async:false}")
+    private boolean asyncWarmup;
+
+    @Value("${app.cache.persons.max-size:0}")
+    private long personsMaxSize;
+
+    @Value("${app.cache.accounts.max-size:0}")
+    private long accountsMaxSize;
+
+    @Value("${app.cache.cards.max-size:0}")
+    private long cardsMaxSize;
+
+    @Value("${app.cache.national-codes.max-size:0}")
+    private long nationalCodesMaxSize;
+
+    @Value("${app.cache.negative.ttl:30s}")
+    private Duration negativeLookupTtl;
+
+    @Value("${app.cache.negative.max-entries:100000}")
+    private int negativeLookupMaxEntries;
+
+    // national codes recently found to have no cards
+    private NegativeLookupCache negativeLookups;
+
+    private volatile WarmupState warmupState = WarmupState.NOT_STARTED;
+
+    private volatile Thread warmupThread;
+
+    // set once the cache and search index are known to hold every card in the database;
+    // see checkSearchCompleteness
+    private volatile boolean searchComplete;
+
 
     @Transactional
     public void clearAllIncludingDatabase() {
@@ -70,7 +150,7 @@ public class InMemoryRepository {
 
 
     public Optional<PersonEntity> findPerson(String nationalCode) {
-        PersonEntity cached = personMap.get(nationalCode);
+        PersonEntity cached = persons.get(nationalCode);
 
         if (cached != null) {
             log.debug("Person found in cache: {}", nationalCode);
@@ -97,174 +177,252 @@ public class InMemoryRepository {
         Objects.requireNonNull(card.getIssuer(), "صادرکننده نمی تواند خالی باشد");
     }
 
+    /**
+     * Warms the cache from the initial-data file. With {@code app.warmup.async=true} the load runs on a
+     * background thread so the application can start serving while it completes; until then
+     * {@link #getCardsByNationalCode} reads from the database.
+     * <p>
+     * Persons, accounts, cards and the per-person card lists are each held in a {@link CacheTier} of at most
+     * {@code app.cache.<tier>.max-size} entries (0 = unbounded); issuers are reference data and always kept.
+     * Every lookup of a bounded tier falls through to the database on a miss. With a bounded card tier the
+     * cache cannot hold every card, so searches are not served from memory and no snapshot is written.
+     */
     @PostConstruct
-    @Transactional
     public void init() {
-        log.info("Initializing InMemoryRepository...");
-        try {
-            loadDataFromFile();
-            log.info("InMemoryRepository initialized successfully");
-            printStatistics();
-        } catch (Exception e) {
-            log.error("Failed to initialize InMemoryRepository", e);
+        persons = new CacheTier<>("persons", personsMaxSize);
+        issuers = new CacheTier<>("issuers", 0);
+        accounts = new CacheTier<>("accounts", accountsMaxSize);
+        cards = new CacheTier<>("cards", cardsMaxSize);
+        nationalCodeCards = new CacheTier<>("nationalCodes", nationalCodesMaxSize);
+        cardVersions = new CacheTier<>("cardVersions", nationalCodesMaxSize);
+        personMap = persons.asMap();
+        issuerMap = issuers.asMap();
+        accountMap = accounts.asMap();
+        cardMap = cards.asMap();
+        nationalCodeCardsMap = nationalCodeCards.asMap();
+        negativeLookups = new NegativeLookupCache(negativeLookupTtl, negativeLookupMaxEntries);
+        if (asyncWarmup) {
+            setWarmupState(WarmupState.WARMING);
+            warmupThread = new Thread(this::warmUp, "cache-warmup");
+            warmupThread.setDaemon(true);
+            warmupThread.start();
+        } else {
+            warmUp();
         }
     }
 
-
-    public void loadDataFromFile() {
-        try {
-            ClassPathResource resource = new ClassPathResource(dataFilePath);
-            List<String> lines = Files.readAllLines(
-                    Paths.get(resource.getURI()),
-                    StandardCharsets.UTF_8
-            );
-
-            for (String line : lines) {
-                line = line.trim();
-
-                if (line.isEmpty() || line.startsWith("#")) {
-                    continue;
-                }
-
-                if (line.toLowerCase().startsWith("person=")) {
-                    processPerson(line.substring(7));
-                } else if (line.toLowerCase().startsWith("issuer=")) {
-                    processIssuer(line.substring(7));
-                } else if (line.toLowerCase().startsWith("account=")) {
-                    processAccount(line.substring(8));
-                } else if (line.toLowerCase().startsWith("card=")) {
-                    processCard(line.substring(5));
-                }
+    /**
+     * Stops a warm-up still in progress, or writes the cache snapshot when snapshots are enabled
+     * and the cache is complete.
+     */
+    @PreDestroy
+    public void stopWarmup() {
+        Thread thread = warmupThread;
+        if (thread != null && thread.isAlive()) {
+            log.info("Interrupting cache warm-up");
+            thread.interrupt();
+            return;
+        }
+        if (snapshotStore.isEnabled() && isWarm() && !isBounded()) {
+            try {
+                writeSnapshot();
+            } catch (Exception e) {
+                log.warn("Failed to write cache snapshot on shutdown", e);
             }
-
-        } catch (Exception e) {
-            log.error("Failed to load data from file", e);
-            throw new BusinessException("Failed to load initial data", e);
         }
     }
 
-    private void processPerson(String data) {
+    private void warmUp() {
+        log.info("Initializing InMemoryRepository...");
+        setWarmupState(WarmupState.WARMING);
+        CacheLoadEvent event = new CacheLoadEvent();
+        event.begin();
+        String source = "snapshot";
+        LoadStatistics statistics = null;
         try {
-            String[] tokens = data.split(",");
-            if (tokens.length < 5) {
-                log.warn("Invalid person format: {}", data);
-                return;
+            if (!restoreSnapshot()) {
+                source = "seed file";
+                statistics = loadDataFromFile();
             }
-
-            String firstName = tokens[0].trim();
-            String lastName = tokens[1].trim();
-            String nationalCode = tokens[2].trim();
-            String phone = tokens[3].trim();
-            String address = tokens[4].trim();
-
-            PersonEntity person = personRepository
-                    .findByNationalCode(nationalCode)
-                    .orElseGet(() -> {
-                        PersonEntity newPerson = new PersonEntity();
-                        newPerson.setFirstName(firstName);
-                        newPerson.setLastName(lastName);
-                        newPerson.setNationalCode(nationalCode);
-                        newPerson.setPhone(phone);
-                        newPerson.setAddress(address);
-                        return personRepository.saveAndFlush(newPerson);
-                    });
-
-            personMap.put(nationalCode, person);
-            nationalCodeCardsMap.putIfAbsent(nationalCode, ConcurrentHashMap.newKeySet());
-
-            log.debug("Person saved: {} {} ({})", firstName, lastName, nationalCode);
-
+            checkSearchCompleteness();
+            setWarmupState(WarmupState.READY);
+            finish(event, source, statistics, true);
+            log.info("InMemoryRepository initialized successfully");
+            printStatistics();
         } catch (Exception e) {
-            log.error("Error processing person: {}", data, e);
+            setWarmupState(WarmupState.FAILED);
+            finish(event, source, statistics, false);
+            log.error("Failed to initialize InMemoryRepository", e);
         }
     }
 
-    private void processIssuer(String data) {
-        try {
-            String[] tokens = data.split(",", 2);
-            if (tokens.length < 2) {
-                log.warn("Invalid issuer format: {}", data);
-                return;
+    private static void finish(CacheLoadEvent event, String source, LoadStatistics statistics, boolean succeeded) {
+        long rejected = 0;
+        if (statistics != null) {
+            for (SeedRecordKind kind : SeedRecordKind.values()) {
+                rejected += statistics.getRejected(kind);
             }
+        }
+        event.finish(source, statistics == null ? 0 : statistics.getRecords(), rejected, succeeded);
+    }
 
-            String issuerCode = tokens[0].trim();
-            String issuerName = tokens[1].trim();
-
-            IssuerEntity issuer = issuerRepository
-                    .findByIssuerCode(issuerCode)
-                    .orElseGet(() -> {
-                        IssuerEntity newIssuer = new IssuerEntity();
-                        newIssuer.setIssuerCode(issuerCode);
-                        newIssuer.setName(issuerName);
-                        return issuerRepository.saveAndFlush(newIssuer);
-                    });
+    public WarmupState getWarmupState() {
+        return warmupState;
+    }
 
-            issuerMap.put(issuerCode, issuer);
+    /**
+     * Records the state and publishes it as an availability state, readable through
+     * {@code ApplicationAvailability.getState(WarmupState.class)}.
+     */
+    private void setWarmupState(WarmupState state) {
+        warmupState = state;
+        AvailabilityChangeEvent.publish(eventPublisher, this, state);
+    }
 
-            log.debug("Issuer saved: {} ({})", issuerName, issuerCode);
+    public boolean isWarm() {
+        return warmupState == WarmupState.READY;
+    }
 
-        } catch (Exception e) {
-            log.error("Error processing issuer: {}", data, e);
+    /**
+     * Compares the number of indexed cards with the card count of the database. Searches are only served
+     * from the index while the two matched at the last check; cards inserted through {@link #saveCard} and
+     * {@link #saveCards} keep them matching, anything else (a failed load, {@link #clearAll()}) does not.
+     *
+     * @return whether the index holds every card
+     */
+    public boolean checkSearchCompleteness() {
+        if (cards.isBounded()) {
+            // evicted cards leave the index as well, so it never holds every card
+            log.info("Card cache is bounded to {} entries, searches go to the database", cards.getMaximumSize());
+            searchComplete = false;
+            return false;
+        }
+        long indexed = searchIndex.size();
+        long stored = cardRepository.count();
+        searchComplete = indexed == stored;
+        if (!searchComplete) {
+            log.warn("Search index holds {} of {} card(s), searches go to the database", indexed, stored);
         }
+        return searchComplete;
     }
 
 
-    private void processAccount(String data) {
-
+    public LoadStatistics loadDataFromFile() {
         try {
+            return initialDataLoader.load(seedResource(), this);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Loading initial data was interrupted", e);
+        } catch (Exception e) {
+            log.error("Failed to load data from file", e);
+            throw new BusinessException("Failed to load initial data", e);
+        }
+    }
 
-            String[] tokens = data.split(",");
-            if (tokens.length < 3) {
-                log.warn("Invalid account format: {}", data);
-                return;
-            }
 
-            String accountNumber = tokens[0].trim();
-            String accountTypeStr = tokens[1].trim().toUpperCase();
-            String nationalCode = tokens[2].trim();
+    /**
+     * Writes the current cache to the snapshot file. Only meaningful once warm-up has completed.
+     * <p>
+     * Cards synced from the database on a cache miss bring their account, owner and issuer along without
+     * putting them in the lookup maps, so those are collected from the cards as well.
+     */
+    public void writeSnapshot() throws IOException {
+        if (!isWarm()) {
+            throw new BusinessException("Cache is not ready, snapshot not written");
+        }
+        if (isBounded()) {
+            throw new BusinessException("Cache is bounded and may not hold every row, snapshot not written");
+        }
+        // copies, so the counts in the header match the records written even while cards are being added
+        List<CardView> snapshotCards = List.copyOf(cardMap.values());
+        Map<Long, CardView.Owner> snapshotPersons = byId(personMap.values().stream().map(this::ownerView),
+                CardView.Owner::id);
+        Map<Long, CardView.Issuer> snapshotIssuers = byId(issuerMap.values().stream().map(this::issuerView),
+                CardView.Issuer::id);
+        Map<Long, CardView.Account> snapshotAccounts = byId(accountMap.values().stream().map(this::accountView),
+                CardView.Account::id);
+        for (CardView card : snapshotCards) {
+            snapshotIssuers.putIfAbsent(card.issuer().id(), card.issuer());
+            snapshotAccounts.putIfAbsent(card.account().id(), card.account());
+        }
+        for (CardView.Account account : snapshotAccounts.values()) {
+            snapshotPersons.putIfAbsent(account.owner().id(), account.owner());
+        }
 
-            log.debug("Processing account: {} for person: {}", accountNumber, nationalCode);
+        snapshotStore.write(seedFingerprint(), databaseChecksum(), snapshotPersons.values(),
+                snapshotIssuers.values(), snapshotAccounts.values(), snapshotCards);
+    }
 
-            AccountType accountType;
+    private boolean isBounded() {
+        return persons.isBounded() || accounts.isBounded() || cards.isBounded() || nationalCodeCards.isBounded();
+    }
 
-            try {
-                accountType = AccountType.valueOf(accountTypeStr);
-            } catch (IllegalArgumentException e) {
-                log.error("Invalid account type: {}", accountTypeStr);
-                return;
-            }
+    private static <V> Map<Long, V> byId(Stream<V> views, Function<V, Long> idOf) {
+        Map<Long, V> byId = new LinkedHashMap<>();
+        views.forEach(view -> byId.put(idOf.apply(view), view));
+        return byId;
+    }
 
-            if (!personMap.containsKey(nationalCode)) {
-                log.error("Person not found in cache: {}", nationalCode);
-                return;
-            }
+    /**
+     * Fills the cache from the snapshot when it was taken from the current seed file, the database content
+     * is unchanged since and the snapshot holds every row; costs a count and a checksum query per table
+     * instead of a full load.
+     *
+     * @return {@code false} when snapshots are disabled, the database is empty or there is no usable snapshot
+     */
+    public boolean restoreSnapshot() throws IOException {
+        if (!snapshotStore.isEnabled()) {
+            return false;
+        }
 
-            Optional<AccountEntity> existingAccount = accountRepository.findByAccountNumber(accountNumber);
-            if (existingAccount.isPresent()) {
-                accountMap.put(accountNumber, existingAccount.get());
-                log.debug("Account already exists in DB: {}", accountNumber);
-                return;
-            }
+        CacheSnapshotStore.Header expected = new CacheSnapshotStore.Header(seedFingerprint(), databaseChecksum(),
+                personRepository.count(), issuerRepository.count(),
+                accountRepository.count(), cardRepository.count());
+        if (expected.persons() + expected.issuers() + expected.accounts() + expected.cards() == 0) {
+            // a fresh database still has to be seeded, whatever an (empty) snapshot says
+            log.info("Database is empty, cache snapshot not used");
+            return false;
+        }
 
-            PersonEntity managedPerson = personRepository.findByNationalCode(nationalCode)
-                    .orElseThrow(() -> new RuntimeException("Person not found in DB: " + nationalCode));
+        Optional<CacheSnapshotStore.Contents> snapshot = snapshotStore.read(expected);
+        if (snapshot.isEmpty()) {
+            return false;
+        }
 
-            AccountEntity newAccount = AccountEntity.builder()
-                    .accountNumber(accountNumber)
-                    .accountType(accountType)
-                    .owner(managedPerson)  // Managed Entity
-                    .build();
+        CacheSnapshotStore.Contents contents = snapshot.get();
+        contents.persons().forEach(this::cachePerson);
+        contents.issuers().forEach(this::cacheIssuer);
+        contents.accounts().forEach(this::cacheAccount);
+        contents.cards().forEach(this::cacheCard);
 
-            AccountEntity savedAccount = accountRepository.saveAndFlush(newAccount);
-            accountMap.put(accountNumber, savedAccount);
+        log.info("Cache restored from snapshot {}", snapshotStore.getPath());
+        return true;
+    }
 
-            log.info("Account created: {} for person: {}", accountNumber, nationalCode);
+    /**
+     * A URL such as {@code file:/data/initial-data.txt} is resolved as given, so a seed file on the file
+     * system is memory-mapped; a plain path is looked up on the classpath.
+     */
+    private Resource seedResource() {
+        return ResourceUtils.isUrl(dataFilePath)
+                ? resourceLoader.getResource(dataFilePath)
+                : new ClassPathResource(dataFilePath);
+    }
 
-        } catch (Exception e) {
-            log.error("Error processing account: {}", data, e);
-        }
+    /**
+     * Cheap identity of the seed file: its size and modification time.
+     */
+    private long seedFingerprint() throws IOException {
+        Resource resource = seedResource();
+        return resource.exists() ? resource.contentLength() * 31 + resource.lastModified() : 0;
     }
 
+    private long databaseChecksum() {
+        long checksum = personRepository.contentChecksum();
+        checksum = checksum * 31 + issuerRepository.contentChecksum();
+        checksum = checksum * 31 + accountRepository.contentChecksum();
+        return checksum * 31 + cardRepository.contentChecksum();
+    }
 
     private void printStatistics() {
 
@@ -277,27 +435,38 @@ public class InMemoryRepository {
         log.info(" Cards in cache       : {}", cardMap.size());
         log.info(" Unique card constraints: {}", uniqueCardConstraintMap.size());
         log.info(" Cards by national code: {}", nationalCodeCardsMap.size());
-
-        nationalCodeCardsMap.forEach((nationalCode, cards) -> {
-            log.info("   {} has {} card(s)", nationalCode, cards.size());
-            cards.forEach(card -> log.info("     - {} {} from {}",
-                    card.getCardType(),
-                    card.getCardNumber(),
-                    card.getIssuer().getIssuerCode()));
-        });
+        getCacheTiers().stream().filter(CacheTier::isBounded).forEach(tier ->
+                log.info(" {} bounded to {} entries", tier.getName(), tier.getMaximumSize()));
+
+        if (log.isDebugEnabled()) {
+            nationalCodeCardsMap.forEach((nationalCode, personCards) -> {
+                log.debug("   {} has {} card(s)", nationalCode, personCards.size());
+                personCards.values().forEach(card -> log.debug("     - {} {} from {}",
+                        card.cardType(),
+                        card.cardNumber(),
+                        card.issuer().issuerCode()));
+            });
+        }
 
         log.info("═══════════════════════════════════════");
     }
 
+    /**
+     * Inserts the card and adds it to the cache. The person/card type/issuer constraint is reserved in
+     * {@code uniqueCardConstraintMap} before the insert, so of several concurrent requests for the same
+     * combination only one reaches the database; the others fail right away. The reservation is dropped
+     * again if the insert fails, and the cache entries are evicted if the surrounding transaction rolls back.
+     * A {@link CardSavedEvent} is published for the card.
+     */
     @Transactional
     public CardEntity saveCard(CardEntity card) throws BadRequestException {
         validateCard(card);
         String nationalCode = card.getAccount().getOwner().getNationalCode();
 
-        String uniqueKey = buildUniqueKey(nationalCode, card.getCardType(),
+        long uniqueKey = buildUniqueKey(nationalCode, card.getCardType(),
                 card.getIssuer().getIssuerCode());
 
-        if (uniqueCardConstraintMap.containsKey(uniqueKey)) {
+        if (uniqueCardConstraintMap.putIfAbsent(uniqueKey, RESERVED) != null) {
             throw new BadRequestException(
                     String.format("کارت تکراری -> کد ملی: %s - %s (%s)",
                             nationalCode,
@@ -306,152 +475,488 @@ public class InMemoryRepository {
             );
         }
 
-        CardEntity saved = cardRepository.saveAndFlush(card);
+        CardEntity saved;
+        try {
+            saved = cardRepository.saveAndFlush(card);
+        } catch (RuntimeException e) {
+            uniqueCardConstraintMap.remove(uniqueKey, RESERVED);
+            throw e;
+        }
 
-        syncCardToCache(saved, nationalCode, uniqueKey);
+        CardView view = syncCardToCache(saved, nationalCode, uniqueKey);
+        reconcileOnCompletion(view, nationalCode, uniqueKey);
+        publishSaved(view);
 
         log.info(" Card synced: {} for person {}", saved.getCardNumber(), nationalCode);
         return saved;
     }
 
+    /**
+     * Batch counterpart of {@link #saveCard}: reserves the constraint of every card, inserts the reserved
+     * ones with a single flush (so Hibernate batches the INSERTs) and syncs them to the cache. Cards whose
+     * person/card type/issuer combination is already taken are skipped.
+     *
+     * @return the inserted cards, in input order
+     */
+    @Transactional
+    public List<CardEntity> saveCards(List<CardEntity> cards) {
+        List<CardEntity> reserved = new ArrayList<>(cards.size());
+        List<String> nationalCodes = new ArrayList<>(cards.size());
+        long[] uniqueKeys = new long[cards.size()];
+
+        for (CardEntity card : cards) {
+            validateCard(card);
+            String nationalCode = card.getAccount().getOwner().getNationalCode();
+            long uniqueKey = buildUniqueKey(nationalCode, card.getCardType(), card.getIssuer().getIssuerCode());
+
+            if (uniqueCardConstraintMap.putIfAbsent(uniqueKey, RESERVED) == null) {
+                uniqueKeys[reserved.size()] = uniqueKey;
+                reserved.add(card);
+                nationalCodes.add(nationalCode);
+            }
+        }
+
+        List<CardEntity> saved;
+        try {
+            saved = cardRepository.saveAll(reserved);
+            cardRepository.flush();
+        } catch (RuntimeException e) {
+            for (int i = 0; i < reserved.size(); i++) {
+                uniqueCardConstraintMap.remove(uniqueKeys[i], RESERVED);
+            }
+            throw e;
+        }
+
+        for (int i = 0; i < saved.size(); i++) {
+            CardView view = syncCardToCache(saved.get(i), nationalCodes.get(i), uniqueKeys[i]);
+            reconcileOnCompletion(view, nationalCodes.get(i), uniqueKeys[i]);
+            publishSaved(view);
+        }
+
+        log.info(" {} of {} card(s) inserted and synced", saved.size(), cards.size());
+        return saved;
+    }
+
+    private void publishSaved(CardView card) {
+        eventPublisher.publishEvent(new CardSavedEvent(card, getCardsVersion(card.nationalCode())));
+    }
+
+    /**
+     * Evicts the card again when its transaction rolls back. When it commits, the card is offered once more to
+     * the person's list and any "no cards" entry is dropped: a miss whose query ran before the commit did not
+     * see the card, and may have cached a list or an empty answer without it in the meantime.
+     */
+    private void reconcileOnCompletion(CardView card, String nationalCode, long uniqueKey) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    if (nationalCodeCards.isBounded()) {
+                        addToCachedList(nationalCode, card);
+                    }
+                    negativeLookups.invalidate(nationalCode);
+                    bumpCardsVersion(nationalCode);
+                    return;
+                }
+                uniqueCardConstraintMap.remove(uniqueKey, card.cardNumber());
+                cardMap.remove(card.cardNumber(), card);
+                searchIndex.remove(card);
+                Map<String, CardView> personCards = nationalCodeCardsMap.get(nationalCode);
+                if (personCards != null) {
+                    personCards.remove(card.cardNumber(), card);
+                }
+                bumpCardsVersion(nationalCode);
+                log.info("Transaction rolled back, card {} evicted from cache", card.cardNumber());
+            }
+        });
+    }
+
+    /**
+     * Returns a snapshot of the person's cards, as immutable views that stay valid outside any transaction.
+     * <p>
+     * A national code without cached cards is answered without the database when the cache is known to
+     * hold every card and every person's list, or when the database recently had no cards for it; the latter is remembered for
+     * {@code app.cache.negative.ttl} and forgotten as soon as a card is cached for the person.
+     * <p>
+     * Every call is recorded as a {@link CardLookupEvent} and every miss filled from the database as a
+     * {@link CacheSyncEvent}, when a Flight Recorder recording asks for them.
+     */
     @Transactional(readOnly = true)
-    public Set<CardEntity> getCardsByNationalCode(String nationalCode) {
-        Set<CardEntity> cachedCards = nationalCodeCardsMap.get(nationalCode);
+    public List<CardView> getCardsByNationalCode(String nationalCode) {
+        CardLookupEvent lookup = new CardLookupEvent();
+        lookup.begin();
+        boolean warming = warmupState == WarmupState.WARMING;
+        Map<String, CardView> cachedCards = warming ? null : nationalCodeCards.get(nationalCode);
 
         if (cachedCards != null && !cachedCards.isEmpty()) {
             log.debug("Cache hit: {} card(s) for {}", cachedCards.size(), nationalCode);
-            return new HashSet<>(cachedCards);
+            lookup.finish(nationalCode, CardLookupEvent.HIT, cachedCards.size());
+            return new ArrayList<>(cachedCards.values());
         }
-
-        PersonEntity person = personRepository.findByNationalCode(nationalCode).orElse(null);
-        if (person == null) {
-            return Collections.emptySet();
+        // a complete index only implies the person has no cards while the person's list cannot be evicted
+        boolean noCardsKnown = searchComplete && !nationalCodeCards.isBounded();
+        if (!warming && (noCardsKnown || negativeLookups.contains(nationalCode))) {
+            log.debug("Negative hit: no cards for {}", nationalCode);
+            lookup.finish(nationalCode, CardLookupEvent.NEGATIVE_HIT, 0);
+            return Collections.emptyList();
         }
 
-        List<AccountEntity> accounts = accountRepository.findAllByOwner(person);
-        Set<CardEntity> dbCards = accounts.stream()
-                .flatMap(account -> cardRepository.findAllByAccount(account).stream())
-                .collect(Collectors.toSet());
+        // read before the query: a card cached for the person after this moves it (see cachePersonCards)
+        Long versionBefore = cardVersions.get(nationalCode);
+        CacheSyncEvent sync = new CacheSyncEvent();
+        sync.begin();
+        // one statement for the cards with their accounts, owner and issuers, however many accounts there are
+        List<CardEntity> dbCards = cardRepository.findByAccount_Owner_NationalCode(nationalCode);
+
+        if (warming) {
+            // the loader owns the cache until warm-up completes
+            log.debug("Warm-up in progress, served {} card(s) for {} from DB", dbCards.size(), nationalCode);
+            lookup.finish(nationalCode, CardLookupEvent.WARMING, dbCards.size());
+            return dbCards.stream().map(this::toView).toList();
+        }
 
+        Map<String, CardView> personCards = new ConcurrentHashMap<>();
         dbCards.forEach(card -> {
-            String uniqueKey = buildUniqueKey(nationalCode, card.getCardType(),
+            long uniqueKey = buildUniqueKey(nationalCode, card.getCardType(),
                     card.getIssuer().getIssuerCode());
-            syncCardToCache(card, nationalCode, uniqueKey);
+            CardView view = cacheView(card, uniqueKey);
+            personCards.put(view.cardNumber(), view);
         });
-
+        if (personCards.isEmpty()) {
+            rememberNoCards(nationalCode, versionBefore);
+        } else {
+            cachePersonCards(nationalCode, personCards, versionBefore);
+        }
+        sync.finish(nationalCode, dbCards.size());
+        lookup.finish(nationalCode, CardLookupEvent.DATABASE, dbCards.size());
+        if (dbCards.isEmpty()) {
+            return Collections.emptyList();
+        }
         log.info("Synced {} card(s) from DB to cache for {}", dbCards.size(), nationalCode);
-        return dbCards;
+        return new ArrayList<>(personCards.values());
     }
 
-    private void processCard(String data) {
+    private void rememberNoCards(String nationalCode, Long versionBefore) {
+        negativeLookups.add(nationalCode);
+        // a card cached since the query invalidated nothing yet, so drop the entry again
+        Map<String, CardView> personCards = nationalCodeCardsMap.get(nationalCode);
+        if (personCards != null && !personCards.isEmpty()
+                || !Objects.equals(cardVersions.get(nationalCode), versionBefore)) {
+            negativeLookups.invalidate(nationalCode);
+        }
+    }
 
-        try {
-            String[] tokens = data.split(",");
-            if (tokens.length < 7) {
-                log.warn("Invalid card format: {}", data);
-                return;
-            }
+    /**
+     * Installs the list read from the database, merged with any card cached for the person since. Every
+     * card saved meanwhile reaches an unbounded list, as {@link #syncCardToCache} creates the list if need
+     * be; a bounded tier only adds cards to a list that is already there, so when the person's version moved
+     * since the query the list may lack a card and is dropped again, to be rebuilt by the next miss.
+     */
+    private void cachePersonCards(String nationalCode, Map<String, CardView> personCards, Long versionBefore) {
+        Map<String, CardView> installed = nationalCodeCardsMap.merge(nationalCode, personCards,
+                (current, loaded) -> {
+                    current.putAll(loaded);
+                    return current;
+                });
+        if (nationalCodeCards.isBounded() && !Objects.equals(cardVersions.get(nationalCode), versionBefore)) {
+            nationalCodeCardsMap.remove(nationalCode, installed);
+            log.debug("Cards of {} changed while they were read, list not cached", nationalCode);
+            return;
+        }
+        bumpCardsVersion(nationalCode);
+        negativeLookups.invalidate(nationalCode);
+    }
 
-            String cardNumber = tokens[0].trim();
-            String cardTypeStr = tokens[1].trim().toUpperCase();
-            boolean active = Boolean.parseBoolean(tokens[2].trim());
-            String expirationMonth = tokens[3].trim();
-            String expirationYear = tokens[4].trim();
-            String issuerCode = tokens[5].trim();
-            String accountNumber = tokens[6].trim();
+    /**
+     * Caches the card as a {@link CardView}.
+     *
+     * @return the cached view
+     */
+    private CardView syncCardToCache(CardEntity card, String nationalCode, long uniqueKey) {
+        CardView view = cacheView(card, uniqueKey);
+        if (nationalCodeCards.isBounded()) {
+            // a new list would hide the person's other cards; an evicted list is rebuilt whole on the next miss
+            addToCachedList(nationalCode, view);
+        } else {
+            nationalCodeCardsMap.computeIfAbsent(nationalCode, k -> new ConcurrentHashMap<>())
+                    .put(view.cardNumber(), view);
+        }
+        bumpCardsVersion(nationalCode);
+        negativeLookups.invalidate(nationalCode);
+        return view;
+    }
 
-            log.debug("Processing card: {} for account: {}", cardNumber, accountNumber);
+    /**
+     * Caches the card by number and in the search index, without touching the person's list.
+     */
+    private CardView cacheView(CardEntity card, long uniqueKey) {
+        CardView view = toView(card);
+        cardMap.put(view.cardNumber(), view);
+        if (!cards.isBounded()) {
+            searchIndex.add(view);
+        }
+        // fills the caller's own reservation; a card that already holds the constraint is never replaced
+        uniqueCardConstraintMap.compute(uniqueKey,
+                (key, current) -> current == null || current.equals(RESERVED) ? view.cardNumber() : current);
+        return view;
+    }
 
-            CardType cardType;
-            try {
-                cardType = CardType.valueOf(cardTypeStr);
-            } catch (IllegalArgumentException e) {
-                log.error("Invalid card type: {}", cardTypeStr);
-                return;
-            }
+    /**
+     * Adds the card to the person's list if one is cached. The version is bumped before the list is looked
+     * up, so a miss that installs the list after the lookup sees the version move and drops it again.
+     */
+    private void addToCachedList(String nationalCode, CardView view) {
+        bumpCardsVersion(nationalCode);
+        Map<String, CardView> personCards = nationalCodeCardsMap.get(nationalCode);
+        if (personCards != null) {
+            personCards.put(view.cardNumber(), view);
+        }
+    }
 
-            if (!accountMap.containsKey(accountNumber)) {
-                log.error("Account not found in cache: {}", accountNumber);
-                return;
-            }
-            if (!issuerMap.containsKey(issuerCode)) {
-                log.error("Issuer not found in cache: {}", issuerCode);
-                return;
-            }
+    private void bumpCardsVersion(String nationalCode) {
+        cardVersions.asMap().put(nationalCode, cardVersionSequence.incrementAndGet());
+    }
 
-            AccountEntity cachedAccount = accountMap.get(accountNumber);
-            String nationalCode = cachedAccount.getOwner().getNationalCode();
-            String uniqueKey = buildUniqueKey(nationalCode, cardType, issuerCode);
+    /**
+     * Version of the person's cached card list. It grows every time a card is cached for the person or
+     * evicted again, and a value is never reused for another list, so anything derived from the cards read
+     * after this call stays valid for as long as the version is unchanged.
+     *
+     * @return 0 when the person has no card list in the cache
+     */
+    public long getCardsVersion(String nationalCode) {
+        Long version = cardVersions.get(nationalCode);
+        if (version != null) {
+            return version;
+        }
+        if (!nationalCodeCardsMap.containsKey(nationalCode)) {
+            return 0;
+        }
+        // the version was evicted while the list was kept: a fresh one is newer than any the list had
+        return cardVersions.asMap().computeIfAbsent(nationalCode, k -> cardVersionSequence.incrementAndGet());
+    }
 
-            if (uniqueCardConstraintMap.containsKey(uniqueKey)) {
-                log.warn("Duplicate card constraint violated: {}", uniqueKey);
-                return;
-            }
+    private CardView toView(CardEntity card) {
+        return CardView.of(card, issuerView(card.getIssuer()), accountView(card.getAccount()));
+    }
 
-            Optional<CardEntity> existingCard = cardRepository.findByCardNumber(cardNumber);
-            if (existingCard.isPresent()) {
-                syncCardToCache(existingCard.get(), nationalCode, uniqueKey);
-                log.debug("Card already exists in DB: {}", cardNumber);
-                return;
-            }
+    private CardView.Issuer issuerView(IssuerEntity issuer) {
+        return intern(issuerViews, issuer.getIssuerCode(), CardView.Issuer.of(issuer));
+    }
 
-            AccountEntity managedAccount = accountRepository.findByAccountNumber(accountNumber)
-                    .orElseThrow(() -> new RuntimeException("Account not found in DB: " + accountNumber));
+    private CardView.Owner ownerView(PersonEntity person) {
+        return intern(ownerViews, person.getNationalCode(), CardView.Owner.of(person));
+    }
 
-            IssuerEntity managedIssuer = issuerRepository.findByIssuerCode(issuerCode)
-                    .orElseThrow(() -> new RuntimeException("Issuer not found in DB: " + issuerCode));
+    private CardView.Account accountView(AccountEntity account) {
+        return intern(accountViews, account.getAccountNumber(),
+                CardView.Account.of(account, ownerView(account.getOwner())));
+    }
 
-            CardEntity newCard = CardEntity.builder()
-                    .cardNumber(cardNumber)
-                    .cardType(cardType)
-                    .active(active)
-                    .expirationMonth(expirationMonth)
-                    .expirationYear(expirationYear)
-                    .account(managedAccount)  // Managed
-                    .issuer(managedIssuer)    // Managed
-                    .build();
+    /**
+     * Returns the shared instance equal to {@code view}, which becomes the shared one if there is none or
+     * the shared one is out of date.
+     */
+    private static <V> V intern(Cache<String, V> views, String key, V view) {
+        return views.asMap().merge(key, view, (current, fresh) -> current.equals(fresh) ? current : fresh);
+    }
 
-            CardEntity savedCard = cardRepository.saveAndFlush(newCard);
-            syncCardToCache(savedCard, nationalCode, uniqueKey);
+    long buildUniqueKey(String nationalCode, CardType cardType, String issuerCode) {
+        return CardConstraintKey.of(nationalCode, cardType, issuerCode);
+    }
 
-            log.info("Card created: {} for account: {}", cardNumber, accountNumber);
+    // ========== Cache population (used by InitialDataLoader) ==========
 
-        } catch (Exception e) {
-            log.error("Error processing card: {}", data, e);
-        }
+    Optional<PersonEntity> findCachedPerson(String nationalCode) {
+        return Optional.ofNullable(personMap.get(nationalCode));
+    }
+
+    /**
+     * As {@link #resolveAccount}: falls back to the database only when the person tier is bounded.
+     */
+    Optional<PersonEntity> resolvePerson(String nationalCode) {
+        Optional<PersonEntity> cached = findCachedPerson(nationalCode);
+        return cached.isPresent() || !persons.isBounded() ? cached : findPerson(nationalCode);
     }
 
+    boolean isCardCached(String cardNumber) {
+        return cardMap.containsKey(cardNumber);
+    }
+
+    /**
+     * Reserves the person/card type/issuer constraint for a seed card, as {@link #saveCard} does for an
+     * API card, so the loader and concurrent requests cannot both take it.
+     *
+     * @return {@code false} when the constraint is already reserved or held by a card
+     */
+    boolean reserveUniqueKey(long uniqueKey) {
+        return uniqueCardConstraintMap.putIfAbsent(uniqueKey, RESERVED) == null;
+    }
 
-    private void syncCardToCache(CardEntity card, String nationalCode, String uniqueKey) {
-        cardMap.put(card.getCardNumber(), card);
-        nationalCodeCardsMap.computeIfAbsent(nationalCode, k -> ConcurrentHashMap.newKeySet()).add(card);
-        uniqueCardConstraintMap.put(uniqueKey, card);
+    /**
+     * Drops a reservation that did not end up holding a card.
+     */
+    void releaseUniqueKey(long uniqueKey) {
+        uniqueCardConstraintMap.remove(uniqueKey, RESERVED);
     }
 
-    private String buildUniqueKey(String nationalCode, CardType cardType, String issuerCode) {
-        return String.format("%s_%s_%s", nationalCode, cardType, issuerCode);
+    void cachePerson(PersonEntity person) {
+        personMap.put(person.getNationalCode(), person);
+        nationalCodeCardsMap.putIfAbsent(person.getNationalCode(), new ConcurrentHashMap<>());
+        negativeLookups.invalidate(person.getNationalCode());
+    }
+
+    void cacheIssuer(IssuerEntity issuer) {
+        issuerMap.put(issuer.getIssuerCode(), issuer);
+    }
+
+    void cacheAccount(AccountEntity account) {
+        accountMap.put(account.getAccountNumber(), account);
+    }
+
+    void cacheCard(CardEntity card) {
+        String nationalCode = card.getAccount().getOwner().getNationalCode();
+        syncCardToCache(card, nationalCode,
+                buildUniqueKey(nationalCode, card.getCardType(), card.getIssuer().getIssuerCode()));
     }
 
 
     public Optional<IssuerEntity> findIssuer(String issuerCode) {
-        return Optional.ofNullable(issuerMap.get(issuerCode));
+        return Optional.ofNullable(issuers.get(issuerCode));
     }
 
     public Optional<AccountEntity> findAccount(String accountNumber) {
-        return Optional.ofNullable(accountMap.get(accountNumber));
+        return Optional.ofNullable(accounts.get(accountNumber));
+    }
+
+    /**
+     * The cached account, or else the account from the database, which is then cached; for callers that
+     * cannot do without it when the account tier is bounded.
+     */
+    Optional<AccountEntity> resolveAccount(String accountNumber) {
+        Optional<AccountEntity> cached = findAccount(accountNumber);
+        if (cached.isPresent() || !accounts.isBounded()) {
+            return cached;
+        }
+        Optional<AccountEntity> fromDb = accountRepository.findByAccountNumber(accountNumber);
+        fromDb.ifPresent(this::cacheAccount);
+        return fromDb;
+    }
+
+    /**
+     * O(1) card-number lookup. Until warm-up has completed, or when the card tier is bounded, the cache may
+     * not hold every card, so a miss is confirmed against the database.
+     */
+    public boolean isCardNumberTaken(String cardNumber) {
+        if (cards.get(cardNumber) != null) {
+            return true;
+        }
+        return (!isWarm() || cards.isBounded()) && cardRepository.existsByCardNumber(cardNumber);
+    }
+
+
+    /**
+     * Runs a card search against {@link CardSearchIndex} with the same semantics as
+     * {@code CardRepository.searchCards}: equality filters, the pageable's sort (ascending id when unsorted)
+     * and offset paging.
+     *
+     * @return empty when the cache is not warm yet, the index is not known to hold every card or the sort
+     * uses a property the index cannot order by; the caller then searches the database
+     */
+    public Optional<Page<CardView>> searchCards(CardSearchFilter filter, Pageable pageable) {
+        if (!isWarm() || !searchComplete) {
+            return Optional.empty();
+        }
+        Comparator<CardView> order = comparator(pageable.getSort());
+        if (order == null) {
+            log.debug("Sort {} not supported by the search index, searching the database", pageable.getSort());
+            return Optional.empty();
+        }
+
+        CardSearchIndex.Result result = pageable.isPaged()
+                ? searchIndex.search(filter, order, pageable.getOffset(), pageable.getPageSize())
+                : searchIndex.search(filter, order, 0, Integer.MAX_VALUE);
+
+        return Optional.of(new PageImpl<>(result.content(), pageable, result.total()));
     }
 
+    private static Comparator<CardView> comparator(Sort sort) {
+        Comparator<CardView> order = null;
+        for (Sort.Order sortOrder : sort.isSorted() ? sort : Sort.by("id")) {
+            Comparator<CardView> property = switch (sortOrder.getProperty()) {
+                case "id" -> Comparator.comparingLong(CardView::id);
+                case "cardNumber" -> Comparator.comparing(CardView::cardNumber);
+                case "expirationYear" -> Comparator.comparing(CardView::expirationYear);
+                case "expirationMonth" -> Comparator.comparing(CardView::expirationMonth);
+                // stored as EnumType.STRING, so the database orders card types by name
+                case "cardType" -> Comparator.comparing(card -> card.cardType().name());
+                case "active" -> Comparator.comparing(CardView::active);
+                default -> null;
+            };
+            if (property == null || sortOrder.isIgnoreCase()) {
+                return null;
+            }
+            if (sortOrder.isDescending()) {
+                property = property.reversed();
+            }
+            order = order == null ? property : order.thenComparing(property);
+        }
+        return order;
+    }
+
+    /**
+     * The cache tiers, for their sizes and hit, miss and eviction counts.
+     */
+    public List<CacheTier<?, ?>> getCacheTiers() {
+        return List.of(persons, issuers, accounts, cards, nationalCodeCards, cardVersions);
+    }
+
+    /**
+     * Publishes the cache tiers, the remembered national codes without cards, the search index size, whether
+     * searches are served from the index, and the warm-up state as one {@code 0}/{@code 1} gauge per state.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        getCacheTiers().forEach(tier -> tier.bindTo(registry));
+        Gauge.builder("cache.size", this, repository -> repository.negativeLookups.size())
+                .description("Entries in the cache")
+                .tag("cache", "negativeLookups")
+                .register(registry);
+        Gauge.builder("cards.search.index.size", searchIndex, CardSearchIndex::size)
+                .description("Cards in the search index")
+                .register(registry);
+        Gauge.builder("cards.search.index.complete", this, repository -> repository.searchComplete ? 1 : 0)
+                .description("1 when searches are served from the index, 0 when they go to the database")
+                .register(registry);
+        for (WarmupState state : WarmupState.values()) {
+            Gauge.builder("cache.warmup.state", this, repository -> repository.warmupState == state ? 1 : 0)
+                    .description("1 for the current warm-up state")
+                    .tag("state", state.name())
+                    .register(registry);
+        }
+    }
 
-    public Map<String, Set<CardEntity>> getAll() {
+    public Map<String, Map<String, CardView>> getAll() {
         return Collections.unmodifiableMap(nationalCodeCardsMap);
     }
 
     public void clearAll() {
         nationalCodeCardsMap.clear();
+        cardVersions.clear();
         personMap.clear();
         issuerMap.clear();
         accountMap.clear();
         cardMap.clear();
+        uniqueCardConstraintMap.clear();
+        searchIndex.clear();
+        issuerViews.invalidateAll();
+        accountViews.invalidateAll();
+        ownerViews.invalidateAll();
+        searchComplete = false;
+        negativeLookups.clear();
         log.info("In-memory repository cleared");
     }
 
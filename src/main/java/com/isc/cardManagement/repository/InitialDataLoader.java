@@ -0,0 +1,555 @@
+package com.isc.cardManagement.repository;
+
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.entity.PersonEntity;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.jpa.AccountRepository;
+import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.IssuerRepository;
+import com.isc.cardManagement.repository.jpa.PersonRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Streams the initial-data file and persists it in chunks, in parallel.
+ * <p>
+ * The file is processed in dependency-ordered stages (persons and issuers, then accounts, then cards);
+ * each stage scans the file with {@link SeedFileParser}, keeps only its own kinds and buffers them into
+ * chunks of {@code app.data.batch-size}. Records are de-duplicated on the reading thread, in file order;
+ * persisting the chunks is spread over {@code app.warmup.workers} threads. For every chunk the keys that
+ * already exist are resolved with one IN-query, the rest are inserted with JDBC batching in a single
+ * transaction, and the persistence context is flushed and cleared. The number of chunks in flight is
+ * bounded, and the keys claimed for de-duplication are released as soon as their chunk is in the cache,
+ * which rejects later duplicates from then on; so apart from the cache itself, memory is bounded by the
+ * chunks in flight rather than by the size of the file. A chunk that fails as a whole is retried record
+ * by record.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InitialDataLoader implements MeterBinder {
+
+    private static final List<Set<SeedRecordKind>> STAGES = List.of(
+            EnumSet.of(SeedRecordKind.PERSON, SeedRecordKind.ISSUER),
+            EnumSet.of(SeedRecordKind.ACCOUNT),
+            EnumSet.of(SeedRecordKind.CARD)
+    );
+
+    private final PersonRepository personRepository;
+    private final IssuerRepository issuerRepository;
+    private final AccountRepository accountRepository;
+    private final CardRepository cardRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final SeedFileParser parser = new SeedFileParser();
+
+    @Value("${app.data.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.data.progress-interval:100000}")
+    private long progressInterval;
+
+    /**
+     * Number of threads persisting chunks; {@code 0} means one per available processor.
+     */
+    @Value("${app.warmup.workers:0}")
+    private int workers;
+
+    // the load in progress, or the last one; null before the first
+    private volatile LoadStatistics latest;
+
+
+    public LoadStatistics load(Resource resource, InMemoryRepository cache)
+            throws IOException, InterruptedException {
+
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        log.info("Loading initial data from {} (batch size {}, {} worker(s))",
+                resource.getDescription(), batchSize, poolSize);
+
+        LoadStatistics statistics = new LoadStatistics();
+        latest = statistics;
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize, workerThreadFactory());
+
+        try {
+            for (int i = 0; i < STAGES.size(); i++) {
+                Stage stage = new Stage(STAGES.get(i), i == 0, poolSize * 2, pool);
+                loadStage(resource, stage, cache, statistics);
+                log.info("Stage {} {} done: {} record(s) so far", i + 1, stage.kinds, statistics.getRecords());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        statistics.finish();
+        log.info("Initial data loaded: {}", statistics);
+        return statistics;
+    }
+
+    /**
+     * Publishes the counters of the load in progress, or of the last one: records per kind and result, lines
+     * read, throughput and duration.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (SeedRecordKind kind : SeedRecordKind.values()) {
+            String kindTag = kind.name().toLowerCase();
+            registerRecords(registry, kindTag, "inserted", statistics -> statistics.getInserted(kind));
+            registerRecords(registry, kindTag, "existing", statistics -> statistics.getExisting(kind));
+            registerRecords(registry, kindTag, "rejected", statistics -> statistics.getRejected(kind));
+        }
+        FunctionCounter.builder("seed.load.lines", this, loader -> loader.latestValue(LoadStatistics::getLines))
+                .description("Seed file lines read")
+                .register(registry);
+        Gauge.builder("seed.load.throughput", this, loader -> loader.latestValue(LoadStatistics::getRecordsPerSecond))
+                .description("Seed records loaded per second")
+                .baseUnit("records")
+                .register(registry);
+        TimeGauge.builder("seed.load.duration", this, TimeUnit.MILLISECONDS,
+                        loader -> loader.latestValue(LoadStatistics::getElapsedMillis))
+                .description("Time spent loading the seed file")
+                .register(registry);
+    }
+
+    private void registerRecords(MeterRegistry registry, String kind, String result,
+                                 ToLongFunction<LoadStatistics> count) {
+        FunctionCounter.builder("seed.load.records", this, loader -> loader.latestValue(count::applyAsLong))
+                .description("Seed records by kind and what became of them")
+                .tag("kind", kind)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private double latestValue(ToDoubleFunction<LoadStatistics> value) {
+        LoadStatistics statistics = latest;
+        return statistics == null ? 0 : value.applyAsDouble(statistics);
+    }
+
+    private void loadStage(Resource resource, Stage stage, InMemoryRepository cache, LoadStatistics statistics)
+            throws IOException, InterruptedException {
+
+        Map<SeedRecordKind, List<SeedRecord>> chunks = new EnumMap<>(SeedRecordKind.class);
+
+        SeedRecordHandler handler = new SeedRecordHandler() {
+
+            private long nextProgress = statistics.getRecords() + progressInterval;
+
+            @Override
+            public void onRecord(SeedRecord record) throws InterruptedException {
+                List<SeedRecord> chunk = chunks.computeIfAbsent(record.kind(), k -> new ArrayList<>(batchSize));
+                chunk.add(record);
+
+                if (chunk.size() >= batchSize) {
+                    submitChunk(record.kind(), chunks.remove(record.kind()), stage, cache, statistics);
+
+                    if (statistics.getRecords() >= nextProgress) {
+                        log.info("Loaded {} record(s) so far ({} rec/s)",
+                                statistics.getRecords(), Math.round(statistics.getRecordsPerSecond()));
+                        nextProgress += progressInterval;
+                    }
+                }
+            }
+
+            @Override
+            public void onMalformed(SeedRecordKind kind, long offset, String reason) {
+                log.warn("Invalid {} format at byte {}: {}", kind.name().toLowerCase(), offset, reason);
+                statistics.rejected(kind);
+            }
+        };
+
+        try {
+            long lines = parser.parse(resource, stage.kinds, handler);
+            if (stage.countLines) {
+                statistics.linesRead(lines);
+            }
+
+            for (Map.Entry<SeedRecordKind, List<SeedRecord>> entry : chunks.entrySet()) {
+                submitChunk(entry.getKey(), entry.getValue(), stage, cache, statistics);
+            }
+        } finally {
+            stage.awaitCompletion();
+        }
+
+        if (stage.failure.get() != null) {
+            throw new IllegalStateException("Loading " + stage.kinds + " failed", stage.failure.get());
+        }
+    }
+
+    /**
+     * Prepares the chunk on the calling thread and hands its persistence to the worker pool,
+     * blocking while too many chunks are already in flight.
+     */
+    private void submitChunk(SeedRecordKind kind, List<SeedRecord> chunk, Stage stage,
+                             InMemoryRepository cache, LoadStatistics statistics) throws InterruptedException {
+
+        Runnable persist = switch (kind) {
+            case PERSON -> preparePersons(chunk, cache, statistics, stage);
+            case ISSUER -> prepareIssuers(chunk, cache, statistics, stage);
+            case ACCOUNT -> prepareAccounts(chunk, cache, statistics, stage);
+            case CARD -> prepareCards(chunk, cache, statistics, stage);
+        };
+
+        stage.inFlight.acquire();
+        try {
+            stage.pool.execute(() -> {
+                try {
+                    persist.run();
+                } catch (Throwable t) {
+                    stage.failure.compareAndSet(null, t);
+                } finally {
+                    stage.inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stage.inFlight.release();
+            throw e;
+        }
+    }
+
+    // ========== Persons ==========
+
+    private Runnable preparePersons(List<SeedRecord> chunk, InMemoryRepository cache,
+                                    LoadStatistics statistics, Stage stage) {
+
+        Map<String, Supplier<PersonEntity>> candidates = new LinkedHashMap<>();
+
+        for (SeedRecord record : chunk) {
+            SeedRecord.Person row = (SeedRecord.Person) record;
+            String nationalCode = row.nationalCode();
+
+            if (!stage.claim(SeedRecordKind.PERSON, nationalCode)) {
+                statistics.existing(SeedRecordKind.PERSON);
+                continue;
+            }
+            if (cache.findCachedPerson(nationalCode).isPresent()) {
+                stage.release(SeedRecordKind.PERSON, nationalCode);
+                statistics.existing(SeedRecordKind.PERSON);
+                continue;
+            }
+
+            candidates.put(nationalCode, () -> {
+                PersonEntity person = new PersonEntity();
+                person.setFirstName(row.firstName());
+                person.setLastName(row.lastName());
+                person.setNationalCode(nationalCode);
+                person.setPhone(row.phone());
+                person.setAddress(row.address());
+                return person;
+            });
+        }
+
+        return stage.releasingClaims(SeedRecordKind.PERSON, candidates.keySet(), () ->
+                persistChunk(SeedRecordKind.PERSON, candidates,
+                        personRepository::findAllByNationalCodeIn, PersonEntity::getNationalCode,
+                        personRepository, statistics)
+                        .forEach(cache::cachePerson));
+    }
+
+    // ========== Issuers ==========
+
+    private Runnable prepareIssuers(List<SeedRecord> chunk, InMemoryRepository cache,
+                                    LoadStatistics statistics, Stage stage) {
+
+        Map<String, Supplier<IssuerEntity>> candidates = new LinkedHashMap<>();
+
+        for (SeedRecord record : chunk) {
+            SeedRecord.Issuer row = (SeedRecord.Issuer) record;
+            String issuerCode = row.issuerCode();
+
+            if (!stage.claim(SeedRecordKind.ISSUER, issuerCode)) {
+                statistics.existing(SeedRecordKind.ISSUER);
+                continue;
+            }
+            if (cache.findIssuer(issuerCode).isPresent()) {
+                stage.release(SeedRecordKind.ISSUER, issuerCode);
+                statistics.existing(SeedRecordKind.ISSUER);
+                continue;
+            }
+
+            candidates.put(issuerCode, () -> {
+                IssuerEntity issuer = new IssuerEntity();
+                issuer.setIssuerCode(issuerCode);
+                issuer.setName(row.name());
+                return issuer;
+            });
+        }
+
+        return stage.releasingClaims(SeedRecordKind.ISSUER, candidates.keySet(), () ->
+                persistChunk(SeedRecordKind.ISSUER, candidates,
+                        issuerRepository::findAllByIssuerCodeIn, IssuerEntity::getIssuerCode,
+                        issuerRepository, statistics)
+                        .forEach(cache::cacheIssuer));
+    }
+
+    // ========== Accounts ==========
+
+    private Runnable prepareAccounts(List<SeedRecord> chunk, InMemoryRepository cache,
+                                     LoadStatistics statistics, Stage stage) {
+
+        Map<String, Supplier<AccountEntity>> candidates = new LinkedHashMap<>();
+
+        for (SeedRecord record : chunk) {
+            SeedRecord.Account row = (SeedRecord.Account) record;
+            String accountNumber = row.accountNumber();
+            String nationalCode = row.nationalCode();
+
+            Optional<PersonEntity> owner = cache.resolvePerson(nationalCode);
+            if (owner.isEmpty()) {
+                log.error("Person not found in cache: {}", nationalCode);
+                statistics.rejected(SeedRecordKind.ACCOUNT);
+                continue;
+            }
+
+            if (!stage.claim(SeedRecordKind.ACCOUNT, accountNumber)) {
+                statistics.existing(SeedRecordKind.ACCOUNT);
+                continue;
+            }
+            if (cache.findAccount(accountNumber).isPresent()) {
+                stage.release(SeedRecordKind.ACCOUNT, accountNumber);
+                statistics.existing(SeedRecordKind.ACCOUNT);
+                continue;
+            }
+
+            candidates.put(accountNumber, () -> AccountEntity.builder()
+                    .accountNumber(accountNumber)
+                    .accountType(row.accountType())
+                    .owner(owner.get())
+                    .build());
+        }
+
+        return stage.releasingClaims(SeedRecordKind.ACCOUNT, candidates.keySet(), () ->
+                persistChunk(SeedRecordKind.ACCOUNT, candidates,
+                        accountRepository::findAllByAccountNumberIn, AccountEntity::getAccountNumber,
+                        accountRepository, statistics)
+                        .forEach(cache::cacheAccount));
+    }
+
+    // ========== Cards ==========
+
+    private Runnable prepareCards(List<SeedRecord> chunk, InMemoryRepository cache,
+                                  LoadStatistics statistics, Stage stage) {
+
+        Map<String, Supplier<CardEntity>> candidates = new LinkedHashMap<>();
+        List<Long> uniqueKeys = new ArrayList<>(chunk.size());
+
+        for (SeedRecord record : chunk) {
+            SeedRecord.Card row = (SeedRecord.Card) record;
+            String cardNumber = row.cardNumber();
+            CardType cardType = row.cardType();
+            String issuerCode = row.issuerCode();
+            String accountNumber = row.accountNumber();
+
+            Optional<AccountEntity> account = cache.resolveAccount(accountNumber);
+            if (account.isEmpty()) {
+                log.error("Account not found in cache: {}", accountNumber);
+                statistics.rejected(SeedRecordKind.CARD);
+                continue;
+            }
+            Optional<IssuerEntity> issuer = cache.findIssuer(issuerCode);
+            if (issuer.isEmpty()) {
+                log.error("Issuer not found in cache: {}", issuerCode);
+                statistics.rejected(SeedRecordKind.CARD);
+                continue;
+            }
+
+            String nationalCode = account.get().getOwner().getNationalCode();
+            long uniqueKey = cache.buildUniqueKey(nationalCode, cardType, issuerCode);
+
+            if (!stage.claim(SeedRecordKind.CARD, cardNumber)) {
+                log.warn("Duplicate card number in file: {}", cardNumber);
+                statistics.rejected(SeedRecordKind.CARD);
+                continue;
+            }
+            if (cache.isCardCached(cardNumber)) {
+                stage.release(SeedRecordKind.CARD, cardNumber);
+                log.warn("Duplicate card number in file: {}", cardNumber);
+                statistics.rejected(SeedRecordKind.CARD);
+                continue;
+            }
+            if (!cache.reserveUniqueKey(uniqueKey)) {
+                stage.release(SeedRecordKind.CARD, cardNumber);
+                log.warn("Duplicate card constraint violated: {}", CardConstraintKey.toString(uniqueKey));
+                statistics.rejected(SeedRecordKind.CARD);
+                continue;
+            }
+            uniqueKeys.add(uniqueKey);
+
+            candidates.put(cardNumber, () -> CardEntity.builder()
+                    .cardNumber(cardNumber)
+                    .cardType(cardType)
+                    .active(row.active())
+                    .expirationMonth(row.expirationMonth())
+                    .expirationYear(row.expirationYear())
+                    .account(account.get())
+                    .issuer(issuer.get())
+                    .build());
+        }
+
+        Runnable persist = stage.releasingClaims(SeedRecordKind.CARD, candidates.keySet(), () ->
+                persistChunk(SeedRecordKind.CARD, candidates,
+                        cardRepository::findAllByCardNumberIn, CardEntity::getCardNumber,
+                        cardRepository, statistics)
+                        .forEach(cache::cacheCard));
+        return () -> {
+            try {
+                persist.run();
+            } finally {
+                // no-op for the keys now held by a cached card
+                uniqueKeys.forEach(cache::releaseUniqueKey);
+            }
+        };
+    }
+
+    // ========== Chunk persistence ==========
+
+    /**
+     * Persists the candidates that do not exist yet and returns them together with the existing ones,
+     * detached. Entities are built from the suppliers on every attempt, so a failed batch leaves
+     * nothing half-initialised behind for the per-record retry.
+     */
+    private <E> List<E> persistChunk(SeedRecordKind kind,
+                                     Map<String, Supplier<E>> candidates,
+                                     Function<Collection<String>, List<E>> findExisting,
+                                     Function<E, String> keyOf,
+                                     JpaRepository<E, Long> repository,
+                                     LoadStatistics statistics) {
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            return transactionTemplate.execute(status ->
+                    persistInTransaction(kind, candidates, findExisting, keyOf, repository, statistics));
+        } catch (Exception e) {
+            log.warn("Batch of {} {} record(s) failed, retrying one by one: {}",
+                    candidates.size(), kind.name().toLowerCase(), e.getMessage());
+        }
+
+        List<E> loaded = new ArrayList<>(candidates.size());
+        candidates.forEach((key, supplier) -> {
+            try {
+                loaded.addAll(transactionTemplate.execute(status ->
+                        persistInTransaction(kind, Map.of(key, supplier), findExisting, keyOf, repository, statistics)));
+            } catch (Exception e) {
+                log.error("Error processing {}: {}", kind.name().toLowerCase(), key, e);
+                statistics.rejected(kind);
+            }
+        });
+        return loaded;
+    }
+
+    private <E> List<E> persistInTransaction(SeedRecordKind kind,
+                                             Map<String, Supplier<E>> candidates,
+                                             Function<Collection<String>, List<E>> findExisting,
+                                             Function<E, String> keyOf,
+                                             JpaRepository<E, Long> repository,
+                                             LoadStatistics statistics) {
+
+        List<E> existing = findExisting.apply(candidates.keySet());
+        Set<String> existingKeys = new HashSet<>();
+        for (E entity : existing) {
+            existingKeys.add(keyOf.apply(entity));
+        }
+
+        List<E> toInsert = new ArrayList<>(candidates.size() - existingKeys.size());
+        candidates.forEach((key, supplier) -> {
+            if (!existingKeys.contains(key)) {
+                toInsert.add(supplier.get());
+            }
+        });
+
+        List<E> inserted = repository.saveAll(toInsert);
+        entityManager.flush();
+        entityManager.clear();
+
+        existing.forEach(entity -> statistics.existing(kind));
+        statistics.inserted(kind, inserted.size());
+
+        List<E> loaded = new ArrayList<>(existing.size() + inserted.size());
+        loaded.addAll(existing);
+        loaded.addAll(inserted);
+        return loaded;
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * State shared by the reading thread and the workers of one stage.
+     */
+    private static final class Stage {
+
+        private final Set<SeedRecordKind> kinds;
+        private final boolean countLines;
+        private final int maxInFlight;
+        private final Semaphore inFlight;
+        private final ExecutorService pool;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // keys of the records in chunks that are not in the cache yet; claimed by the reading thread before it
+        // looks at the cache, released by a worker after caching, so a duplicate always meets one or the other
+        private final Map<SeedRecordKind, Set<String>> claimedKeys = new ConcurrentHashMap<>();
+
+        private Stage(Set<SeedRecordKind> kinds, boolean countLines, int maxInFlight, ExecutorService pool) {
+            this.kinds = kinds;
+            this.countLines = countLines;
+            this.maxInFlight = maxInFlight;
+            this.inFlight = new Semaphore(maxInFlight);
+            this.pool = pool;
+        }
+
+        private boolean claim(SeedRecordKind kind, String key) {
+            return claimedKeys.computeIfAbsent(kind, k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+
+        private void release(SeedRecordKind kind, String key) {
+            claimedKeys.get(kind).remove(key);
+        }
+
+        /**
+         * Wraps the persistence of a chunk so its claimed keys are released once it has run.
+         */
+        private Runnable releasingClaims(SeedRecordKind kind, Collection<String> keys, Runnable persist) {
+            return () -> {
+                try {
+                    persist.run();
+                } finally {
+                    claimedKeys.get(kind).removeAll(keys);
+                }
+            };
+        }
+
+        private void awaitCompletion() throws InterruptedException {
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+    }
+}
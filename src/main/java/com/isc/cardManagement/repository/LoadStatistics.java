@@ -0,0 +1,93 @@
+package com.isc.cardManagement.repository;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress counters of one initial-data load. Safe to update from several loader threads.
+ */
+public class LoadStatistics {
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder lines = new LongAdder();
+    private final Map<SeedRecordKind, LongAdder> inserted = counters();
+    private final Map<SeedRecordKind, LongAdder> existing = counters();
+    private final Map<SeedRecordKind, LongAdder> rejected = counters();
+    private volatile long elapsedNanos = -1;
+
+    void linesRead(long count) {
+        lines.add(count);
+    }
+
+    void inserted(SeedRecordKind kind, int count) {
+        inserted.get(kind).add(count);
+    }
+
+    void existing(SeedRecordKind kind) {
+        existing.get(kind).increment();
+    }
+
+    void rejected(SeedRecordKind kind) {
+        rejected.get(kind).increment();
+    }
+
+    void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    public long getLines() {
+        return lines.sum();
+    }
+
+    public long getInserted(SeedRecordKind kind) {
+        return inserted.get(kind).sum();
+    }
+
+    public long getExisting(SeedRecordKind kind) {
+        return existing.get(kind).sum();
+    }
+
+    public long getRejected(SeedRecordKind kind) {
+        return rejected.get(kind).sum();
+    }
+
+    public long getRecords() {
+        long total = 0;
+        for (SeedRecordKind kind : SeedRecordKind.values()) {
+            total += getInserted(kind) + getExisting(kind) + getRejected(kind);
+        }
+        return total;
+    }
+
+    public long getElapsedMillis() {
+        long nanos = elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - startNanos;
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    public double getRecordsPerSecond() {
+        long millis = Math.max(1, getElapsedMillis());
+        return getRecords() * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("LoadStatistics[lines=%d, records=%d, elapsed=%dms, rate=%.0f rec/s",
+                getLines(), getRecords(), getElapsedMillis(), getRecordsPerSecond()));
+        for (SeedRecordKind kind : SeedRecordKind.values()) {
+            sb.append(String.format(", %s=%d/%d/%d", kind.name().toLowerCase(),
+                    getInserted(kind), getExisting(kind), getRejected(kind)));
+        }
+        return sb.append(" (inserted/existing/rejected)]").toString();
+    }
+
+    private static Map<SeedRecordKind, LongAdder> counters() {
+        Map<SeedRecordKind, LongAdder> counters = new EnumMap<>(SeedRecordKind.class);
+        for (SeedRecordKind kind : SeedRecordKind.values()) {
+            counters.put(kind, new LongAdder());
+        }
+        return counters;
+    }
+}
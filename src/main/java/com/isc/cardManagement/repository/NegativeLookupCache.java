@@ -0,0 +1,67 @@
+package com.isc.cardManagement.repository;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded set of keys recently found to have no result, so repeated lookups for them skip the database.
+ * An entry expires after the TTL or when {@link #invalidate} is called for its key. Once the set is full
+ * and no entry has expired, further misses are simply not remembered.
+ */
+public final class NegativeLookupCache {
+
+    private final Map<String, Long> expiresAt = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+
+    public NegativeLookupCache(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    public NegativeLookupCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean contains(String key) {
+        Long expiry = expiresAt.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (nanoClock.getAsLong() - expiry < 0) {
+            return true;
+        }
+        expiresAt.remove(key, expiry);
+        return false;
+    }
+
+    public void add(String key) {
+        if (ttlNanos <= 0 || maxEntries <= 0) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        if (expiresAt.size() >= maxEntries) {
+            expiresAt.values().removeIf(expiry -> now - expiry >= 0);
+            if (expiresAt.size() >= maxEntries) {
+                return;
+            }
+        }
+        expiresAt.put(key, now + ttlNanos);
+    }
+
+    public void invalidate(String key) {
+        expiresAt.remove(key);
+    }
+
+    public void clear() {
+        expiresAt.clear();
+    }
+
+    public int size() {
+        return expiresAt.size();
+    }
+}
@@ -0,0 +1,364 @@
+package com.isc.cardManagement.repository;
+
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Parser for the {@code person=/issuer=/account=/card=} initial-data format.
+ * <p>
+ * A file on the file system is memory-mapped in windows of at most {@link #DEFAULT_WINDOW_SIZE} bytes; any
+ * other resource (e.g. inside the application jar) is streamed through a reused buffer of at most
+ * {@link #STREAM_BUFFER_SIZE} bytes. Either way memory does not grow with the file. The bytes are scanned
+ * byte by byte: prefixes, comments and separators are recognised without building intermediate Strings, lines
+ * of kinds the caller did not ask for are skipped without decoding anything, and only the fields that end
+ * up in a {@link SeedRecord} are decoded. Enum fields are matched in place. Lines that carry a known
+ * prefix but cannot be parsed are reported with the byte offset of the line.
+ * <p>
+ * Instances are stateless and may be shared; each {@code parse} call uses its own scanner.
+ */
+public class SeedFileParser {
+
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    public static final int STREAM_BUFFER_SIZE = 1024 * 1024;
+
+    private static final SeedRecordKind[] KINDS = SeedRecordKind.values();
+    private static final CardType[] CARD_TYPES = CardType.values();
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+
+    private final int windowSize;
+
+    public SeedFileParser() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    public SeedFileParser(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Parses a resource, memory-mapping it when it lives on the file system and streaming it otherwise.
+     *
+     * @return the number of lines read
+     */
+    public long parse(Resource resource, Set<SeedRecordKind> kinds, SeedRecordHandler handler)
+            throws IOException, InterruptedException {
+
+        if (resource.isFile()) {
+            return parse(resource.getFile().toPath(), kinds, handler);
+        }
+
+        try (InputStream in = resource.getInputStream()) {
+            return parse(in, kinds, handler);
+        }
+    }
+
+    /**
+     * Streams the input through a buffer of {@code min(windowSize, STREAM_BUFFER_SIZE)} bytes; the partial
+     * line at the end of each fill is carried over to the next one. The buffer only grows for a line longer
+     * than itself.
+     *
+     * @return the number of lines read
+     */
+    public long parse(InputStream in, Set<SeedRecordKind> kinds, SeedRecordHandler handler)
+            throws IOException, InterruptedException {
+
+        Scanner scanner = new Scanner(kinds, handler);
+        byte[] bytes = new byte[Math.min(windowSize, STREAM_BUFFER_SIZE)];
+        int filled = 0;
+        long position = 0;
+
+        while (true) {
+            int read = in.read(bytes, filled, bytes.length - filled);
+            boolean last = read < 0;
+            if (!last) {
+                filled += read;
+                if (filled < bytes.length) {
+                    continue;
+                }
+            }
+
+            int consumed = scanner.scan(ByteBuffer.wrap(bytes, 0, filled), position, last);
+            if (last) {
+                return scanner.lines;
+            }
+
+            if (consumed == 0) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            } else {
+                System.arraycopy(bytes, consumed, bytes, 0, filled - consumed);
+                filled -= consumed;
+                position += consumed;
+            }
+        }
+    }
+
+    /**
+     * @return the number of lines read
+     */
+    public long parse(Path file, Set<SeedRecordKind> kinds, SeedRecordHandler handler)
+            throws IOException, InterruptedException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Scanner scanner = new Scanner(kinds, handler);
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                long length = Math.min(windowSize, size - position);
+                boolean last = position + length == size;
+
+                ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = scanner.scan(window, position, last);
+
+                if (consumed == 0) {
+                    throw new IOException(String.format(
+                            "Line at byte %d is longer than the %d byte mapping window", position, windowSize));
+                }
+                position += consumed;
+            }
+            return scanner.lines;
+        }
+    }
+
+    private static boolean isSpace(byte b) {
+        return (b & 0xFF) <= ' ';
+    }
+
+    private static boolean equalsIgnoreCase(ByteBuffer buffer, int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (toLower(buffer.get(start + i)) != toLower(expected[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static boolean matchesName(ByteBuffer buffer, int start, int end, String name) {
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (toLower(buffer.get(start + i)) != toLower((byte) name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans one buffer at a time; field bounds and the decode buffer are reused across lines.
+     */
+    private static final class Scanner {
+
+        private static final int MAX_FIELDS = 7;
+
+        private final Set<SeedRecordKind> kinds;
+        private final SeedRecordHandler handler;
+        private final int[] fieldStart = new int[MAX_FIELDS];
+        private final int[] fieldEnd = new int[MAX_FIELDS];
+        private byte[] decodeBuffer = new byte[256];
+        private long lines;
+
+        private Scanner(Set<SeedRecordKind> kinds, SeedRecordHandler handler) {
+            this.kinds = kinds;
+            this.handler = handler;
+        }
+
+        /**
+         * Handles every complete line of the buffer, and the trailing partial line too when {@code last}.
+         *
+         * @return number of bytes consumed
+         */
+        private int scan(ByteBuffer buffer, long baseOffset, boolean last) throws InterruptedException {
+            int limit = buffer.limit();
+            int lineStart = 0;
+
+            if (baseOffset == 0 && limit >= 3
+                    && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF) {
+                lineStart = 3;
+            }
+
+            for (int i = lineStart; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    line(buffer, lineStart, i, baseOffset + lineStart);
+                    lineStart = i + 1;
+                }
+            }
+
+            if (last && lineStart < limit) {
+                line(buffer, lineStart, limit, baseOffset + lineStart);
+                lineStart = limit;
+            }
+            return lineStart;
+        }
+
+        private void line(ByteBuffer buffer, int start, int end, long offset) throws InterruptedException {
+            lines++;
+
+            while (start < end && isSpace(buffer.get(start))) {
+                start++;
+            }
+            while (end > start && isSpace(buffer.get(end - 1))) {
+                end--;
+            }
+            if (start == end || buffer.get(start) == '#') {
+                return;
+            }
+
+            SeedRecordKind kind = kindOf(buffer, start, end);
+            if (kind == null || !kinds.contains(kind)) {
+                return;
+            }
+
+            int fieldsStart = start + kind.prefixBytes().length;
+            switch (kind) {
+                case PERSON -> person(buffer, fieldsStart, end, offset);
+                case ISSUER -> issuer(buffer, fieldsStart, end, offset);
+                case ACCOUNT -> account(buffer, fieldsStart, end, offset);
+                case CARD -> card(buffer, fieldsStart, end, offset);
+            }
+        }
+
+        private void person(ByteBuffer buffer, int start, int end, long offset) throws InterruptedException {
+            if (split(buffer, start, end, 5) < 5) {
+                malformed(SeedRecordKind.PERSON, buffer, start, end, offset, "expected 5 fields");
+                return;
+            }
+            handler.onRecord(new SeedRecord.Person(
+                    field(buffer, 0), field(buffer, 1), field(buffer, 2), field(buffer, 3), field(buffer, 4)));
+        }
+
+        private void issuer(ByteBuffer buffer, int start, int end, long offset) throws InterruptedException {
+            if (split(buffer, start, end, 2) < 2) {
+                malformed(SeedRecordKind.ISSUER, buffer, start, end, offset, "expected 2 fields");
+                return;
+            }
+            handler.onRecord(new SeedRecord.Issuer(field(buffer, 0), field(buffer, 1)));
+        }
+
+        private void account(ByteBuffer buffer, int start, int end, long offset) throws InterruptedException {
+            if (split(buffer, start, end, 3) < 3) {
+                malformed(SeedRecordKind.ACCOUNT, buffer, start, end, offset, "expected 3 fields");
+                return;
+            }
+
+            AccountType accountType = null;
+            for (AccountType candidate : ACCOUNT_TYPES) {
+                if (matchesName(buffer, fieldStart[1], fieldEnd[1], candidate.name())) {
+                    accountType = candidate;
+                    break;
+                }
+            }
+            if (accountType == null) {
+                malformed(SeedRecordKind.ACCOUNT, buffer, start, end, offset, "invalid account type");
+                return;
+            }
+
+            handler.onRecord(new SeedRecord.Account(field(buffer, 0), accountType, field(buffer, 2)));
+        }
+
+        private void card(ByteBuffer buffer, int start, int end, long offset) throws InterruptedException {
+            if (split(buffer, start, end, 7) < 7) {
+                malformed(SeedRecordKind.CARD, buffer, start, end, offset, "expected 7 fields");
+                return;
+            }
+
+            CardType cardType = null;
+            for (CardType candidate : CARD_TYPES) {
+                if (matchesName(buffer, fieldStart[1], fieldEnd[1], candidate.name())) {
+                    cardType = candidate;
+                    break;
+                }
+            }
+            if (cardType == null) {
+                malformed(SeedRecordKind.CARD, buffer, start, end, offset, "invalid card type");
+                return;
+            }
+
+            boolean active = equalsIgnoreCase(buffer, fieldStart[2], fieldEnd[2], TRUE);
+
+            handler.onRecord(new SeedRecord.Card(
+                    field(buffer, 0), cardType, active, field(buffer, 3), field(buffer, 4),
+                    field(buffer, 5), field(buffer, 6)));
+        }
+
+        /**
+         * Records the trimmed bounds of up to {@code maxFields} comma-separated fields; the last one
+         * extends to the end of the line.
+         *
+         * @return the number of fields found, capped at {@code maxFields}
+         */
+        private int split(ByteBuffer buffer, int start, int end, int maxFields) {
+            int count = 0;
+            int fieldBegin = start;
+
+            for (int i = start; i < end && count < maxFields - 1; i++) {
+                if (buffer.get(i) == ',') {
+                    setField(buffer, count++, fieldBegin, i);
+                    fieldBegin = i + 1;
+                }
+            }
+            setField(buffer, count++, fieldBegin, end);
+            return count;
+        }
+
+        private void setField(ByteBuffer buffer, int index, int start, int end) {
+            while (start < end && isSpace(buffer.get(start))) {
+                start++;
+            }
+            while (end > start && isSpace(buffer.get(end - 1))) {
+                end--;
+            }
+            fieldStart[index] = start;
+            fieldEnd[index] = end;
+        }
+
+        private String field(ByteBuffer buffer, int index) {
+            return decode(buffer, fieldStart[index], fieldEnd[index]);
+        }
+
+        private String decode(ByteBuffer buffer, int start, int end) {
+            int length = end - start;
+            if (length > decodeBuffer.length) {
+                decodeBuffer = new byte[Math.max(length, decodeBuffer.length * 2)];
+            }
+            buffer.get(start, decodeBuffer, 0, length);
+            return new String(decodeBuffer, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private void malformed(SeedRecordKind kind, ByteBuffer buffer, int start, int end,
+                               long offset, String reason) {
+            handler.onMalformed(kind, offset, reason + ": " + decode(buffer, start, end));
+        }
+
+        private static SeedRecordKind kindOf(ByteBuffer buffer, int start, int end) {
+            for (SeedRecordKind kind : KINDS) {
+                byte[] prefix = kind.prefixBytes();
+                if (end - start >= prefix.length && equalsIgnoreCase(buffer, start, start + prefix.length, prefix)) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+    }
+}
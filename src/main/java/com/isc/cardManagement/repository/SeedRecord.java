@@ -0,0 +1,42 @@
+package com.isc.cardManagement.repository;
+
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+
+/**
+ * One well-formed line of the initial-data file, with only the fields the loader keeps.
+ */
+public sealed interface SeedRecord {
+
+    SeedRecordKind kind();
+
+    record Person(String firstName, String lastName, String nationalCode, String phone, String address)
+            implements SeedRecord {
+        @Override
+        public SeedRecordKind kind() {
+            return SeedRecordKind.PERSON;
+        }
+    }
+
+    record Issuer(String issuerCode, String name) implements SeedRecord {
+        @Override
+        public SeedRecordKind kind() {
+            return SeedRecordKind.ISSUER;
+        }
+    }
+
+    record Account(String accountNumber, AccountType accountType, String nationalCode) implements SeedRecord {
+        @Override
+        public SeedRecordKind kind() {
+            return SeedRecordKind.ACCOUNT;
+        }
+    }
+
+    record Card(String cardNumber, CardType cardType, boolean active, String expirationMonth,
+                String expirationYear, String issuerCode, String accountNumber) implements SeedRecord {
+        @Override
+        public SeedRecordKind kind() {
+            return SeedRecordKind.CARD;
+        }
+    }
+}
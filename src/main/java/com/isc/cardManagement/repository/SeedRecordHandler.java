@@ -0,0 +1,16 @@
+package com.isc.cardManagement.repository;
+
+/**
+ * Receives the records produced by {@link SeedFileParser}, in file order.
+ */
+public interface SeedRecordHandler {
+
+    void onRecord(SeedRecord record) throws InterruptedException;
+
+    /**
+     * Called for a line with a known prefix that cannot be turned into a record.
+     *
+     * @param offset byte offset of the start of the line in the file
+     */
+    void onMalformed(SeedRecordKind kind, long offset, String reason);
+}
@@ -0,0 +1,30 @@
+package com.isc.cardManagement.repository;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Record types of the initial-data file, in the order they depend on each other.
+ */
+public enum SeedRecordKind {
+
+    PERSON("person="),
+    ISSUER("issuer="),
+    ACCOUNT("account="),
+    CARD("card=");
+
+    private final String prefix;
+    private final byte[] prefixBytes;
+
+    SeedRecordKind(String prefix) {
+        this.prefix = prefix;
+        this.prefixBytes = prefix.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public String prefix() {
+        return prefix;
+    }
+
+    byte[] prefixBytes() {
+        return prefixBytes;
+    }
+}
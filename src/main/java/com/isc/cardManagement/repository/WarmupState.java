@@ -0,0 +1,21 @@
+package com.isc.cardManagement.repository;
+
+import org.springframework.boot.availability.AvailabilityState;
+
+/**
+ * Lifecycle of the startup warm-up of {@link InMemoryRepository}. Each transition is published as an
+ * {@code AvailabilityChangeEvent}; the application keeps accepting traffic throughout, as reads fall
+ * through to the database until the cache is {@link #READY}.
+ */
+public enum WarmupState implements AvailabilityState {
+
+    NOT_STARTED,
+
+    /** Initial data is still being loaded; reads bypass the partially filled cache. */
+    WARMING,
+
+    READY,
+
+    /** Loading stopped with an error; whatever was loaded stays cached and misses go to the database. */
+    FAILED
+}
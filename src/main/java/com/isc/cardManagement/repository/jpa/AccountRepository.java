@@ -3,8 +3,10 @@ package com.isc.cardManagement.repository.jpa;
 import com.isc.cardManagement.entity.AccountEntity;
 import com.isc.cardManagement.entity.PersonEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +16,14 @@ public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
     Optional<AccountEntity> findByAccountNumber(String accountNumber);
     List<AccountEntity> findAllByOwner(PersonEntity person);
 
+    List<AccountEntity> findAllByAccountNumberIn(Collection<String> accountNumbers);
+
+    /**
+     * Checksum of every row, as {@link CardRepository#contentChecksum()}.
+     */
+    @Query(value = """
+        SELECT CAST(COALESCE(SUM(ORA_HASH(CONCAT_WS('|', account_id, account_number, account_type, person_id))), 0) AS BIGINT)
+        FROM tbl_account
+    """, nativeQuery = true)
+    long contentChecksum();
 }
@@ -3,24 +3,39 @@ package com.isc.cardManagement.repository.jpa;
 import com.isc.cardManagement.entity.AccountEntity;
 import com.isc.cardManagement.entity.CardEntity;
 import com.isc.cardManagement.enums.CardType;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CardRepository extends JpaRepository<CardEntity, Long> {
+public interface CardRepository extends JpaRepository<CardEntity, Long>, CardSearchRepository {
 
     Optional<CardEntity> findByCardNumber(String cardNumber);
 
+    boolean existsByCardNumber(String cardNumber);
+
+    @EntityGraph(attributePaths = {"account", "account.owner", "issuer"})
+    List<CardEntity> findAllByCardNumberIn(Collection<String> cardNumbers);
+
     List<CardEntity> findAllByAccount(AccountEntity accountEntity);
 
-    List<CardEntity> findByAccount_Owner_NationalCode(String nationalCode);
+    // the derived query left-joins account and owner, which makes tbl_card the driving table and scans it;
+    // inner joins let the database start from the person's unique national code. The whole graph the cache
+    // holds is fetched in the same statement, instead of one EAGER select per account and issuer.
+    @Query("""
+        SELECT c FROM CardEntity c
+        JOIN FETCH c.account a
+        JOIN FETCH a.owner p
+        JOIN FETCH c.issuer
+        WHERE p.nationalCode = :nationalCode
+    """)
+    List<CardEntity> findByAccount_Owner_NationalCode(@Param("nationalCode") String nationalCode);
 
     @Query("""
         SELECT c FROM CardEntity c
@@ -58,27 +73,15 @@ public interface CardRepository extends JpaRepository<CardEntity, Long> {
             @Param("issuerCode") String issuerCode
     );
 
-
-    @Query("""
-            SELECT DISTINCT c FROM CardEntity c
-            LEFT JOIN FETCH c.account a
-            LEFT JOIN FETCH a.owner p
-            LEFT JOIN FETCH c.issuer i
-            WHERE (:nationalCode IS NULL OR p.nationalCode = :nationalCode)
-              AND (:cardNumber IS NULL OR c.cardNumber = :cardNumber)
-              AND (:issuerCode IS NULL OR i.issuerCode = :issuerCode)
-              AND (:cardType IS NULL OR c.cardType = :cardType)
-              AND (:active IS NULL OR c.active = :active)
-              AND (:accountNumber IS NULL OR a.accountNumber = :accountNumber)
-            """)
-    Page<CardEntity> searchCards(
-            @Param("nationalCode") String nationalCode,
-            @Param("cardNumber") String cardNumber,
-            @Param("issuerCode") String issuerCode,
-            @Param("cardType") CardType cardType,
-            @Param("active") Boolean active,
-            @Param("accountNumber") String accountNumber,
-            Pageable pageable
-    );
-
+    /**
+     * Order-independent checksum of every row, computed by the database: the sum of a hash of each row's
+     * columns, so it changes with any insert, update or delete. Identifies the state a cache snapshot
+     * mirrors without reading the rows.
+     */
+    @Query(value = """
+        SELECT CAST(COALESCE(SUM(ORA_HASH(CONCAT_WS('|', card_id, card_number, card_type, active, expiration_month,
+                expiration_year, issuer_id, account_id))), 0) AS BIGINT)
+        FROM tbl_card
+    """, nativeQuery = true)
+    long contentChecksum();
 }
@@ -0,0 +1,16 @@
+package com.isc.cardManagement.repository.jpa;
+
+import com.isc.cardManagement.enums.CardType;
+
+/**
+ * Optional card search filters; a {@code null} field does not restrict the result.
+ */
+public record CardSearchFilter(
+        String nationalCode,
+        String cardNumber,
+        String issuerCode,
+        CardType cardType,
+        Boolean active,
+        String accountNumber
+) {
+}
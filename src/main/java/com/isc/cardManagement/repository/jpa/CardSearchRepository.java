@@ -0,0 +1,45 @@
+package com.isc.cardManagement.repository.jpa;
+
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.enums.CardType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Card searches built with the Criteria API in {@link CardSearchRepositoryImpl}: only the filters that are
+ * given end up in the SQL, and only the joins those filters need.
+ */
+public interface CardSearchRepository {
+
+    /**
+     * Sort keys {@link #seekCards} accepts. Each is a plain column; {@code id} breaks ties.
+     */
+    Set<String> KEYSET_SORT_KEYS = Set.of("id", "cardNumber", "expirationYear", "expirationMonth");
+
+    /**
+     * Offset search; a {@code null} filter does not restrict the result. Cards come with account, owner
+     * and issuer fetched. The count query only runs when the page size alone cannot tell the total.
+     */
+    Page<CardEntity> searchCards(String nationalCode,
+                                 String cardNumber,
+                                 String issuerCode,
+                                 CardType cardType,
+                                 Boolean active,
+                                 String accountNumber,
+                                 Pageable pageable);
+
+    /**
+     * Returns up to {@code limit} cards ordered by {@code (sortBy, id)} that come strictly after the
+     * given position, with account, owner and issuer fetched. Never issues a count query.
+     *
+     * @param afterValue sort key of the last card already returned, ignored when sorting by id
+     * @param afterId    id of the last card already returned, {@code null} for the first page
+     */
+    List<CardEntity> seekCards(CardSearchFilter filter, String sortBy, boolean descending,
+                               String afterValue, Long afterId, int limit);
+
+    long countCards(CardSearchFilter filter);
+}
@@ -0,0 +1,191 @@
+package com.isc.cardManagement.repository.jpa;
+
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.enums.CardType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+/**
+ * Builds the search JPQL from the filters that are actually given. There are only 64 filter combinations,
+ * so every generated statement is served from Hibernate's query plan cache after its first use, which a
+ * Criteria query (re-translated on each call) would not get.
+ */
+@RequiredArgsConstructor
+public class CardSearchRepositoryImpl implements CardSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<CardEntity> searchCards(String nationalCode, String cardNumber, String issuerCode,
+                                        CardType cardType, Boolean active, String accountNumber,
+                                        Pageable pageable) {
+
+        CardSearchFilter filter = new CardSearchFilter(nationalCode, cardNumber, issuerCode, cardType, active,
+                accountNumber);
+
+        StringBuilder jpql = new StringBuilder("SELECT c FROM CardEntity c").append(fetchAll(filter));
+        appendWhere(jpql, filter);
+        appendOrderBy(jpql, pageable.getSort());
+
+        TypedQuery<CardEntity> typedQuery = bind(entityManager.createQuery(jpql.toString(), CardEntity.class), filter);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> countCards(filter));
+    }
+
+    @Override
+    public List<CardEntity> seekCards(CardSearchFilter filter, String sortBy, boolean descending,
+                                      String afterValue, Long afterId, int limit) {
+
+        if (!KEYSET_SORT_KEYS.contains(sortBy)) {
+            throw new IllegalArgumentException("Unsupported keyset sort key: " + sortBy);
+        }
+        boolean byId = "id".equals(sortBy);
+        String comparison = descending ? " < " : " > ";
+        String direction = descending ? " DESC" : " ASC";
+
+        StringBuilder jpql = new StringBuilder("SELECT c FROM CardEntity c").append(fetchAll(filter));
+        boolean where = appendWhere(jpql, filter);
+        if (afterId != null) {
+            jpql.append(where ? " AND " : " WHERE ");
+            if (byId) {
+                jpql.append("c.id").append(comparison).append(":afterId");
+            } else {
+                // (sortKey, id) > (:afterValue, :afterId), spelled out for the row-value-less dialects. The
+                // leading inclusive bound is redundant but, unlike the OR, can be served by an index range
+                jpql.append("c.").append(sortBy).append(comparison.trim()).append("= :afterValue AND ")
+                        .append("(c.").append(sortBy).append(comparison).append(":afterValue OR (c.")
+                        .append(sortBy).append(" = :afterValue AND c.id").append(comparison).append(":afterId))");
+            }
+        }
+        jpql.append(" ORDER BY ");
+        if (!byId) {
+            jpql.append("c.").append(sortBy).append(direction).append(", ");
+        }
+        jpql.append("c.id").append(direction);
+
+        TypedQuery<CardEntity> query = bind(entityManager.createQuery(jpql.toString(), CardEntity.class), filter);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+            if (!byId) {
+                query.setParameter("afterValue", afterValue);
+            }
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Joins an association only when a filter refers to it.
+     */
+    @Override
+    public long countCards(CardSearchFilter filter) {
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(c) FROM CardEntity c");
+        if (filter.nationalCode() != null || filter.accountNumber() != null) {
+            jpql.append(" JOIN c.account a");
+        }
+        if (filter.nationalCode() != null) {
+            jpql.append(" JOIN a.owner p");
+        }
+        if (filter.issuerCode() != null) {
+            jpql.append(" JOIN c.issuer i");
+        }
+        appendWhere(jpql, filter);
+
+        return bind(entityManager.createQuery(jpql.toString(), Long.class), filter).getSingleResult();
+    }
+
+    /**
+     * Fetches every association whatever the filters: they are all EAGER, so one left out here would be
+     * loaded by a select of its own per distinct row, and {@code CardResponseDto.fromEntity} reads the whole
+     * graph of each card anyway. Many-to-one fetches only, so paging is applied by the database. The
+     * associations are mandatory, so the join type changes no result, only the plan. Without a filter on an
+     * association they are LEFT joined, which keeps tbl_card the driving table so the database can walk the
+     * ordering index and stop at the page. Once any association is filtered they are all INNER joined: a
+     * single trailing outer join already stops the planner from reordering, and it has to be free to start
+     * from that filter's index instead.
+     */
+    private static String fetchAll(CardSearchFilter filter) {
+        boolean byAssociation = filter.nationalCode() != null || filter.accountNumber() != null
+                || filter.issuerCode() != null;
+        String join = byAssociation ? " JOIN FETCH " : " LEFT JOIN FETCH ";
+        return join + "c.account a" + join + "a.owner p" + join + "c.issuer i";
+    }
+
+    /**
+     * @return whether a WHERE clause was appended
+     */
+    private static boolean appendWhere(StringBuilder jpql, CardSearchFilter filter) {
+        int start = jpql.length();
+        if (filter.cardNumber() != null) {
+            condition(jpql, start, "c.cardNumber = :cardNumber");
+        }
+        if (filter.nationalCode() != null) {
+            condition(jpql, start, "p.nationalCode = :nationalCode");
+        }
+        if (filter.accountNumber() != null) {
+            condition(jpql, start, "a.accountNumber = :accountNumber");
+        }
+        if (filter.issuerCode() != null) {
+            condition(jpql, start, "i.issuerCode = :issuerCode");
+        }
+        if (filter.cardType() != null) {
+            condition(jpql, start, "c.cardType = :cardType");
+        }
+        if (filter.active() != null) {
+            condition(jpql, start, "c.active = :active");
+        }
+        return jpql.length() > start;
+    }
+
+    /**
+     * Sort properties come from the request, so each must resolve to a property path of {@link CardEntity}
+     * before it is written into the query.
+     */
+    private static void appendOrderBy(StringBuilder jpql, Sort sort) {
+        String separator = " ORDER BY ";
+        for (Sort.Order order : sort) {
+            String property = PropertyPath.from(order.getProperty(), CardEntity.class).toDotPath();
+            jpql.append(separator)
+                    .append(order.isIgnoreCase() ? "LOWER(c." + property + ")" : "c." + property)
+                    .append(order.isAscending() ? " ASC" : " DESC");
+            separator = ", ";
+        }
+    }
+
+    private static void condition(StringBuilder jpql, int start, String condition) {
+        jpql.append(jpql.length() == start ? " WHERE " : " AND ").append(condition);
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, CardSearchFilter filter) {
+        if (filter.cardNumber() != null) {
+            query.setParameter("cardNumber", filter.cardNumber());
+        }
+        if (filter.nationalCode() != null) {
+            query.setParameter("nationalCode", filter.nationalCode());
+        }
+        if (filter.accountNumber() != null) {
+            query.setParameter("accountNumber", filter.accountNumber());
+        }
+        if (filter.issuerCode() != null) {
+            query.setParameter("issuerCode", filter.issuerCode());
+        }
+        if (filter.cardType() != null) {
+            query.setParameter("cardType", filter.cardType());
+        }
+        if (filter.active() != null) {
+            query.setParameter("active", filter.active());
+        }
+        return query;
+    }
+}
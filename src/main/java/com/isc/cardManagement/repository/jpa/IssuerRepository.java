@@ -2,12 +2,26 @@ package com.isc.cardManagement.repository.jpa;
 
 import com.isc.cardManagement.entity.IssuerEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface IssuerRepository extends JpaRepository<IssuerEntity, Long> {
 
     Optional<IssuerEntity> findByIssuerCode(String issuerCode);
+
+    List<IssuerEntity> findAllByIssuerCodeIn(Collection<String> issuerCodes);
+
+    /**
+     * Checksum of every row, as {@link CardRepository#contentChecksum()}.
+     */
+    @Query(value = """
+        SELECT CAST(COALESCE(SUM(ORA_HASH(CONCAT_WS('|', issuer_id, issuer_code, issuer_name))), 0) AS BIGINT)
+        FROM tbl_issuer
+    """, nativeQuery = true)
+    long contentChecksum();
 }
@@ -2,12 +2,26 @@ package com.isc.cardManagement.repository.jpa;
 
 import com.isc.cardManagement.entity.PersonEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PersonRepository  extends JpaRepository<PersonEntity, Long> {
 
     Optional<PersonEntity> findByNationalCode(String nationalCode);
+
+    List<PersonEntity> findAllByNationalCodeIn(Collection<String> nationalCodes);
+
+    /**
+     * Checksum of every row, as {@link CardRepository#contentChecksum()}.
+     */
+    @Query(value = """
+        SELECT CAST(COALESCE(SUM(ORA_HASH(CONCAT_WS('|', person_id, national_code, first_name, last_name, phone, address))), 0) AS BIGINT)
+        FROM tbl_person
+    """, nativeQuery = true)
+    long contentChecksum();
 }
@@ -0,0 +1,193 @@
+package com.isc.cardManagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isc.cardManagement.dto.CardResponseDto;
+import com.isc.cardManagement.repository.CardSavedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event streams of created cards, one per national code plus one of every card. Each committed
+ * {@link CardSavedEvent} is encoded once and queued to the {@link EventBuffer} of every subscriber watching
+ * it; a small pool of sender threads writes the buffers out, so a watcher costs an idle connection and a
+ * slow one never holds up card creation or the other watchers.
+ * <p>
+ * A stream sends a {@code card-created} event with the card as in {@code GET /api/v1/cards/{nationalCode}}.
+ * When a subscriber's buffer of {@code app.events.buffer-size} events overflows, the oldest events are
+ * dropped and announced with a {@code cards-dropped} event, or the subscriber is disconnected, as
+ * {@code app.events.overflow} says; either way the client reads the cards again to catch up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardEventStreams {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        DISCONNECT
+    }
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.events.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.events.overflow:DROP_OLDEST}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${app.events.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${app.events.senders:2}")
+    private int senders;
+
+    private final Map<String, Set<Subscriber>> byNationalCode = new ConcurrentHashMap<>();
+    private final Set<Subscriber> everyCard = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService senderPool;
+
+    @PostConstruct
+    void init() {
+        senderPool = Executors.newFixedThreadPool(senders, senderThreadFactory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        everyCard.forEach(Subscriber::close);
+        byNationalCode.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+        senderPool.shutdownNow();
+    }
+
+    public SseEmitter subscribe(String nationalCode) {
+        Subscriber subscriber = new Subscriber();
+        byNationalCode.compute(nationalCode, (key, subscribers) -> {
+            Set<Subscriber> watching = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            watching.add(subscriber);
+            return watching;
+        });
+        subscriber.onClose(() -> byNationalCode.computeIfPresent(nationalCode, (key, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        }));
+        log.debug("Subscribed to card events of {}", nationalCode);
+        return subscriber.emitter;
+    }
+
+    public SseEmitter subscribeToAll() {
+        Subscriber subscriber = new Subscriber();
+        everyCard.add(subscriber);
+        subscriber.onClose(() -> everyCard.remove(subscriber));
+        log.debug("Subscribed to all card events");
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return everyCard.size() + byNationalCode.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardSaved(CardSavedEvent event) {
+        Set<Subscriber> watching = byNationalCode.get(event.card().nationalCode());
+        if ((watching == null || watching.isEmpty()) && everyCard.isEmpty()) {
+            return;
+        }
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(CardResponseDto.fromView(event.card()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (watching != null) {
+            watching.forEach(subscriber -> subscriber.offer(json));
+        }
+        everyCard.forEach(subscriber -> subscriber.offer(json));
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "card-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        private final EventBuffer<String> buffer = new EventBuffer<>(bufferSize, overflowPolicy);
+        // set while a sender thread owns the buffer, so the events of one subscriber stay in order
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean closed;
+
+        void onClose(Runnable unsubscribe) {
+            emitter.onCompletion(() -> {
+                closed = true;
+                unsubscribe.run();
+            });
+            emitter.onTimeout(emitter::complete);
+            emitter.onError(error -> emitter.complete());
+        }
+
+        void offer(String json) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(json)) {
+                log.info("Card event subscriber too slow, disconnected");
+                close();
+                return;
+            }
+            if (sending.compareAndSet(false, true)) {
+                senderPool.execute(this::send);
+            }
+        }
+
+        private void send() {
+            try {
+                String json;
+                while (!closed && (json = buffer.poll()) != null) {
+                    int dropped = buffer.takeDropped();
+                    if (dropped > 0) {
+                        emitter.send(SseEmitter.event().name("cards-dropped").data(dropped));
+                    }
+                    emitter.send(SseEmitter.event().name("card-created").data(json));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Card event subscriber gone: {}", e.getMessage());
+                close();
+            } finally {
+                sending.set(false);
+                // an event queued after the loop gave up the buffer but before the flag was cleared
+                if (!closed && !buffer.isEmpty() && sending.compareAndSet(false, true)) {
+                    senderPool.execute(this::send);
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            emitter.complete();
+        }
+    }
+}
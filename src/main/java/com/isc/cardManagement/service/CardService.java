@@ -4,13 +4,20 @@ import com.isc.cardManagement.dto.*;
 import com.isc.cardManagement.exception.BadRequestException;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface CardService {
 
     List<CardResponseDto> getCardsByNationalCode(String nationalCode);
 
+    EncodedCards getEncodedCardsByNationalCode(String nationalCode);
+
+    Optional<String> getCardsETag(String nationalCode);
+
     CardDto createCard(CardDto dto) throws BadRequestException;
 
+    BatchCardResponseDto createCards(List<CardDto> dtos) throws BadRequestException;
+
 
     PagedResponseDto<CardResponseDto> searchCards(CardSearchDto searchDto);
 }
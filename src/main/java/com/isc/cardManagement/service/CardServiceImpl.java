@@ -1,28 +1,48 @@
 package com.isc.cardManagement.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.isc.cardManagement.dto.*;
 import com.isc.cardManagement.entity.AccountEntity;
 import com.isc.cardManagement.entity.CardEntity;
 import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.enums.BatchItemStatus;
+import com.isc.cardManagement.enums.CardType;
 import com.isc.cardManagement.exception.BadRequestException;
 import com.isc.cardManagement.exception.BusinessException;
 import com.isc.cardManagement.exception.NotFoundException;
 import com.isc.cardManagement.mapper.CardMapper;
+import com.isc.cardManagement.monitoring.events.CardCreationEvent;
+import com.isc.cardManagement.monitoring.events.ServicePhaseEvent;
+import com.isc.cardManagement.repository.CacheTier;
+import com.isc.cardManagement.repository.CardView;
 import com.isc.cardManagement.repository.InMemoryRepository;
 import com.isc.cardManagement.repository.jpa.AccountRepository;
 import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.CardSearchFilter;
+import com.isc.cardManagement.repository.jpa.CardSearchRepository;
 import com.isc.cardManagement.repository.jpa.IssuerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
-import java.util.List;
-import java.util.Set;
+import java.io.UncheckedIOException;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,52 +53,163 @@ public class CardServiceImpl implements CardService {
     private final CardRepository cardRepository;
     private final AccountRepository accountRepository;
     private final IssuerRepository issuerRepository;
+    private final Validator validator;
+    private final MessageSource messageSource;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.cards.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${app.cards.batch.max-size:50000}")
+    private int batchMaxSize;
+
+    @Value("${app.cache.national-codes.max-size:0}")
+    private long encodedCardsMaxSize;
+
+    private static final int DEFAULT_KEYSET_PAGE_SIZE = 20;
+
+    private static final String CREATE_CARD = "createCard";
+    private static final String SEARCH_CARDS = "searchCards";
+
+    // JSON bodies of GET /api/v1/cards/{nationalCode}, bounded like the card lists they are encoded from
+    private CacheTier<String, EncodedCards> encodedCards;
+
+    // versions restart with the application, so ETags carry an instance id and never match another run's
+    private final String eTagPrefix = Long.toHexString(new SecureRandom().nextLong());
+
+    private MethodTimer getCardsTimer;
+    private MethodTimer getEncodedCardsTimer;
+    private MethodTimer createCardTimer;
+    private MethodTimer searchCardsTimer;
+
+    @PostConstruct
+    void init() {
+        encodedCards = new CacheTier<>("encodedCards", encodedCardsMaxSize);
+        encodedCards.bindTo(meterRegistry);
+        getCardsTimer = new MethodTimer(meterRegistry, "getCardsByNationalCode");
+        getEncodedCardsTimer = new MethodTimer(meterRegistry, "getEncodedCardsByNationalCode");
+        createCardTimer = new MethodTimer(meterRegistry, CREATE_CARD);
+        searchCardsTimer = new MethodTimer(meterRegistry, SEARCH_CARDS);
+    }
 
 
     @Override
     @Transactional(readOnly = true)
     public List<CardResponseDto> getCardsByNationalCode(String nationalCode) {
+        long start = System.nanoTime();
+        try {
+            return getCardsTimer.succeeded(start, cardsOf(nationalCode));
+        } catch (RuntimeException e) {
+            throw getCardsTimer.failed(start, e);
+        }
+    }
 
-        Set<CardEntity> cards = inMemoryRepository.getCardsByNationalCode(nationalCode);
+    private List<CardResponseDto> cardsOf(String nationalCode) {
+        List<CardView> cards = inMemoryRepository.getCardsByNationalCode(nationalCode);
 
         if (cards.isEmpty()) {
             throw new NotFoundException("کارتی برای کد ملی " + nationalCode + " یافت نشد");
         }
 
         return cards.stream()
-                .map(CardResponseDto::fromEntity)
+                .map(CardResponseDto::fromView)
                 .toList();
     }
 
+    /**
+     * Returns the person's cards already encoded as JSON. The encoding is kept until the person's card list
+     * changes, so repeated reads of an unchanged list cost a version check and a map lookup.
+     * <p>
+     * The ETag names the version of the card list, see {@link #getCardsETag}. A person whose cards are not
+     * cached yet has no version, so that one response is tagged with the MD5 of its body instead.
+     */
+    @Override
+    public EncodedCards getEncodedCardsByNationalCode(String nationalCode) {
+        long start = System.nanoTime();
+        try {
+            return getEncodedCardsTimer.succeeded(start, encodedCardsOf(nationalCode));
+        } catch (RuntimeException e) {
+            throw getEncodedCardsTimer.failed(start, e);
+        }
+    }
+
+    private EncodedCards encodedCardsOf(String nationalCode) {
+        // read before the cards, so the body is at least as new as the version it is cached under
+        long version = inMemoryRepository.getCardsVersion(nationalCode);
+        EncodedCards cached = version == 0 ? null : encodedCards.get(nationalCode);
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(cardsOf(nationalCode));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String eTag = version == 0 ? "\"" + DigestUtils.md5DigestAsHex(json) + "\"" : versionETag(version);
+        EncodedCards encoded = new EncodedCards(version, json, eTag);
+        if (version != 0) {
+            encodedCards.asMap().merge(nationalCode, encoded,
+                    (current, fresh) -> fresh.version() > current.version() ? fresh : current);
+        }
+        return encoded;
+    }
+
+    /**
+     * The ETag {@link #getEncodedCardsByNationalCode} currently returns for the person, known without
+     * reading or encoding any card.
+     *
+     * @return empty when the person's cards are not cached, so only reading them can tell
+     */
+    @Override
+    public Optional<String> getCardsETag(String nationalCode) {
+        long version = inMemoryRepository.getCardsVersion(nationalCode);
+        return version == 0 ? Optional.empty() : Optional.of(versionETag(version));
+    }
+
+    private String versionETag(long version) {
+        return "\"" + eTagPrefix + "-" + Long.toHexString(version) + "\"";
+    }
+
     @Override
     @Transactional
     public CardDto createCard(CardDto dto) throws BadRequestException {
+        CardCreationEvent event = new CardCreationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            CardDto created = createCardTimer.succeeded(start, insertCard(dto));
+            event.finish(dto.getIssuerCode(), dto.getCardType(), null);
+            return created;
+        } catch (RuntimeException e) {
+            event.finish(dto.getIssuerCode(), dto.getCardType(), e);
+            throw createCardTimer.failed(start, e);
+        }
+    }
 
+    private CardDto insertCard(CardDto dto) {
         log.info("Creating card: {}", dto.getCardNumber());
 
-        String ownerNationalCode = accountRepository
-                .findByAccountNumber(dto.getAccountNumber())
-                .map(acc -> acc.getOwner().getNationalCode())
+        ServicePhaseEvent phase = ServicePhaseEvent.start(CREATE_CARD, "resolve account");
+        AccountEntity account = inMemoryRepository.findAccount(dto.getAccountNumber())
+                .or(() -> accountRepository.findByAccountNumber(dto.getAccountNumber()))
                 .orElseThrow(() -> new NotFoundException("حساب یافت نشد"));
+        phase.finish();
 
-        Set<CardEntity> existingCards = inMemoryRepository
-                .getCardsByNationalCode(ownerNationalCode);
-
-        boolean duplicateInCache = existingCards.stream()
-                .anyMatch(card -> card.getCardNumber().equals(dto.getCardNumber()));
-
-        if (duplicateInCache) {
+        phase = ServicePhaseEvent.start(CREATE_CARD, "check card number");
+        if (inMemoryRepository.isCardNumberTaken(dto.getCardNumber())) {
             throw new BusinessException(
                     String.format("شماره کارت تکراری: %s", dto.getCardNumber()));
         }
+        phase.finish();
 
-        AccountEntity account = accountRepository
-                .findByAccountNumber(dto.getAccountNumber())
-                .orElseThrow(() -> new NotFoundException("حساب یافت نشد"));
-
-        IssuerEntity issuer = issuerRepository
-                .findByIssuerCode(dto.getIssuerCode())
+        phase = ServicePhaseEvent.start(CREATE_CARD, "resolve issuer");
+        IssuerEntity issuer = inMemoryRepository.findIssuer(dto.getIssuerCode())
+                .or(() -> issuerRepository.findByIssuerCode(dto.getIssuerCode()))
                 .orElseThrow(() -> new NotFoundException("صادرکننده یافت نشد"));
+        phase.finish();
 
         CardEntity card = CardEntity.builder()
                 .cardNumber(dto.getCardNumber())
@@ -90,40 +221,278 @@ public class CardServiceImpl implements CardService {
                 .active(true)
                 .build();
 
-        CardEntity saved = cardRepository.saveAndFlush(card);
+        // inserts the card after reserving its person/card type/issuer slot in the cache
+        phase = ServicePhaseEvent.start(CREATE_CARD, "save");
+        CardEntity saved = inMemoryRepository.saveCard(card);
+        phase.finish();
+
+        log.info("Card created successfully: {}", saved.getCardNumber());
 
+        phase = ServicePhaseEvent.start(CREATE_CARD, "map");
+        CardDto created = CardMapper.toDto(saved);
+        phase.finish();
+        return created;
+    }
 
-        inMemoryRepository.saveCard(saved);
 
-        log.info("Card created successfully: {}", saved.getCardNumber());
+    /**
+     * Creates many cards in one call. Every item is validated and checked on its own and gets its own
+     * result; accounts and issuers are resolved once per distinct key, and the accepted cards are
+     * inserted in chunks of {@code app.cards.batch.chunk-size}, one transaction per chunk. A chunk that
+     * fails in the database is retried card by card, so one bad item never aborts the rest.
+     */
+    @Override
+    public BatchCardResponseDto createCards(List<CardDto> dtos) throws BadRequestException {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new BadRequestException("لیست کارت ها نمی تواند خالی باشد");
+        }
+        if (dtos.size() > batchMaxSize) {
+            throw new BadRequestException(
+                    String.format("حداکثر %d کارت در هر درخواست مجاز است", batchMaxSize));
+        }
+
+        log.info("Creating {} card(s) in batch", dtos.size());
+
+        BatchCardResultDto[] results = new BatchCardResultDto[dtos.size()];
+        List<Integer> candidates = new ArrayList<>(dtos.size());
+        Set<String> batchCardNumbers = new HashSet<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            CardDto dto = dtos.get(i);
+            String error = validate(dto);
+            if (error == null && !batchCardNumbers.add(dto.getCardNumber())) {
+                error = String.format("شماره کارت تکراری در درخواست: %s", dto.getCardNumber());
+            }
+            if (error == null && inMemoryRepository.isCardNumberTaken(dto.getCardNumber())) {
+                error = String.format("شماره کارت تکراری: %s", dto.getCardNumber());
+            }
+
+            if (error != null) {
+                results[i] = rejected(i, dto, error);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        Map<String, AccountEntity> accounts = resolveAccounts(candidates, dtos);
+        Map<String, IssuerEntity> issuers = resolveIssuers(candidates, dtos);
+
+        List<Integer> chunk = new ArrayList<>(batchChunkSize);
+        for (int index : candidates) {
+            CardDto dto = dtos.get(index);
+            if (!accounts.containsKey(dto.getAccountNumber())) {
+                results[index] = rejected(index, dto, "حساب یافت نشد");
+            } else if (!issuers.containsKey(dto.getIssuerCode())) {
+                results[index] = rejected(index, dto, "صادرکننده یافت نشد");
+            } else {
+                chunk.add(index);
+                if (chunk.size() == batchChunkSize) {
+                    insertChunk(chunk, dtos, accounts, issuers, results);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, dtos, accounts, issuers, results);
+        }
+
+        int created = (int) Arrays.stream(results)
+                .filter(result -> result.getStatus() == BatchItemStatus.CREATED)
+                .count();
+        log.info("Batch finished: {} created, {} rejected", created, dtos.size() - created);
+
+        return BatchCardResponseDto.builder()
+                .total(dtos.size())
+                .created(created)
+                .rejected(dtos.size() - created)
+                .results(List.of(results))
+                .build();
+    }
+
+    private void insertChunk(List<Integer> chunk, List<CardDto> dtos, Map<String, AccountEntity> accounts,
+                             Map<String, IssuerEntity> issuers, BatchCardResultDto[] results) {
+
+        List<CardEntity> cards = chunk.stream()
+                .map(index -> buildCard(dtos.get(index), accounts, issuers))
+                .toList();
+
+        try {
+            Set<String> inserted = new HashSet<>();
+            inMemoryRepository.saveCards(cards).forEach(card -> inserted.add(card.getCardNumber()));
+
+            for (int index : chunk) {
+                CardDto dto = dtos.get(index);
+                results[index] = inserted.contains(dto.getCardNumber())
+                        ? created(index, dto)
+                        : rejected(index, dto, duplicateCardMessage(dto, accounts, issuers));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Batch chunk of {} card(s) failed, retrying one by one: {}", chunk.size(), e.getMessage());
+
+            for (int index : chunk) {
+                CardDto dto = dtos.get(index);
+                try {
+                    // a fresh entity: the failed chunk may already have assigned ids to the old ones
+                    inMemoryRepository.saveCard(buildCard(dto, accounts, issuers));
+                    results[index] = created(index, dto);
+                } catch (BadRequestException | BusinessException itemError) {
+                    results[index] = rejected(index, dto, itemError.getMessage());
+                } catch (RuntimeException itemError) {
+                    log.warn("Card {} rejected by the database: {}", dto.getCardNumber(), itemError.getMessage());
+                    results[index] = rejected(index, dto, "ثبت کارت در دیتابیس ناموفق بود");
+                }
+            }
+        }
+    }
+
+    private Map<String, AccountEntity> resolveAccounts(List<Integer> candidates, List<CardDto> dtos) {
+        Map<String, AccountEntity> accounts = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+
+        for (int index : candidates) {
+            String accountNumber = dtos.get(index).getAccountNumber();
+            if (!accounts.containsKey(accountNumber) && !missing.contains(accountNumber)) {
+                inMemoryRepository.findAccount(accountNumber)
+                        .ifPresentOrElse(account -> accounts.put(accountNumber, account),
+                                () -> missing.add(accountNumber));
+            }
+        }
+        if (!missing.isEmpty()) {
+            accountRepository.findAllByAccountNumberIn(missing)
+                    .forEach(account -> accounts.put(account.getAccountNumber(), account));
+        }
+        return accounts;
+    }
+
+    private Map<String, IssuerEntity> resolveIssuers(List<Integer> candidates, List<CardDto> dtos) {
+        Map<String, IssuerEntity> issuers = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+
+        for (int index : candidates) {
+            String issuerCode = dtos.get(index).getIssuerCode();
+            if (!issuers.containsKey(issuerCode) && !missing.contains(issuerCode)) {
+                inMemoryRepository.findIssuer(issuerCode)
+                        .ifPresentOrElse(issuer -> issuers.put(issuerCode, issuer),
+                                () -> missing.add(issuerCode));
+            }
+        }
+        if (!missing.isEmpty()) {
+            issuerRepository.findAllByIssuerCodeIn(missing)
+                    .forEach(issuer -> issuers.put(issuer.getIssuerCode(), issuer));
+        }
+        return issuers;
+    }
+
+    private static CardEntity buildCard(CardDto dto, Map<String, AccountEntity> accounts,
+                                        Map<String, IssuerEntity> issuers) {
+        return CardEntity.builder()
+                .cardNumber(dto.getCardNumber())
+                .cardType(dto.getCardType())
+                .account(accounts.get(dto.getAccountNumber()))
+                .issuer(issuers.get(dto.getIssuerCode()))
+                .expirationMonth(dto.getExpirationMonth())
+                .expirationYear(dto.getExpirationYear())
+                .active(true)
+                .build();
+    }
+
+    private static String duplicateCardMessage(CardDto dto, Map<String, AccountEntity> accounts,
+                                               Map<String, IssuerEntity> issuers) {
+        return String.format("کارت تکراری -> کد ملی: %s - %s (%s)",
+                accounts.get(dto.getAccountNumber()).getOwner().getNationalCode(),
+                dto.getCardType() == CardType.DEBIT ? "نقدی" : "اعتباری",
+                issuers.get(dto.getIssuerCode()).getName());
+    }
+
+    /**
+     * @return the translated violations of the item, or {@code null} when it is valid
+     */
+    private String validate(CardDto dto) {
+        if (dto == null) {
+            return "کارت نمی تواند خالی باشد";
+        }
+        Set<ConstraintViolation<CardDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        Locale locale = LocaleContextHolder.getLocale();
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": "
+                        + messageSource.getMessage(violation.getMessage(), null, violation.getMessage(), locale))
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static BatchCardResultDto created(int index, CardDto dto) {
+        return BatchCardResultDto.builder()
+                .index(index)
+                .cardNumber(dto.getCardNumber())
+                .status(BatchItemStatus.CREATED)
+                .build();
+    }
 
-        return CardMapper.toDto(saved);
+    private static BatchCardResultDto rejected(int index, CardDto dto, String error) {
+        return BatchCardResultDto.builder()
+                .index(index)
+                .cardNumber(dto != null ? dto.getCardNumber() : null)
+                .status(BatchItemStatus.REJECTED)
+                .error(error)
+                .build();
     }
 
 
     @Override
     public PagedResponseDto<CardResponseDto> searchCards(CardSearchDto searchDto) {
+        long start = System.nanoTime();
+        try {
+            return searchCardsTimer.succeeded(start, search(searchDto));
+        } catch (RuntimeException e) {
+            throw searchCardsTimer.failed(start, e);
+        }
+    }
+
+    private PagedResponseDto<CardResponseDto> search(CardSearchDto searchDto) {
         log.debug("Searching cards with criteria: {}", searchDto);
 
+        if (Boolean.TRUE.equals(searchDto.getKeyset()) || searchDto.getCursor() != null) {
+            return seekCards(searchDto);
+        }
+
         // ساخت Pageable از DTO
         Pageable pageable = buildPageable(searchDto);
 
-        Page<CardEntity> cardPage = cardRepository.searchCards(
-                searchDto.getNationalCode(),
-                searchDto.getCardNumber(),
-                searchDto.getIssuerCode(),
-                searchDto.getCardType(),
-                searchDto.getActive(),
-                searchDto.getAccountNumber(),
-                pageable
-        );
-
-        List<CardResponseDto> cardDtos = cardPage.getContent().stream()
-                .map(CardResponseDto::fromEntity)
-                .toList();
+        CardSearchFilter filter = searchFilter(searchDto);
+
+        // served from the in-memory index once the cache is warm
+        ServicePhaseEvent phase = ServicePhaseEvent.start(SEARCH_CARDS, "index");
+        Optional<Page<CardView>> indexed = inMemoryRepository.searchCards(filter, pageable);
+        phase.finish();
+
+        Page<CardResponseDto> cardPage;
+        if (indexed.isPresent()) {
+            phase = ServicePhaseEvent.start(SEARCH_CARDS, "map");
+            cardPage = indexed.get().map(CardResponseDto::fromView);
+            phase.finish();
+        } else {
+            phase = ServicePhaseEvent.start(SEARCH_CARDS, "database");
+            Page<CardEntity> rows = cardRepository.searchCards(
+                    filter.nationalCode(),
+                    filter.cardNumber(),
+                    filter.issuerCode(),
+                    filter.cardType(),
+                    filter.active(),
+                    filter.accountNumber(),
+                    pageable
+            );
+            phase.finish();
+
+            phase = ServicePhaseEvent.start(SEARCH_CARDS, "map");
+            cardPage = rows.map(CardResponseDto::fromEntity);
+            phase.finish();
+        }
 
         return PagedResponseDto.<CardResponseDto>builder()
-                .content(cardDtos)
+                .content(cardPage.getContent())
                 .pageNumber(cardPage.getNumber())
                 .pageSize(cardPage.getSize())
                 .totalElements(cardPage.getTotalElements())
@@ -132,6 +501,85 @@ public class CardServiceImpl implements CardService {
                 .build();
     }
 
+    /**
+     * Keyset mode: seeks past the cursor on {@code (sortBy, id)} instead of skipping an offset, and only
+     * counts the matches when {@code withTotal} is set. Without a count, {@code totalElements} and
+     * {@code totalPages} are -1.
+     */
+    private PagedResponseDto<CardResponseDto> seekCards(CardSearchDto searchDto) {
+        String sortBy = searchDto.getSortBy() != null ? searchDto.getSortBy() : "id";
+        if (!CardSearchRepository.KEYSET_SORT_KEYS.contains(sortBy)) {
+            throw new BadRequestException("مرتب سازی بر اساس " + sortBy + " در صفحه بندی کلیدی پشتیبانی نمی شود");
+        }
+        boolean descending = "DESC".equalsIgnoreCase(searchDto.getSortDirection());
+        int size = searchDto.getSize() != null ? searchDto.getSize() : DEFAULT_KEYSET_PAGE_SIZE;
+        if (size < 1) {
+            throw new BadRequestException("تعداد ایتم های هر صفحه باید حداقل 1 باشد");
+        }
+
+        SearchCursor after = searchDto.getCursor() != null
+                ? SearchCursor.decode(searchDto.getCursor(), sortBy, descending)
+                : null;
+
+        CardSearchFilter filter = searchFilter(searchDto);
+
+        // one extra row tells whether another page follows, without a count
+        ServicePhaseEvent phase = ServicePhaseEvent.start(SEARCH_CARDS, "database");
+        List<CardEntity> cards = cardRepository.seekCards(filter, sortBy, descending,
+                after != null ? after.lastValue() : null,
+                after != null ? after.lastId() : null,
+                size + 1);
+        phase.finish();
+
+        boolean hasNext = cards.size() > size;
+        if (hasNext) {
+            cards = cards.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            CardEntity last = cards.get(cards.size() - 1);
+            nextCursor = new SearchCursor(sortBy, descending, last.getId(), sortValue(last, sortBy)).encode();
+        }
+
+        long total = -1;
+        int totalPages = -1;
+        if (Boolean.TRUE.equals(searchDto.getWithTotal())) {
+            total = cardRepository.countCards(filter);
+            totalPages = (int) ((total + size - 1) / size);
+        }
+
+        return PagedResponseDto.<CardResponseDto>builder()
+                .content(cards.stream().map(CardResponseDto::fromEntity).toList())
+                .pageSize(size)
+                .totalElements(total)
+                .totalPages(totalPages)
+                .first(after == null)
+                .last(!hasNext)
+                .empty(cards.isEmpty())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static CardSearchFilter searchFilter(CardSearchDto searchDto) {
+        return new CardSearchFilter(
+                searchDto.getNationalCode(),
+                searchDto.getCardNumber(),
+                searchDto.getIssuerCode(),
+                searchDto.getCardType(),
+                searchDto.getActive(),
+                searchDto.getAccountNumber());
+    }
+
+    private static String sortValue(CardEntity card, String sortBy) {
+        return switch (sortBy) {
+            case "cardNumber" -> card.getCardNumber();
+            case "expirationYear" -> card.getExpirationYear();
+            case "expirationMonth" -> card.getExpirationMonth();
+            default -> null;
+        };
+    }
+
     private Pageable buildPageable(CardSearchDto searchDto) {
         if (searchDto.getPage() != null && searchDto.getSize() != null) {
             String sortBy = searchDto.getSortBy() != null ? searchDto.getSortBy() : "cardNumber";
@@ -139,7 +587,12 @@ public class CardServiceImpl implements CardService {
                     ? Sort.Direction.DESC
                     : Sort.Direction.ASC;
 
-            return PageRequest.of(searchDto.getPage(), searchDto.getSize(), Sort.by(direction, sortBy));
+            Sort sort = Sort.by(direction, sortBy);
+            if (!"id".equals(sortBy)) {
+                // ties broken by id so consecutive pages neither repeat nor skip cards
+                sort = sort.and(Sort.by(direction, "id"));
+            }
+            return PageRequest.of(searchDto.getPage(), searchDto.getSize(), sort);
         }
         return Pageable.unpaged();
     }
@@ -0,0 +1,12 @@
+package com.isc.cardManagement.service;
+
+/**
+ * A person's cards as the UTF-8 JSON body of {@code GET /api/v1/cards/{nationalCode}}, with its strong ETag.
+ * Encoded once per version of the person's card list and shared by every request for that version, so the
+ * array must not be modified.
+ *
+ * @param version the {@link com.isc.cardManagement.repository.InMemoryRepository#getCardsVersion version}
+ *                of the card list the body was encoded from
+ */
+public record EncodedCards(long version, byte[] json, String eTag) {
+}
@@ -0,0 +1,52 @@
+package com.isc.cardManagement.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded queue of the events waiting to be sent to one subscriber of {@link CardEventStreams}. Publishers
+ * never wait for it: when it is full, {@link CardEventStreams.OverflowPolicy#DROP_OLDEST} makes room by
+ * dropping the oldest event and counting it, and {@link CardEventStreams.OverflowPolicy#DISCONNECT} refuses
+ * the event so the subscriber can be dropped instead.
+ */
+final class EventBuffer<E> {
+
+    private final ArrayBlockingQueue<E> events;
+    private final CardEventStreams.OverflowPolicy overflowPolicy;
+    private final AtomicInteger dropped = new AtomicInteger();
+
+    EventBuffer(int capacity, CardEventStreams.OverflowPolicy overflowPolicy) {
+        this.events = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * @return {@code false} when the buffer is full and the policy is to disconnect the subscriber
+     */
+    boolean offer(E event) {
+        while (!events.offer(event)) {
+            if (overflowPolicy == CardEventStreams.OverflowPolicy.DISCONNECT) {
+                return false;
+            }
+            if (events.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    E poll() {
+        return events.poll();
+    }
+
+    boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    /**
+     * Returns the number of events dropped since the last call, and resets it.
+     */
+    int takeDropped() {
+        return dropped.getAndSet(0);
+    }
+}
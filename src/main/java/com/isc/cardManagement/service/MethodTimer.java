@@ -0,0 +1,49 @@
+package com.isc.cardManagement.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times one service method as {@code card.service{method, outcome}}. Both outcomes are registered up front,
+ * so recording a call is a clock read and a histogram update, with nothing allocated:
+ * <pre>
+ *   long start = System.nanoTime();
+ *   try {
+ *       return timer.succeeded(start, doWork());
+ *   } catch (RuntimeException e) {
+ *       throw timer.failed(start, e);
+ *   }
+ * </pre>
+ */
+final class MethodTimer {
+
+    static final String NAME = "card.service";
+
+    private final Timer success;
+    private final Timer failure;
+
+    MethodTimer(MeterRegistry registry, String method) {
+        this.success = timer(registry, method, "success");
+        this.failure = timer(registry, method, "failure");
+    }
+
+    <T> T succeeded(long startNanos, T result) {
+        success.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    <E extends Exception> E failed(long startNanos, E error) {
+        failure.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return error;
+    }
+
+    private static Timer timer(MeterRegistry registry, String method, String outcome) {
+        return Timer.builder(NAME)
+                .description("Time spent in card service methods")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
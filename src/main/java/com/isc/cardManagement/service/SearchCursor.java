@@ -0,0 +1,63 @@
+package com.isc.cardManagement.service;
+
+import com.isc.cardManagement.exception.BadRequestException;
+
+import java.io.*;
+import java.util.Base64;
+
+/**
+ * Position of a keyset search: the sort it was taken under and the sort key and id of the last card
+ * returned. Travels to the client as an opaque, URL-safe token.
+ */
+record SearchCursor(String sortBy, boolean descending, long lastId, String lastValue) {
+
+    private static final int VERSION = 1;
+
+    String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(sortBy);
+            out.writeBoolean(descending);
+            out.writeLong(lastId);
+            out.writeBoolean(lastValue != null);
+            if (lastValue != null) {
+                out.writeUTF(lastValue);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @throws BadRequestException when the token is malformed or was issued for a different sort
+     */
+    static SearchCursor decode(String token, String sortBy, boolean descending) {
+        SearchCursor cursor;
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readUnsignedByte() != VERSION) {
+                throw new BadRequestException("cursor نامعتبر است");
+            }
+            String cursorSortBy = in.readUTF();
+            boolean cursorDescending = in.readBoolean();
+            long lastId = in.readLong();
+            String lastValue = in.readBoolean() ? in.readUTF() : null;
+            if (in.available() > 0) {
+                throw new BadRequestException("cursor نامعتبر است");
+            }
+            cursor = new SearchCursor(cursorSortBy, cursorDescending, lastId, lastValue);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestException("cursor نامعتبر است");
+        }
+
+        if (!cursor.sortBy().equals(sortBy) || cursor.descending() != descending) {
+            throw new BadRequestException("cursor با مرتب سازی درخواست همخوانی ندارد");
+        }
+        if (!"id".equals(sortBy) && cursor.lastValue() == null) {
+            throw new BadRequestException("cursor نامعتبر است");
+        }
+        return cursor;
+    }
+}
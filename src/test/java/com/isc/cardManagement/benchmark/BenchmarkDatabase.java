@@ -0,0 +1,86 @@
+package com.isc.cardManagement.benchmark;
+
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.entity.PersonEntity;
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.jpa.AccountRepository;
+import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.IssuerRepository;
+import com.isc.cardManagement.repository.jpa.PersonRepository;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the database of a benchmark's application context directly through the JPA repositories, around the
+ * in-memory cache. Person {@code i} has national code {@code %010d} of {@code i} and account
+ * {@code 1%09d} of {@code i}.
+ */
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * One account per person with a card of each type from each issuer, so four cards per person with two
+     * issuers. Card numbers are {@code 6037%012d} of a running sequence.
+     */
+    static void seed(ConfigurableApplicationContext context, int persons, String... issuerCodes) {
+        List<IssuerEntity> issuers = new ArrayList<>();
+        for (String issuerCode : issuerCodes) {
+            issuers.add(IssuerEntity.builder().issuerCode(issuerCode).name("Issuer " + issuerCode).build());
+        }
+        issuers = context.getBean(IssuerRepository.class).saveAll(issuers);
+
+        List<CardEntity> cards = new ArrayList<>(persons * issuers.size() * 2);
+        int sequence = 0;
+        for (AccountEntity account : accounts(context, 0, persons)) {
+            for (IssuerEntity issuer : issuers) {
+                for (CardType cardType : CardType.values()) {
+                    cards.add(CardEntity.builder()
+                            .cardNumber(String.format("6037%012d", sequence))
+                            .cardType(cardType)
+                            .active(sequence % 5 != 0)
+                            .expirationMonth(String.format("%02d", sequence % 12 + 1))
+                            .expirationYear(String.valueOf(1403 + sequence % 4))
+                            .issuer(issuer)
+                            .account(account)
+                            .build());
+                    sequence++;
+                }
+            }
+        }
+        context.getBean(CardRepository.class).saveAll(cards);
+    }
+
+    /**
+     * Persons {@code first} to {@code first + count - 1}, each with one account and no card.
+     */
+    static List<AccountEntity> accounts(ConfigurableApplicationContext context, int first, int count) {
+        List<PersonEntity> persons = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            persons.add(PersonEntity.builder()
+                    .nationalCode(String.format("%010d", i))
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .phone("09120000000")
+                    .address("Tehran")
+                    .build());
+        }
+        persons = context.getBean(PersonRepository.class).saveAll(persons);
+
+        List<AccountEntity> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(AccountEntity.builder()
+                    .accountNumber(String.format("1%09d", first + i))
+                    .accountType(AccountType.SAVINGS)
+                    .owner(persons.get(i))
+                    .build());
+        }
+        return context.getBean(AccountRepository.class).saveAll(accounts);
+    }
+}
@@ -0,0 +1,70 @@
+package com.isc.cardManagement.benchmark;
+
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.CardConstraintKey;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the duplicate-card check done by {@code InMemoryRepository.saveCard}: building the constraint key,
+ * looking it up and registering it. Compares the old {@code String.format} key with {@link CardConstraintKey}.
+ * Run through {@link #main} to get the allocation rate ({@code gc.alloc.rate.norm}) next to the latency.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CardConstraintKeyBenchmark {
+
+    private static final int PERSONS = 100_000;
+
+    private String[] nationalCodes;
+    private final Map<String, Boolean> formattedIndex = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> packedIndex = new ConcurrentHashMap<>();
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        nationalCodes = new String[PERSONS];
+        for (int i = 0; i < PERSONS; i++) {
+            nationalCodes[i] = String.format("%010d", i * 7919L);
+        }
+    }
+
+    @Benchmark
+    public Boolean checkAndPut_formattedKey() {
+        String nationalCode = nationalCodes[next++ % PERSONS];
+        String key = String.format("%s_%s_%s", nationalCode, CardType.DEBIT, "603799");
+        if (formattedIndex.containsKey(key)) {
+            return Boolean.FALSE;
+        }
+        return formattedIndex.put(key, Boolean.TRUE);
+    }
+
+    @Benchmark
+    public Boolean checkAndPut_packedKey() {
+        String nationalCode = nationalCodes[next++ % PERSONS];
+        long key = CardConstraintKey.of(nationalCode, CardType.DEBIT, "603799");
+        if (packedIndex.containsKey(key)) {
+            return Boolean.FALSE;
+        }
+        return packedIndex.put(key, Boolean.TRUE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CardConstraintKeyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
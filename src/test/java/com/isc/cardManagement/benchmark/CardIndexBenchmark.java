@@ -0,0 +1,130 @@
+package com.isc.cardManagement.benchmark;
+
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.enums.CardType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old per-person card index (a set of {@link CardEntity}, whose hashCode is constant)
+ * with the card-number-keyed index used by {@code InMemoryRepository}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardIndexBenchmark {
+
+    @Param({"10000", "100000"})
+    private int cardsPerIndex;
+
+    private CardEntity[] cards;
+
+    private Set<CardEntity> entitySet;
+    private Map<String, CardEntity> cardNumberIndex;
+
+    private CardEntity probe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cards = new CardEntity[cardsPerIndex];
+        for (int i = 0; i < cardsPerIndex; i++) {
+            cards[i] = CardEntity.builder()
+                    .cardNumber(String.format("6037%012d", i))
+                    .cardType(i % 2 == 0 ? CardType.DEBIT : CardType.CREDIT)
+                    .expirationMonth("12")
+                    .expirationYear("1405")
+                    .active(true)
+                    .build();
+        }
+
+        entitySet = legacyIndex(cards);
+        cardNumberIndex = cardNumberIndex(cards);
+        probe = cards[cardsPerIndex - 1];
+    }
+
+    // ========== add ==========
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Set<CardEntity> addAll_entitySet() {
+        return legacyIndex(cards);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Map<String, CardEntity> addAll_cardNumberIndex() {
+        return cardNumberIndex(cards);
+    }
+
+    // ========== membership ==========
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean contains_entitySet() {
+        return entitySet.contains(probe);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean contains_cardNumberIndex() {
+        return cardNumberIndex.containsKey(probe.getCardNumber());
+    }
+
+    // ========== copy (what getCardsByNationalCode hands out) ==========
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void copy_entitySet(Blackhole blackhole) {
+        blackhole.consume(new HashSet<>(entitySet));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void copy_cardNumberIndex(Blackhole blackhole) {
+        blackhole.consume(new ArrayList<>(cardNumberIndex.values()));
+    }
+
+    private static Set<CardEntity> legacyIndex(CardEntity[] cards) {
+        Set<CardEntity> set = ConcurrentHashMap.newKeySet();
+        for (CardEntity card : cards) {
+            set.add(card);
+        }
+        return set;
+    }
+
+    private static Map<String, CardEntity> cardNumberIndex(CardEntity[] cards) {
+        Map<String, CardEntity> index = new ConcurrentHashMap<>();
+        for (CardEntity card : cards) {
+            index.put(card.getCardNumber(), card);
+        }
+        return index;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CardIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
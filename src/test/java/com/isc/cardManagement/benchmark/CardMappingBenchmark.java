@@ -0,0 +1,93 @@
+package com.isc.cardManagement.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isc.cardManagement.dto.CardDto;
+import com.isc.cardManagement.dto.CardResponseDto;
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.entity.PersonEntity;
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.mapper.CardMapper;
+import com.isc.cardManagement.repository.CardView;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-read mapping work of one person's four cards: building the response DTOs from entities and from the
+ * cached {@link CardView}s, {@link CardMapper#toDto} as used by card creation, and encoding the response
+ * body as JSON, which {@code CardServiceImpl.getEncodedCardsByNationalCode} does once per card list version.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CardMappingBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<CardEntity> entities;
+    private List<CardView> views;
+    private List<CardResponseDto> responses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PersonEntity person = PersonEntity.builder().id(1L).nationalCode("0063531425").firstName("Ali")
+                .lastName("Ahmadi").phone("09121234567").address("Tehran").build();
+        AccountEntity account = AccountEntity.builder().id(1L).accountNumber("1111111111")
+                .accountType(AccountType.CURRENT).owner(person).build();
+
+        entities = new ArrayList<>();
+        long id = 1;
+        for (String issuerCode : new String[]{"627353", "603799"}) {
+            IssuerEntity issuer = IssuerEntity.builder().id(id).issuerCode(issuerCode).name("Issuer " + issuerCode)
+                    .build();
+            for (CardType cardType : CardType.values()) {
+                entities.add(CardEntity.builder().id(id).cardNumber(String.format("%s%010d", issuerCode, id))
+                        .cardType(cardType).active(true).expirationMonth("12").expirationYear("1408")
+                        .issuer(issuer).account(account).build());
+                id++;
+            }
+        }
+        views = entities.stream().map(CardView::from).toList();
+        responses = views.stream().map(CardResponseDto::fromView).toList();
+    }
+
+    @Benchmark
+    public List<CardResponseDto> fromEntity() {
+        return entities.stream().map(CardResponseDto::fromEntity).toList();
+    }
+
+    @Benchmark
+    public List<CardResponseDto> fromView() {
+        return views.stream().map(CardResponseDto::fromView).toList();
+    }
+
+    @Benchmark
+    public List<CardDto> toDto() {
+        return CardMapper.toDtoList(entities);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CardMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,184 @@
+package com.isc.cardManagement.benchmark;
+
+import com.isc.cardManagement.CardManagementApiApplication;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.jpa.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former catch-all JPQL search ({@code :x IS NULL OR ...} for every filter, all associations
+ * fetch-joined, always counted) with the JPQL {@link CardSearchRepositoryImpl} builds from the given filters,
+ * for each filter combination of {@code CardSearchDto}. The {@code statements} and {@code searches} secondary
+ * results count the statements each variant prepares and the searches it ran, per iteration.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardSearchQueryBenchmark {
+
+    private static final String STATIC_SEARCH = """
+            SELECT DISTINCT c FROM CardEntity c
+            LEFT JOIN FETCH c.account a
+            LEFT JOIN FETCH a.owner p
+            LEFT JOIN FETCH c.issuer i
+            WHERE (:nationalCode IS NULL OR p.nationalCode = :nationalCode)
+              AND (:cardNumber IS NULL OR c.cardNumber = :cardNumber)
+              AND (:issuerCode IS NULL OR i.issuerCode = :issuerCode)
+              AND (:cardType IS NULL OR c.cardType = :cardType)
+              AND (:active IS NULL OR c.active = :active)
+              AND (:accountNumber IS NULL OR a.accountNumber = :accountNumber)
+            ORDER BY c.id
+            """;
+
+    private static final String STATIC_COUNT = """
+            SELECT COUNT(DISTINCT c) FROM CardEntity c
+            LEFT JOIN c.account a
+            LEFT JOIN a.owner p
+            LEFT JOIN c.issuer i
+            WHERE (:nationalCode IS NULL OR p.nationalCode = :nationalCode)
+              AND (:cardNumber IS NULL OR c.cardNumber = :cardNumber)
+              AND (:issuerCode IS NULL OR i.issuerCode = :issuerCode)
+              AND (:cardType IS NULL OR c.cardType = :cardType)
+              AND (:active IS NULL OR c.active = :active)
+              AND (:accountNumber IS NULL OR a.accountNumber = :accountNumber)
+            """;
+
+    private static final int PERSONS = 5_000;
+    private static final String[] ISSUER_CODES = {"627353", "603799"};
+
+    @Param({"none", "nationalCode", "cardNumber", "issuerCode", "cardType", "active", "accountNumber",
+            "issuerCode+cardType+active", "nationalCode+cardType"})
+    private String filters;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private CardRepository cardRepository;
+    private CardSearchRepositoryImpl dynamicSearch;
+    private Statistics statistics;
+
+    private CardSearchFilter filter;
+    private final Pageable pageable = PageRequest.of(2, 20, Sort.by("id"));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CardManagementApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:search-benchmark;DB_CLOSE_DELAY=-1",
+                        "--app.data.file-path=data/test-empty-seed.txt",
+                        "--app.warmup.async=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN");
+
+        cardRepository = context.getBean(CardRepository.class);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        // same EntityManager for both variants, so only the queries differ
+        dynamicSearch = new CardSearchRepositoryImpl(entityManager);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        BenchmarkDatabase.seed(context, PERSONS, ISSUER_CODES);
+
+        filter = new CardSearchFilter(
+                has("nationalCode") ? "0000001234" : null,
+                has("cardNumber") ? "6037000000012345" : null,
+                has("issuerCode") ? ISSUER_CODES[1] : null,
+                has("cardType") ? CardType.CREDIT : null,
+                has("active") ? Boolean.FALSE : null,
+                has("accountNumber") ? "1000001234" : null);
+
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    /**
+     * Statements prepared by the measured searches; {@code statements / searches} is the number per search.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StatementCounter {
+
+        public long statements;
+        public long searches;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            searches = 0;
+        }
+
+        void record(long statementsBefore, Statistics statistics) {
+            statements += statistics.getPrepareStatementCount() - statementsBefore;
+            searches++;
+        }
+    }
+
+    @Benchmark
+    public Page<CardEntity> staticJpql(StatementCounter counter) {
+        long statementsBefore = statistics.getPrepareStatementCount();
+        TypedQuery<CardEntity> query = bind(entityManager.createQuery(STATIC_SEARCH, CardEntity.class));
+        List<CardEntity> content = query
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        long total = bind(entityManager.createQuery(STATIC_COUNT, Long.class)).getSingleResult();
+        entityManager.clear();
+        counter.record(statementsBefore, statistics);
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Benchmark
+    public Page<CardEntity> dynamicJpql(StatementCounter counter) {
+        long statementsBefore = statistics.getPrepareStatementCount();
+        Page<CardEntity> page = dynamicSearch.searchCards(filter.nationalCode(), filter.cardNumber(),
+                filter.issuerCode(), filter.cardType(), filter.active(), filter.accountNumber(), pageable);
+        entityManager.clear();
+        counter.record(statementsBefore, statistics);
+        return page;
+    }
+
+    private <T> TypedQuery<T> bind(TypedQuery<T> query) {
+        return query
+                .setParameter("nationalCode", filter.nationalCode())
+                .setParameter("cardNumber", filter.cardNumber())
+                .setParameter("issuerCode", filter.issuerCode())
+                .setParameter("cardType", filter.cardType())
+                .setParameter("active", filter.active())
+                .setParameter("accountNumber", filter.accountNumber());
+    }
+
+    private boolean has(String name) {
+        return List.of(filters.split("\\+")).contains(name);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CardSearchQueryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
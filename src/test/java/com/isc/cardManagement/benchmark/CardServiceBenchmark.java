@@ -0,0 +1,146 @@
+package com.isc.cardManagement.benchmark;
+
+import com.isc.cardManagement.CardManagementApiApplication;
+import com.isc.cardManagement.dto.CardSearchDto;
+import com.isc.cardManagement.dto.CardResponseDto;
+import com.isc.cardManagement.dto.PagedResponseDto;
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.exception.BadRequestException;
+import com.isc.cardManagement.repository.CardView;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.repository.jpa.IssuerRepository;
+import com.isc.cardManagement.service.CardService;
+import com.isc.cardManagement.service.EncodedCards;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The card service hot paths against a seeded H2 database: reading a person's cards from the repository and
+ * as the encoded response, searching, and inserting a card. With {@code lookup=hit} every card is cached and
+ * searches are served by the index; with {@code lookup=miss} the card tiers hold a single entry, so each read
+ * goes to the database and searches fall back to JPQL.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardServiceBenchmark {
+
+    private static final int PERSONS = 5_000;
+    private static final String[] ISSUER_CODES = {"627353", "603799"};
+    // saveCard invocations: warm-up and measurement batches, four cards per fresh account
+    private static final int INSERTS = 7 * 1_000;
+
+    @Param({"hit", "miss"})
+    private String lookup;
+
+    private ConfigurableApplicationContext context;
+    private InMemoryRepository inMemoryRepository;
+    private CardService cardService;
+
+    private String[] nationalCodes;
+    private int next;
+
+    private final CardSearchDto search = CardSearchDto.builder()
+            .issuerCode(ISSUER_CODES[1])
+            .cardType(CardType.CREDIT)
+            .page(2)
+            .size(20)
+            .build();
+
+    private List<AccountEntity> freshAccounts;
+    private List<IssuerEntity> issuers;
+    private int inserted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean miss = lookup.equals("miss");
+        context = new SpringApplicationBuilder(CardManagementApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:service-benchmark;DB_CLOSE_DELAY=-1",
+                        "--app.data.file-path=data/test-empty-seed.txt",
+                        "--app.warmup.async=false",
+                        "--app.cache.cards.max-size=" + (miss ? 1 : 0),
+                        "--app.cache.national-codes.max-size=" + (miss ? 1 : 0),
+                        "--logging.level.root=WARN");
+        inMemoryRepository = context.getBean(InMemoryRepository.class);
+        cardService = context.getBean(CardService.class);
+
+        BenchmarkDatabase.seed(context, PERSONS, ISSUER_CODES);
+        freshAccounts = BenchmarkDatabase.accounts(context, PERSONS, INSERTS / 4);
+        issuers = context.getBean(IssuerRepository.class).findAll();
+
+        nationalCodes = new String[PERSONS];
+        for (int i = 0; i < PERSONS; i++) {
+            nationalCodes[i] = String.format("%010d", i);
+        }
+
+        // the rows were written around the cache: start it over and, for hits, read every person once
+        inMemoryRepository.clearAll();
+        if (!miss) {
+            for (String nationalCode : nationalCodes) {
+                inMemoryRepository.getCardsByNationalCode(nationalCode);
+            }
+        }
+        inMemoryRepository.checkSearchCompleteness();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CardView> getCardsByNationalCode() {
+        return inMemoryRepository.getCardsByNationalCode(nationalCodes[next++ % PERSONS]);
+    }
+
+    @Benchmark
+    public EncodedCards getEncodedCardsByNationalCode() {
+        return cardService.getEncodedCardsByNationalCode(nationalCodes[next++ % PERSONS]);
+    }
+
+    @Benchmark
+    public PagedResponseDto<CardResponseDto> searchCards() {
+        return cardService.searchCards(search);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2, batchSize = 1_000)
+    @Measurement(iterations = 5, batchSize = 1_000)
+    public CardEntity saveCard() throws BadRequestException {
+        int card = inserted++;
+        return inMemoryRepository.saveCard(CardEntity.builder()
+                .cardNumber(String.format("5892%012d", card))
+                .cardType(CardType.values()[card % 2])
+                .active(true)
+                .expirationMonth("12")
+                .expirationYear("1408")
+                .issuer(issuers.get(card / 2 % 2))
+                .account(freshAccounts.get(card / 4))
+                .build());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CardServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
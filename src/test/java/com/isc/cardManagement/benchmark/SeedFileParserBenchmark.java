@@ -0,0 +1,107 @@
+package com.isc.cardManagement.benchmark;
+
+import com.isc.cardManagement.repository.SeedFileParser;
+import com.isc.cardManagement.repository.SeedRecord;
+import com.isc.cardManagement.repository.SeedRecordHandler;
+import com.isc.cardManagement.repository.SeedRecordKind;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old line-by-line String parsing of the initial-data file (readLine, trim, split)
+ * with the memory-mapped {@link SeedFileParser}. Both walk the whole file once per stage kind set,
+ * as the loader does.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SeedFileParserBenchmark {
+
+    @Param({"1000000"})
+    private int persons;
+
+    @Param({"PERSON", "CARD"})
+    private SeedRecordKind kind;
+
+    private Path file;
+    private SeedFileParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("seed-benchmark", ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("issuer=603799,Bank Melli\n");
+            for (int i = 0; i < persons; i++) {
+                String nationalCode = String.format("%010d", i);
+                String accountNumber = String.format("%012d", i);
+                writer.write("person=Ali,Ahmadi," + nationalCode + ",09121234567,Tehran\n");
+                writer.write("account=" + accountNumber + ",SAVINGS," + nationalCode + "\n");
+                writer.write("card=603799" + String.format("%010d", i) + ",DEBIT,true,12,1407,603799,"
+                        + accountNumber + "\n");
+            }
+        }
+        parser = new SeedFileParser();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void legacyStringSplit(Blackhole blackhole) throws IOException {
+        String prefix = kind.prefix();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || !line.toLowerCase().startsWith(prefix)) {
+                    continue;
+                }
+                String[] tokens = line.substring(prefix.length()).split(",");
+                for (int i = 0; i < tokens.length; i++) {
+                    tokens[i] = tokens[i].trim();
+                }
+                blackhole.consume(tokens);
+            }
+        }
+    }
+
+    @Benchmark
+    public long mappedParser(Blackhole blackhole) throws IOException, InterruptedException {
+        Set<SeedRecordKind> kinds = EnumSet.of(kind);
+        return parser.parse(file, kinds, new SeedRecordHandler() {
+            @Override
+            public void onRecord(SeedRecord record) {
+                blackhole.consume(record);
+            }
+
+            @Override
+            public void onMalformed(SeedRecordKind kind, long offset, String reason) {
+                blackhole.consume(reason);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SeedFileParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package com.isc.cardManagement.controllerTest;
+
+import com.isc.cardManagement.dto.CardDto;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.service.CardEventStreams;
+import com.isc.cardManagement.service.CardService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-seed.txt",
+        "app.warmup.async=false"
+})
+@DisplayName("رویدادهای ثبت کارت (SSE)")
+class CardEventStreamTest {
+
+    private static final String USER = basic("user:password");
+    private static final String ADMIN = basic("admin:admin");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardEventStreams cardEventStreams;
+
+    @Test
+    @DisplayName("کارت جدید فقط به مشترکین همان کد ملی و جریان مدیر ارسال می شود")
+    void createdCardReachesItsWatchers() throws Exception {
+        // Given
+        MvcResult owner = subscribe("/api/v1/cards/0063531425/events", USER);
+        MvcResult other = subscribe("/api/v1/cards/0012345678/events", USER);
+        MvcResult admin = subscribe("/api/v1/cards/events", ADMIN);
+        assertThat(cardEventStreams.getSubscriberCount()).isEqualTo(3);
+
+        // When
+        cardService.createCard(CardDto.builder()
+                .cardNumber("6543210987654321")
+                .expirationMonth("05")
+                .expirationYear("1409")
+                .active(true)
+                .cardType(CardType.CREDIT)
+                .issuerCode("654321")
+                .accountNumber("1111111111")
+                .build());
+
+        // Then
+        String ownerEvents = awaitContent(owner, "6543210987654321");
+        assertThat(ownerEvents).contains("event:card-created").contains("\"issuerCode\":\"654321\"");
+        assertThat(awaitContent(admin, "6543210987654321")).contains("event:card-created");
+        assertThat(other.getResponse().getContentAsString()).doesNotContain("6543210987654321");
+    }
+
+    @Test
+    @DisplayName("جریان همه کارت ها فقط برای مدیر است")
+    void globalStreamRequiresAdmin() throws Exception {
+        mockMvc.perform(get("/api/v1/cards/events").header(HttpHeaders.AUTHORIZATION, USER))
+                .andExpect(status().isForbidden());
+    }
+
+    private MvcResult subscribe(String path, String authorization) throws Exception {
+        return mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    private static String basic(String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes());
+    }
+}
@@ -0,0 +1,125 @@
+package com.isc.cardManagement.controllerTest;
+
+import com.isc.cardManagement.service.CardService;
+import com.isc.cardManagement.service.EncodedCards;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-seed.txt",
+        "app.warmup.async=false"
+})
+@DisplayName("Cache پاسخ JSON کارت های یک شخص")
+class CardsResponseCacheTest {
+
+    private static final String AUTHORIZATION = "Basic " +
+            Base64.getEncoder().encodeToString("user:password".getBytes());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private CardService cardService;
+
+    @Test
+    @DisplayName("درخواست با ETag فعلی پاسخ 304 بدون بدنه می گیرد")
+    void matchingIfNoneMatchReturnsNotModified() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/api/v1/cards/0063531425").header(HttpHeaders.AUTHORIZATION, AUTHORIZATION))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].cardNumber").value("1234567812345678"))
+                .andExpect(jsonPath("$[0].issuer.issuerCode").value("123456"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"").endsWith("\"");
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/cards/0063531425")
+                        .header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("بدنه JSON تا زمان تغییر کارت ها دوباره ساخته نمی شود و ثبت کارت آن را باطل می کند")
+    void cardCreationInvalidatesEncodedCards() throws Exception {
+        // Given
+        EncodedCards first = cardService.getEncodedCardsByNationalCode("0063531425");
+        assertThat(cardService.getEncodedCardsByNationalCode("0063531425")).isSameAs(first);
+
+        // When - کارت جدیدی برای همان شخص ثبت می شود
+        mockMvc.perform(post("/api/v1/cards")
+                        .header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"cardNumber": "6543210987654321", "expirationMonth": "05", "expirationYear": "1409",
+                                 "active": true, "cardType": "credit", "issuerCode": "654321",
+                                 "accountNumber": "1111111111"}
+                                """))
+                .andExpect(status().isCreated());
+
+        // Then
+        mockMvc.perform(get("/api/v1/cards/0063531425")
+                        .header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+                        .header(HttpHeaders.IF_NONE_MATCH, first.eTag()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(first.eTag())))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @DisplayName("درخواست تکراری با ETag نسخه فعلی بدون خواندن و ساختن JSON کارت ها پاسخ داده می شود")
+    void unchangedPollIsAnsweredFromTheVersion() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/api/v1/cards/0063531425").header(HttpHeaders.AUTHORIZATION, AUTHORIZATION))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isEqualTo(cardService.getCardsETag("0063531425").orElseThrow());
+        clearInvocations(cardService);
+
+        // When
+        mockMvc.perform(get("/api/v1/cards/0063531425")
+                        .header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        // Then
+        verify(cardService, never()).getEncodedCardsByNationalCode(anyString());
+        verify(cardService, never()).getCardsByNationalCode(anyString());
+    }
+
+    @Test
+    @DisplayName("کد ملی بدون کارت همچنان 404 می گیرد")
+    void unknownNationalCodeIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/cards/0000000001").header(HttpHeaders.AUTHORIZATION, AUTHORIZATION))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,74 @@
+package com.isc.cardManagement.controllerTest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DirtiesContext
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-seed.txt",
+        "app.warmup.async=false"
+})
+@DisplayName("معیارهای Prometheus")
+class MetricsEndpointTest {
+
+    private static final String USER = basic("user:password");
+    private static final String ADMIN = basic("admin:admin");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("پس از دریافت کارت ها باید زمان سرویس، کش، درخواست HTTP و دستورات SQL منتشر شود")
+    void scrapeShowsServiceCacheHttpAndStatementMetrics() throws Exception {
+        // Given
+        mockMvc.perform(get("/api/v1/cards/0063531425").header(HttpHeaders.AUTHORIZATION, USER))
+                .andExpect(status().isOk());
+
+        // When
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, ADMIN))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertThat(scrape)
+                .contains("card_service_seconds_count{application=\"card-management-api\","
+                        + "method=\"getCardsByNationalCode\",outcome=\"success\"}")
+                .contains("card_service_seconds_bucket")
+                .contains("cache_gets_total{application=\"card-management-api\",cache=\"nationalCodes\","
+                        + "result=\"hit\"}")
+                .contains("http_server_requests_seconds_bucket")
+                .contains("db_statements_total")
+                .contains("seed_load_records_total")
+                .contains("cache_warmup_state{application=\"card-management-api\",state=\"READY\"} 1.0");
+    }
+
+    @Test
+    @DisplayName("معیارها فقط برای مدیر است ولی وضعیت سلامت برای همه باز است")
+    void metricsRequireAdminButHealthIsOpen() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, USER))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    private static String basic(String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes());
+    }
+}
@@ -0,0 +1,42 @@
+package com.isc.cardManagement.loadtest;
+
+/**
+ * Size of a generated data set and the identifiers in it, shared by {@link SeedFileGenerator} and
+ * {@link LoadDriver}: person {@code i} has national code {@code %010d} of {@code i}, issuer {@code k} has code
+ * {@code 600000 + k}, seeded accounts are numbered {@code 1%09d} in file order and the spare people after the
+ * seeded ones own account {@code 9%09d} of their spare index.
+ */
+public record DatasetShape(int persons, int sparePersons, int issuers) {
+
+    private static final int FIRST_ISSUER_CODE = 600_000;
+
+    public DatasetShape {
+        if (persons < 1 || sparePersons < 0 || (long) persons + sparePersons > 1_000_000_000) {
+            throw new IllegalArgumentException("persons must be between 1 and 10^9");
+        }
+        if (issuers < 1 || issuers > 1_000_000 - FIRST_ISSUER_CODE) {
+            throw new IllegalArgumentException("issuers must be between 1 and " + (1_000_000 - FIRST_ISSUER_CODE));
+        }
+    }
+
+    static DatasetShape of(Options options) {
+        return new DatasetShape(options.getInt("persons", 100_000), options.getInt("spare-persons", 10_000),
+                options.getInt("issuers", 50));
+    }
+
+    public static String nationalCode(int person) {
+        return String.format("%010d", person);
+    }
+
+    public static String issuerCode(int issuer) {
+        return String.valueOf(FIRST_ISSUER_CODE + issuer);
+    }
+
+    public static String accountNumber(long account) {
+        return String.format("1%09d", account);
+    }
+
+    public static String spareAccountNumber(int spare) {
+        return String.format("9%09d", spare);
+    }
+}
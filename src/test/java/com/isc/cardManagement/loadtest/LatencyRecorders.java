@@ -0,0 +1,154 @@
+package com.isc.cardManagement.loadtest;
+
+import com.isc.cardManagement.loadtest.RequestMix.Operation;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of a load test per operation, in microseconds, as two HdrHistograms: the response time counted
+ * from when the request was due by the schedule, which corrects for coordinated omission, and the service
+ * time counted from when it was actually sent. Recording is wait-free from any thread.
+ * <p>
+ * {@link #sample} moves what was recorded since the last call into the totals and the interval log, or
+ * discards it during warm-up; requests answered after the last call are left out, failures included. {@link #writeReports} writes one percentile distribution ({@code .hgrm}) per
+ * operation and kind, which the HdrHistogram plotter reads, next to the interval log ({@code .hlog}).
+ */
+final class LatencyRecorders {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Operation, OperationLatencies> latencies = new EnumMap<>(Operation.class);
+
+    LatencyRecorders() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new OperationLatencies());
+        }
+    }
+
+    /**
+     * @param intendedNanos when the schedule wanted the request sent
+     * @param sentNanos     when it was sent
+     * @param status        the HTTP status, or 0 when no response came
+     */
+    void record(Operation operation, long intendedNanos, long sentNanos, long completedNanos, int status) {
+        OperationLatencies operationLatencies = latencies.get(operation);
+        operationLatencies.responseTime.recordValue(toMicros(completedNanos - intendedNanos));
+        operationLatencies.serviceTime.recordValue(toMicros(completedNanos - sentNanos));
+        if (status < 200 || status >= 300) {
+            operationLatencies.failed.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Ends the current interval.
+     *
+     * @param log the interval log, or {@code null} to discard the interval
+     */
+    void sample(HistogramLogWriter log) {
+        latencies.forEach((operation, operationLatencies) -> {
+            Histogram responseTime = operationLatencies.responseTime.getIntervalHistogram();
+            Histogram serviceTime = operationLatencies.serviceTime.getIntervalHistogram();
+            Map<Integer, Long> failed = new TreeMap<>();
+            operationLatencies.failed.forEach((status, count) -> failed.put(status, count.sumThenReset()));
+            if (log == null) {
+                return;
+            }
+            failed.forEach((status, count) -> operationLatencies.totalFailed.merge(status, count, Long::sum));
+            operationLatencies.totalResponseTime.add(responseTime);
+            operationLatencies.totalServiceTime.add(serviceTime);
+            if (responseTime.getTotalCount() > 0) {
+                responseTime.setTag(tag(operation, "response"));
+                serviceTime.setTag(tag(operation, "service"));
+                log.outputIntervalHistogram(responseTime);
+                log.outputIntervalHistogram(serviceTime);
+            }
+        });
+    }
+
+    long getTotalCount() {
+        return latencies.values().stream().mapToLong(latency -> latency.totalResponseTime.getTotalCount()).sum();
+    }
+
+    void writeReports(Path directory) throws IOException {
+        for (Map.Entry<Operation, OperationLatencies> entry : latencies.entrySet()) {
+            OperationLatencies operationLatencies = entry.getValue();
+            if (operationLatencies.totalResponseTime.getTotalCount() == 0) {
+                continue;
+            }
+            write(operationLatencies.totalResponseTime, directory.resolve(tag(entry.getKey(), "response") + ".hgrm"));
+            write(operationLatencies.totalServiceTime, directory.resolve(tag(entry.getKey(), "service") + ".hgrm"));
+        }
+    }
+
+    /**
+     * One line per operation: requests, failures by status, throughput and response-time percentiles in ms,
+     * with the uncorrected service-time p99 last.
+     */
+    void printSummary(PrintStream out, double seconds) {
+        out.printf("%-7s %9s %8s %9s %9s %9s %9s %9s %9s %12s  %s%n", "op", "requests", "failed", "req/s",
+                "p50", "p90", "p99", "p99.9", "max", "service p99", "failures by status");
+        latencies.forEach((operation, operationLatencies) -> {
+            Histogram histogram = operationLatencies.totalResponseTime;
+            if (histogram.getTotalCount() == 0) {
+                return;
+            }
+            Map<Integer, Long> failures = operationLatencies.totalFailed;
+            failures.values().removeIf(count -> count == 0);
+            long failed = failures.values().stream().mapToLong(Long::longValue).sum();
+            out.printf("%-7s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f  %s%n",
+                    operation.name().toLowerCase(),
+                    histogram.getTotalCount(),
+                    failed,
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram, 50),
+                    millis(histogram, 90),
+                    millis(histogram, 99),
+                    millis(histogram, 99.9),
+                    histogram.getMaxValue() / MICROS_PER_MILLI,
+                    millis(operationLatencies.totalServiceTime, 99),
+                    failures.isEmpty() ? "-" : failures);
+        });
+    }
+
+    private static void write(Histogram histogram, Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static String tag(Operation operation, String kind) {
+        return operation.name().toLowerCase() + "-" + kind;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(nanos / 1000, 0), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    private static final class OperationLatencies {
+
+        private final Recorder responseTime = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram totalResponseTime = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram totalServiceTime = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Map<Integer, LongAdder> failed = new ConcurrentHashMap<>();
+        private final Map<Integer, Long> totalFailed = new TreeMap<>();
+    }
+}
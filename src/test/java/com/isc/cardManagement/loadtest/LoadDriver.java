@@ -0,0 +1,288 @@
+package com.isc.cardManagement.loadtest;
+
+import com.isc.cardManagement.CardManagementApiApplication;
+import com.isc.cardManagement.loadtest.RequestMix.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.HistogramLogWriter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load driver for {@code CardController}, run against a given {@code --base-url} or, without one,
+ * against the application started in this JVM on a seed file from {@link SeedFileGenerator} (generated first
+ * when {@code --seed-file} does not exist yet).
+ * <p>
+ * Two load models:
+ * <ul>
+ *     <li>{@code closed}: {@code --connections} workers each send a request, wait for the response and send
+ *     the next. With {@code --rate} the workers share that many requests per second between them, each on
+ *     its own schedule; without it they go back to back.</li>
+ *     <li>{@code open}: requests are sent at {@code --rate} per second whether or not earlier ones were
+ *     answered, with at most {@code --max-in-flight} outstanding.</li>
+ * </ul>
+ * Latency is counted from when the schedule wanted the request sent rather than from when it was sent, so a
+ * stalled server is charged for the requests it held back (coordinated omission); the uncorrected service
+ * time is recorded as well. Unpaced closed-loop runs have no schedule and the two are the same.
+ * <p>
+ * The first {@code --warmup} is discarded, then {@code --duration} is measured. The reports go to a
+ * timestamped directory under {@code --report-dir}: an HdrHistogram percentile distribution per operation
+ * ({@code get-response.hgrm}, {@code get-service.hgrm}, ...), the interval log {@code latency.hlog}, and a
+ * summary on standard output.
+ * <p>
+ * Options (defaults in brackets): {@code --base-url}, {@code --seed-file [target/loadtest/seed-<shape>.txt]},
+ * {@code --persons [100000]}, {@code --spare-persons [10000]}, {@code --issuers [50]},
+ * {@code --max-cards [16]}, {@code --card-skew [2]}, {@code --issuer-skew [1]}, {@code --seed [42]},
+ * {@code --mode [closed]},
+ * {@code --connections [16]}, {@code --rate [0 closed, 500 open]}, {@code --max-in-flight [1000]},
+ * {@code --mix [get=80,post=5,search=15]}, {@code --warmup [30s]}, {@code --duration [60s]},
+ * {@code --interval [5s]}, {@code --report-dir [target/loadtest]}, {@code --user [user]},
+ * {@code --password [password]}.
+ */
+@Slf4j
+public final class LoadDriver {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final RequestMix mix;
+    private final LatencyRecorders recorders = new LatencyRecorders();
+    private final boolean open;
+    private final int connections;
+    private final double rate;
+    private final int maxInFlight;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration interval;
+    private final long seed;
+
+    private final AtomicBoolean failureLogged = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    LoadDriver(RequestMix mix, Options options) {
+        this.mix = mix;
+        this.open = switch (options.get("mode", "closed")) {
+            case "closed" -> false;
+            case "open" -> true;
+            default -> throw new IllegalArgumentException("mode must be closed or open");
+        };
+        this.connections = options.getInt("connections", 16);
+        this.rate = options.getDouble("rate", open ? 500 : 0);
+        this.maxInFlight = options.getInt("max-in-flight", 1000);
+        this.warmup = options.getDuration("warmup", Duration.ofSeconds(30));
+        this.duration = options.getDuration("duration", Duration.ofSeconds(60));
+        this.interval = options.getDuration("interval", Duration.ofSeconds(5));
+        this.seed = options.getLong("seed", 42);
+        if (open && rate <= 0) {
+            throw new IllegalArgumentException("an open-loop run needs a --rate");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args, 0);
+        DatasetShape shape = DatasetShape.of(options);
+
+        String baseUrl = options.get("base-url", null);
+        ConfigurableApplicationContext application = null;
+        if (baseUrl == null) {
+            Path seedFile = Path.of(options.get("seed-file", String.format("target/loadtest/seed-%d-%d-%d.txt",
+                    shape.persons(), shape.sparePersons(), shape.issuers())));
+            if (!Files.exists(seedFile)) {
+                SeedFileGenerator.of(options).write(seedFile);
+            }
+            application = startApplication(seedFile);
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+        }
+
+        try {
+            RequestMix mix = new RequestMix(URI.create(baseUrl), options.get("user", "user"),
+                    options.get("password", "password"), shape, options.get("mix", "get=80,post=5,search=15"));
+            new LoadDriver(mix, options).run(Path.of(options.get("report-dir", "target/loadtest")));
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(Path seedFile) {
+        long started = System.nanoTime();
+        ConfigurableApplicationContext application = new SpringApplicationBuilder(CardManagementApiApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--app.data.file-path=" + seedFile.toAbsolutePath().toUri(),
+                        "--app.warmup.async=false",
+                        // the per-card debug logging of the loader and repository would be what is measured
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.isc.cardManagement=WARN",
+                        "--logging.level.com.isc.cardManagement.loadtest=INFO");
+        log.info("Application started on {} in {} s", seedFile, (System.nanoTime() - started) / 1_000_000_000);
+        return application;
+    }
+
+    void run(Path reportDirectory) throws IOException, InterruptedException {
+        Path directory = reportDirectory.resolve((open ? "open-" : "closed-") + TIMESTAMP.format(LocalDateTime.now()));
+        Files.createDirectories(directory);
+        String load = open || rate > 0 ? rate + " requests/s" : "unpaced";
+        log.info("{} loop, {} connections, {}, warm-up {} s, measuring {} s, reports in {}",
+                open ? "Open" : "Closed", open ? "up to " + maxInFlight : connections, load, warmup.toSeconds(),
+                duration.toSeconds(), directory);
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        List<Thread> workers = new ArrayList<>();
+        if (open) {
+            workers.add(new Thread(() -> openLoop(start, end), "load-scheduler"));
+        } else {
+            for (int worker = 0; worker < connections; worker++) {
+                int index = worker;
+                workers.add(new Thread(() -> closedLoop(index, start, end), "load-worker-" + worker));
+            }
+        }
+        workers.forEach(Thread::start);
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("latency.hlog")))) {
+            HistogramLogWriter intervalLog = new HistogramLogWriter(out);
+            sleepUntil(measureFrom);
+            recorders.sample(null);
+            long measuring = System.currentTimeMillis();
+            intervalLog.outputLogFormatVersion();
+            intervalLog.outputComment("card-management load test, latencies in ms");
+            intervalLog.outputStartTime(measuring);
+            intervalLog.setBaseTime(measuring);
+            intervalLog.outputLegend();
+
+            for (long next = measureFrom + interval.toNanos(); next < end; next += interval.toNanos()) {
+                sleepUntil(next);
+                recorders.sample(intervalLog);
+                log.info("{} s: {} requests", TimeUnit.NANOSECONDS.toSeconds(next - measureFrom),
+                        recorders.getTotalCount());
+            }
+            sleepUntil(end);
+            running = false;
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            recorders.sample(intervalLog);
+        }
+
+        recorders.writeReports(directory);
+        recorders.printSummary(System.out, duration.toNanos() / 1e9);
+    }
+
+    /**
+     * One connection's worth of requests: the next is sent when the previous was answered, or when due by
+     * this worker's share of the rate if that is later. Workers start staggered over one period.
+     */
+    private void closedLoop(int worker, long start, long end) {
+        SplittableRandom random = new SplittableRandom(seed + worker);
+        long period = rate > 0 ? (long) (1e9 * connections / rate) : 0;
+        long intended = start + period * worker / connections;
+
+        while (running) {
+            if (period > 0) {
+                sleepUntil(intended);
+            } else {
+                intended = System.nanoTime();
+            }
+            if (intended >= end) {
+                return;
+            }
+
+            Operation operation = mix.next(random);
+            HttpRequest request = mix.request(operation, random);
+            long sent = System.nanoTime();
+            int status = 0;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                logFailure(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            recorders.record(operation, intended, sent, System.nanoTime(), status);
+            intended += period;
+        }
+    }
+
+    /**
+     * Sends request {@code k} at {@code start + k / rate}. Running out of in-flight permits delays sending but
+     * not the schedule, so the wait shows up in the response time.
+     */
+    private void openLoop(long start, long end) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try {
+            for (long request = 0; running; request++) {
+                long intended = start + (long) (request * 1e9 / rate);
+                if (intended >= end) {
+                    break;
+                }
+                sleepUntil(intended);
+                inFlight.acquire();
+
+                Operation operation = mix.next(random);
+                long sent = System.nanoTime();
+                client.sendAsync(mix.request(operation, random), HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            if (error != null) {
+                                logFailure(error);
+                            }
+                            recorders.record(operation, intended, sent, System.nanoTime(),
+                                    response == null ? 0 : response.statusCode());
+                            inFlight.release();
+                        });
+            }
+            if (!inFlight.tryAcquire(maxInFlight, DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("{} requests still unanswered after {} s", maxInFlight - inFlight.availablePermits(),
+                        DRAIN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The first request that got no response is logged in full, the others only count in the summary.
+     */
+    private void logFailure(Throwable error) {
+        if (failureLogged.compareAndSet(false, true)) {
+            log.warn("Request failed, further failures are only counted", error);
+        } else {
+            log.debug("Request failed: {}", error.toString());
+        }
+    }
+
+    private static void sleepUntil(long deadline) {
+        for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
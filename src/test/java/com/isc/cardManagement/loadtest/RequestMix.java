@@ -0,0 +1,137 @@
+package com.isc.cardManagement.loadtest;
+
+import com.isc.cardManagement.enums.CardType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the requests of a load test against {@code CardController}, each operation drawn by its weight in a
+ * mix such as {@code get=80,post=5,search=15}:
+ * <ul>
+ *     <li>{@code get}: {@code GET /api/v1/cards/{nationalCode}} of a random seeded person;</li>
+ *     <li>{@code post}: {@code POST /api/v1/cards} of a new card on a spare person's account, walking every
+ *     card type and issuer of one spare person before moving to the next;</li>
+ *     <li>{@code search}: {@code POST /api/v1/cards/search}, by issuer and card type on one of the first five
+ *     pages, or by national code.</li>
+ * </ul>
+ * Instances are thread-safe; callers pass their own random generator.
+ */
+@Slf4j
+final class RequestMix {
+
+    enum Operation {
+        GET,
+        POST,
+        SEARCH
+    }
+
+    private static final CardType[] CARD_TYPES = CardType.values();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI base;
+    private final String authorization;
+    private final DatasetShape shape;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private final AtomicLong createdCards = new AtomicLong();
+    private final AtomicBoolean exhaustionLogged = new AtomicBoolean();
+
+    RequestMix(URI base, String user, String password, DatasetShape shape, String mix) {
+        this.base = base;
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes());
+        this.shape = shape;
+
+        Map<Operation, Integer> weights = parseWeights(mix);
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("request mix has no operation: " + mix);
+        }
+    }
+
+    Operation next(SplittableRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (cumulativeWeights[i] <= value) {
+            i++;
+        }
+        return operations[i];
+    }
+
+    HttpRequest request(Operation operation, SplittableRandom random) {
+        return switch (operation) {
+            case GET -> builder("/api/v1/cards/" + DatasetShape.nationalCode(random.nextInt(shape.persons())))
+                    .GET()
+                    .build();
+            case POST -> post("/api/v1/cards", newCard());
+            case SEARCH -> post("/api/v1/cards/search", search(random));
+        };
+    }
+
+    private String newCard() {
+        long card = createdCards.getAndIncrement();
+        int combinations = shape.issuers() * CARD_TYPES.length;
+        long spare = card / combinations;
+        if (spare >= shape.sparePersons() && exhaustionLogged.compareAndSet(false, true)) {
+            log.warn("All {} spare persons hold every card type of every issuer, further POSTs are rejected",
+                    shape.sparePersons());
+        }
+        int combination = (int) (card % combinations);
+        String accountNumber = DatasetShape.spareAccountNumber((int) (spare % Math.max(1, shape.sparePersons())));
+        String issuerCode = DatasetShape.issuerCode(combination / CARD_TYPES.length);
+        return "{\"cardNumber\":\"" + issuerCode + (9_000_000_000L + card) + "\","
+                + "\"expirationMonth\":\"12\",\"expirationYear\":\"1410\",\"active\":true,"
+                + "\"cardType\":\"" + CARD_TYPES[combination % CARD_TYPES.length].name().toLowerCase() + "\","
+                + "\"issuerCode\":\"" + issuerCode + "\","
+                + "\"accountNumber\":\"" + accountNumber + "\"}";
+    }
+
+    private String search(SplittableRandom random) {
+        if (random.nextInt(4) == 0) {
+            return "{\"nationalCode\":\"" + DatasetShape.nationalCode(random.nextInt(shape.persons())) + "\"}";
+        }
+        return "{\"issuerCode\":\"" + DatasetShape.issuerCode(random.nextInt(shape.issuers())) + "\","
+                + "\"cardType\":\"" + CARD_TYPES[random.nextInt(CARD_TYPES.length)].name().toLowerCase() + "\","
+                + "\"page\":" + random.nextInt(5) + ",\"size\":20}";
+    }
+
+    private HttpRequest post(String path, String json) {
+        return builder(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", authorization);
+    }
+
+    private static Map<Operation, Integer> parseWeights(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("expected operation=weight, found " + entry);
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
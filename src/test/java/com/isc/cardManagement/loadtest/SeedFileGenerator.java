@@ -0,0 +1,270 @@
+package com.isc.cardManagement.loadtest;
+
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Writes a synthetic seed file in the {@code person=/issuer=/account=/card=} format of
+ * {@code data/initial-data.txt}, sized like production rather than like the two-person sample.
+ * <p>
+ * Card counts per person follow a Zipf distribution over {@code 1..maxCardsPerPerson}: most people hold one
+ * card, a few hold many. Issuers are Zipf-distributed too, so a handful of large banks issue most cards.
+ * Every person gets one account, and one more per four cards. No two cards of a person share a card type
+ * and issuer, so the file loads without constraint violations.
+ * <p>
+ * After the seeded people come {@link DatasetShape#sparePersons()} people with one account and no card,
+ * for the {@link LoadDriver} to create cards on. Identifiers are derived from indexes through
+ * {@link DatasetShape}, so the driver can address the data set without reading the file back. Each person's
+ * cards come from a random generator seeded by the person index, so a section can be written in its own pass
+ * and the same shape and seed always produce the same file.
+ * <p>
+ * Usage: {@code SeedFileGenerator <output> [--persons N] [--spare-persons N] [--issuers N]
+ * [--max-cards N] [--card-skew S] [--issuer-skew S] [--seed N]}
+ */
+@Slf4j
+public final class SeedFileGenerator {
+
+    private static final String[] FIRST_NAMES = {"Ali", "Zahra", "Reza", "Maryam", "Hossein", "Fatemeh",
+            "Mohammad", "Sara", "Mehdi", "Narges", "Amir", "Leila"};
+    private static final String[] LAST_NAMES = {"Ahmadi", "Mohammadi", "Karimi", "Hosseini", "Rezaei",
+            "Moradi", "Jafari", "Rahimi", "Kazemi", "Sadeghi"};
+    private static final String[] CITIES = {"Tehran", "Mashhad", "Isfahan", "Shiraz", "Tabriz", "Karaj",
+            "Ahvaz", "Qom", "Rasht", "Kerman"};
+    private static final CardType[] CARD_TYPES = CardType.values();
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+
+    private static final int CARDS_PER_EXTRA_ACCOUNT = 4;
+    private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+
+    private final DatasetShape shape;
+    private final int maxCardsPerPerson;
+    private final long seed;
+    private final double[] cardCountCdf;
+    private final double[] issuerCdf;
+
+    /**
+     * @param maxCardsPerPerson largest card count of a person, at most one card per card type and issuer
+     * @param cardSkew          Zipf exponent of the card counts; 2 gives about two thirds of people one card
+     * @param issuerSkew        Zipf exponent of the issuer popularity
+     */
+    public SeedFileGenerator(DatasetShape shape, int maxCardsPerPerson, double cardSkew, double issuerSkew,
+                             long seed) {
+        int combinations = shape.issuers() * CARD_TYPES.length;
+        if (maxCardsPerPerson < 1 || maxCardsPerPerson > combinations) {
+            throw new IllegalArgumentException("max cards per person must be between 1 and " + combinations);
+        }
+        this.shape = shape;
+        this.maxCardsPerPerson = maxCardsPerPerson;
+        this.seed = seed;
+        this.cardCountCdf = zipfCdf(maxCardsPerPerson, cardSkew);
+        this.issuerCdf = zipfCdf(shape.issuers(), issuerSkew);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("usage: SeedFileGenerator <output> [--persons N] [--spare-persons N]"
+                    + " [--issuers N] [--max-cards N] [--card-skew S] [--issuer-skew S] [--seed N]");
+        }
+        of(Options.parse(args, 1)).write(Path.of(args[0]));
+    }
+
+    static SeedFileGenerator of(Options options) {
+        return new SeedFileGenerator(DatasetShape.of(options), options.getInt("max-cards", 16),
+                options.getDouble("card-skew", 2.0), options.getDouble("issuer-skew", 1.0),
+                options.getLong("seed", 42));
+    }
+
+    /**
+     * Writes the file, replacing an existing one.
+     */
+    public Totals write(Path output) throws IOException {
+        long started = System.nanoTime();
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+
+        long accounts = 0;
+        long cards = 0;
+        try (Writer writer = new BufferedWriter(
+                Files.newBufferedWriter(output, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+            writePersons(writer);
+            writeIssuers(writer);
+            accounts = writeAccounts(writer);
+            cards = writeCards(writer);
+        }
+
+        Totals totals = new Totals(shape.persons() + shape.sparePersons(), shape.issuers(), accounts, cards);
+        log.info("Generated {} in {} ms: {} persons, {} issuers, {} accounts, {} cards", output,
+                (System.nanoTime() - started) / 1_000_000, totals.persons(), totals.issuers(), totals.accounts(),
+                totals.cards());
+        return totals;
+    }
+
+    private void writePersons(Writer writer) throws IOException {
+        writer.write("# persons\n");
+        int persons = shape.persons() + shape.sparePersons();
+        for (int person = 0; person < persons; person++) {
+            writer.write("person=");
+            writer.write(FIRST_NAMES[person % FIRST_NAMES.length]);
+            writer.write(',');
+            writer.write(LAST_NAMES[person / FIRST_NAMES.length % LAST_NAMES.length]);
+            writer.write(',');
+            writer.write(DatasetShape.nationalCode(person));
+            writer.write(String.format(",0912%07d,", person % 10_000_000));
+            writer.write(CITIES[person % CITIES.length]);
+            writer.write('\n');
+        }
+    }
+
+    private void writeIssuers(Writer writer) throws IOException {
+        writer.write("\n# issuers\n");
+        for (int issuer = 0; issuer < shape.issuers(); issuer++) {
+            writer.write("issuer=");
+            writer.write(DatasetShape.issuerCode(issuer));
+            writer.write(",Bank ");
+            writer.write(String.valueOf(issuer + 1));
+            writer.write('\n');
+        }
+    }
+
+    private long writeAccounts(Writer writer) throws IOException {
+        writer.write("\n# accounts\n");
+        long account = 0;
+        for (int person = 0; person < shape.persons(); person++) {
+            int accounts = accountCount(cardCount(random(person)));
+            for (int i = 0; i < accounts; i++) {
+                writeAccount(writer, DatasetShape.accountNumber(account++), ACCOUNT_TYPES[i % ACCOUNT_TYPES.length],
+                        person);
+            }
+        }
+        for (int spare = 0; spare < shape.sparePersons(); spare++) {
+            writeAccount(writer, DatasetShape.spareAccountNumber(spare), AccountType.SAVINGS,
+                    shape.persons() + spare);
+        }
+        return account + shape.sparePersons();
+    }
+
+    private static void writeAccount(Writer writer, String accountNumber, AccountType accountType, int person)
+            throws IOException {
+        writer.write("account=");
+        writer.write(accountNumber);
+        writer.write(',');
+        writer.write(accountType.name());
+        writer.write(',');
+        writer.write(DatasetShape.nationalCode(person));
+        writer.write('\n');
+    }
+
+    private long writeCards(Writer writer) throws IOException {
+        writer.write("\n# cards\n");
+        int combinations = shape.issuers() * CARD_TYPES.length;
+        boolean[] taken = new boolean[combinations];
+        int[] held = new int[maxCardsPerPerson];
+        long account = 0;
+        long card = 0;
+
+        for (int person = 0; person < shape.persons(); person++) {
+            SplittableRandom random = random(person);
+            int cards = cardCount(random);
+            int accounts = accountCount(cards);
+
+            for (int i = 0; i < cards; i++) {
+                int combination = freeCombination(random, taken);
+                taken[combination] = true;
+                held[i] = combination;
+
+                String issuerCode = DatasetShape.issuerCode(combination / CARD_TYPES.length);
+                writer.write("card=");
+                writer.write(issuerCode);
+                writer.write(String.format("%010d", card++));
+                writer.write(',');
+                writer.write(CARD_TYPES[combination % CARD_TYPES.length].name());
+                writer.write(random.nextInt(10) == 0 ? ",false," : ",true,");
+                writer.write(String.format("%02d,%d,", random.nextInt(12) + 1, 1403 + random.nextInt(8)));
+                writer.write(issuerCode);
+                writer.write(',');
+                writer.write(DatasetShape.accountNumber(account + i % accounts));
+                writer.write('\n');
+            }
+
+            for (int i = 0; i < cards; i++) {
+                taken[held[i]] = false;
+            }
+            account += accounts;
+        }
+        return card;
+    }
+
+    /**
+     * A card type and issuer the person does not hold yet, the issuer drawn by popularity. A person holding
+     * most combinations can make the draw miss repeatedly; after a few misses the next free one is taken.
+     */
+    private int freeCombination(SplittableRandom random, boolean[] taken) {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            int combination = sample(issuerCdf, random) * CARD_TYPES.length + random.nextInt(CARD_TYPES.length);
+            if (!taken[combination]) {
+                return combination;
+            }
+        }
+        int combination = random.nextInt(taken.length);
+        while (taken[combination]) {
+            combination = (combination + 1) % taken.length;
+        }
+        return combination;
+    }
+
+    private SplittableRandom random(int person) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + person);
+    }
+
+    private int cardCount(SplittableRandom random) {
+        return sample(cardCountCdf, random) + 1;
+    }
+
+    private static int accountCount(int cards) {
+        return 1 + (cards - 1) / CARDS_PER_EXTRA_ACCOUNT;
+    }
+
+    /**
+     * Cumulative probabilities of ranks {@code 0..n-1} with weights {@code 1 / (rank + 1)^skew}.
+     */
+    private static double[] zipfCdf(int n, double skew) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, skew);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, SplittableRandom random) {
+        double value = random.nextDouble();
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cdf[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public record Totals(long persons, long issuers, long accounts, long cards) {
+    }
+}
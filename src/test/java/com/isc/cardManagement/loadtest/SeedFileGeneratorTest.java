@@ -0,0 +1,134 @@
+package com.isc.cardManagement.loadtest;
+
+import com.isc.cardManagement.repository.CardConstraintKey;
+import com.isc.cardManagement.repository.SeedFileParser;
+import com.isc.cardManagement.repository.SeedRecord;
+import com.isc.cardManagement.repository.SeedRecordHandler;
+import com.isc.cardManagement.repository.SeedRecordKind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SeedFileGenerator Tests")
+class SeedFileGeneratorTest {
+
+    private static final DatasetShape SHAPE = new DatasetShape(5_000, 100, 20);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("فایل تولید شده باید بدون خطا و بدون نقض یکتایی کارت خوانده شود")
+    void generatedFileParsesWithoutViolations() throws Exception {
+        // Given
+        Path file = tempDir.resolve("seed.txt");
+
+        // When
+        SeedFileGenerator.Totals totals = new SeedFileGenerator(SHAPE, 16, 2.0, 1.0, 7).write(file);
+        List<SeedRecord> records = parse(file);
+
+        // Then
+        Set<String> nationalCodes = new HashSet<>();
+        Set<String> issuerCodes = new HashSet<>();
+        Map<String, String> accountOwners = new HashMap<>();
+        Set<String> cardNumbers = new HashSet<>();
+        Set<Long> constraintKeys = new HashSet<>();
+        for (SeedRecord record : records) {
+            if (record instanceof SeedRecord.Person person) {
+                nationalCodes.add(person.nationalCode());
+            } else if (record instanceof SeedRecord.Issuer issuer) {
+                issuerCodes.add(issuer.issuerCode());
+            } else if (record instanceof SeedRecord.Account account) {
+                assertThat(nationalCodes).contains(account.nationalCode());
+                accountOwners.put(account.accountNumber(), account.nationalCode());
+            } else if (record instanceof SeedRecord.Card card) {
+                assertThat(issuerCodes).contains(card.issuerCode());
+                assertThat(accountOwners).containsKey(card.accountNumber());
+                assertThat(cardNumbers.add(card.cardNumber())).isTrue();
+                assertThat(constraintKeys.add(CardConstraintKey.of(accountOwners.get(card.accountNumber()),
+                        card.cardType(), card.issuerCode()))).isTrue();
+            }
+        }
+        assertThat(nationalCodes).hasSize(5_100);
+        assertThat(issuerCodes).hasSize(20);
+        assertThat(accountOwners).hasSize((int) totals.accounts());
+        assertThat(cardNumbers).hasSize((int) totals.cards());
+        assertThat(accountOwners).containsKey(DatasetShape.spareAccountNumber(99));
+    }
+
+    @Test
+    @DisplayName("تعداد کارت هر شخص و سهم صادرکنندگان باید نامتوازن باشد")
+    void cardCountsAndIssuersAreSkewed() throws Exception {
+        // Given
+        Path file = tempDir.resolve("seed.txt");
+
+        // When
+        new SeedFileGenerator(SHAPE, 16, 2.0, 1.0, 7).write(file);
+        List<SeedRecord> records = parse(file);
+
+        // Then
+        Map<String, String> accountOwners = new HashMap<>();
+        Map<String, Integer> cardsPerPerson = new HashMap<>();
+        Map<String, Integer> cardsPerIssuer = new HashMap<>();
+        for (SeedRecord record : records) {
+            if (record instanceof SeedRecord.Account account) {
+                accountOwners.put(account.accountNumber(), account.nationalCode());
+            } else if (record instanceof SeedRecord.Card card) {
+                cardsPerPerson.merge(accountOwners.get(card.accountNumber()), 1, Integer::sum);
+                cardsPerIssuer.merge(card.issuerCode(), 1, Integer::sum);
+            }
+        }
+        long singleCardPersons = cardsPerPerson.values().stream().filter(cards -> cards == 1).count();
+        assertThat(cardsPerPerson).hasSize(5_000);
+        assertThat(singleCardPersons).isGreaterThan(5_000 / 2);
+        assertThat(cardsPerPerson.values().stream().mapToInt(Integer::intValue).max().orElseThrow())
+                .isGreaterThan(8);
+        assertThat(cardsPerIssuer.get(DatasetShape.issuerCode(0)))
+                .isGreaterThan(5 * cardsPerIssuer.get(DatasetShape.issuerCode(19)));
+    }
+
+    @Test
+    @DisplayName("با شکل و seed یکسان باید همان فایل تولید شود")
+    void sameSeedWritesSameFile() throws Exception {
+        // Given
+        Path first = tempDir.resolve("first.txt");
+        Path second = tempDir.resolve("second.txt");
+
+        // When
+        new SeedFileGenerator(SHAPE, 16, 2.0, 1.0, 7).write(first);
+        new SeedFileGenerator(SHAPE, 16, 2.0, 1.0, 7).write(second);
+
+        // Then
+        assertThat(Files.mismatch(first, second)).isEqualTo(-1);
+    }
+
+    private static List<SeedRecord> parse(Path file) throws Exception {
+        List<SeedRecord> records = new ArrayList<>();
+        List<String> malformed = new ArrayList<>();
+        new SeedFileParser().parse(file, EnumSet.allOf(SeedRecordKind.class), new SeedRecordHandler() {
+            @Override
+            public void onRecord(SeedRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void onMalformed(SeedRecordKind kind, long offset, String reason) {
+                malformed.add(kind + "@" + offset + ": " + reason);
+            }
+        });
+        assertThat(malformed).isEmpty();
+        return records;
+    }
+}
@@ -0,0 +1,117 @@
+package com.isc.cardManagement.monitoringTest;
+
+import com.isc.cardManagement.dto.CardDto;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.monitoring.events.CardLookupEvent;
+import com.isc.cardManagement.monitoring.events.RepositoryCallEvent;
+import com.isc.cardManagement.monitoring.events.ServicePhaseEvent;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.service.CardService;
+import jdk.jfr.Configuration;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-seed.txt",
+        "app.warmup.async=false"
+})
+@DisplayName("رویدادهای JFR برنامه")
+class ApplicationEventsTest {
+
+    @Autowired
+    private InMemoryRepository inMemoryRepository;
+
+    @Autowired
+    private CardService cardService;
+
+    @Test
+    @DisplayName("رویدادهای جزئی بدون فایل تنظیمات خاموش هستند")
+    void detailedEventsAreOffByDefault() {
+        assertThat(new CardLookupEvent().isEnabled()).isFalse();
+        assertThat(new RepositoryCallEvent().isEnabled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("با فایل تنظیمات، خواندن کش و مراحل ثبت کارت و فراخوانی ریپازیتوری ثبت می شوند")
+    void settingsFileRecordsLookupsPhasesAndRepositoryCalls() throws Exception {
+        // Given
+        List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+        try (RecordingStream stream = new RecordingStream(settingsFile())) {
+            stream.onEvent(events::add);
+            stream.startAsync();
+
+            // When
+            inMemoryRepository.getCardsByNationalCode("0063531425");
+            inMemoryRepository.getCardsByNationalCode("0000000000");
+            cardService.createCard(CardDto.builder()
+                    .cardNumber("6543210987654321")
+                    .expirationMonth("05")
+                    .expirationYear("1409")
+                    .active(true)
+                    .cardType(CardType.CREDIT)
+                    .issuerCode("654321")
+                    .accountNumber("1111111111")
+                    .build());
+
+            // Then
+            awaitEvent(events, event -> isPhase(event, "map"));
+            assertThat(events).anySatisfy(event -> {
+                assertThat(event.getEventType().getName()).isEqualTo(CardLookupEvent.NAME);
+                assertThat(event.getString("result")).isEqualTo(CardLookupEvent.HIT);
+                assertThat(event.getInt("nationalCodeHash")).isEqualTo("0063531425".hashCode());
+            });
+            assertThat(events).anySatisfy(event -> {
+                assertThat(event.getEventType().getName()).isEqualTo(CardLookupEvent.NAME);
+                assertThat(event.getString("result")).isEqualTo(CardLookupEvent.NEGATIVE_HIT);
+            });
+            assertThat(events.stream()
+                    .filter(event -> event.getEventType().getName().equals(ServicePhaseEvent.NAME))
+                    .map(event -> event.getString("phase")))
+                    .containsExactly("resolve account", "check card number", "resolve issuer", "save", "map");
+            assertThat(events).anySatisfy(event -> {
+                assertThat(event.getEventType().getName()).isEqualTo(RepositoryCallEvent.NAME);
+                assertThat(event.getString("repository")).isEqualTo("CardRepository");
+                assertThat(event.getString("method")).isEqualTo("saveAndFlush");
+                assertThat(event.getBoolean("succeeded")).isTrue();
+            });
+        }
+    }
+
+    private static Configuration settingsFile() throws Exception {
+        try (Reader reader = new InputStreamReader(Objects.requireNonNull(
+                ApplicationEventsTest.class.getResourceAsStream("/jfr/card-management.jfc")),
+                StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    private static boolean isPhase(RecordedEvent event, String phase) {
+        return event.getEventType().getName().equals(ServicePhaseEvent.NAME) && phase.equals(event.getString("phase"));
+    }
+
+    private static void awaitEvent(List<RecordedEvent> events, Predicate<RecordedEvent> expected)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (events.stream().noneMatch(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.isc.cardManagement.monitoringTest;
+
+import com.isc.cardManagement.dto.CardDto;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.exception.NotFoundException;
+import com.isc.cardManagement.monitoring.RuntimeTelemetry;
+import com.isc.cardManagement.monitoring.events.CardCreationEvent;
+import com.isc.cardManagement.service.CardService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@DirtiesContext
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-seed.txt",
+        "app.warmup.async=false",
+        "app.telemetry.interval=1s"
+})
+@DisplayName("تله‌متری زمان اجرا با JFR")
+class RuntimeTelemetryTest {
+
+    @Autowired
+    private RuntimeTelemetry runtimeTelemetry;
+
+    @Autowired
+    private CardService cardService;
+
+    @Test
+    @DisplayName("گزارش دوره ای باید کارت ثبت شده و تعداد ورودی های کش را بدون کوئری نشان دهد")
+    void summaryCountsCreatedCardsAndCacheEntries() throws Exception {
+        // Given
+        CardDto card = card("1111111111");
+
+        // When
+        cardService.createCard(card);
+
+        // Then
+        RuntimeTelemetry.Summary summary = awaitSummaryWithCreatedCard();
+        assertThat(summary.cardsCreated()).isGreaterThanOrEqualTo(1);
+        assertThat(summary.cachedEntries()).containsKeys("persons", "issuers", "accounts", "cards");
+        assertThat(summary.cachedEntries().get("cards")).isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("ثبت ناموفق کارت باید رویداد JFR با نوع خطا ثبت کند")
+    void rejectedCreationIsRecorded() throws Exception {
+        // Given
+        BlockingQueue<RecordedEvent> events = new LinkedBlockingQueue<>();
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable(CardCreationEvent.NAME);
+            stream.onEvent(CardCreationEvent.NAME, events::add);
+            stream.startAsync();
+
+            // When
+            assertThatThrownBy(() -> cardService.createCard(card("0000000000")))
+                    .isInstanceOf(NotFoundException.class);
+
+            // Then
+            RecordedEvent event = events.poll(10, TimeUnit.SECONDS);
+            assertThat(event).isNotNull();
+            assertThat(event.getString("issuerCode")).isEqualTo("654321");
+            assertThat(event.getString("cardType")).isEqualTo("CREDIT");
+            assertThat(event.getBoolean("succeeded")).isFalse();
+            assertThat(event.getString("failure")).isEqualTo("NotFoundException");
+        }
+    }
+
+    private RuntimeTelemetry.Summary awaitSummaryWithCreatedCard() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        RuntimeTelemetry.Summary summary = runtimeTelemetry.getLastSummary();
+        while ((summary == null || summary.cardsCreated() == 0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            summary = runtimeTelemetry.getLastSummary();
+        }
+        assertThat(summary).isNotNull();
+        return summary;
+    }
+
+    private static CardDto card(String accountNumber) {
+        return CardDto.builder()
+                .cardNumber("6543210987654321")
+                .expirationMonth("05")
+                .expirationYear("1409")
+                .active(true)
+                .cardType(CardType.CREDIT)
+                .issuerCode("654321")
+                .accountNumber(accountNumber)
+                .build();
+    }
+}
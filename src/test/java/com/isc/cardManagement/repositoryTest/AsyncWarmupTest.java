@@ -0,0 +1,128 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.entity.PersonEntity;
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.CacheSnapshotStore;
+import com.isc.cardManagement.repository.CardView;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.repository.InitialDataLoader;
+import com.isc.cardManagement.repository.LoadStatistics;
+import com.isc.cardManagement.repository.WarmupState;
+import com.isc.cardManagement.repository.jpa.CardSearchFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs with the shipped default, {@code app.warmup.async=true}. The loader is held on a latch, so the
+ * test observes the application while the cache is still warming.
+ */
+@DataJpaTest
+@Import({InMemoryRepository.class, CacheSnapshotStore.class, ApplicationAvailabilityBean.class,
+        AsyncWarmupTest.BlockingLoaderConfig.class})
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-empty-seed.txt",
+        "app.warmup.async=true"
+})
+@DisplayName("Async warm-up Tests")
+public class AsyncWarmupTest {
+
+    private static final CountDownLatch RELEASE_LOADER = new CountDownLatch(1);
+
+    @TestConfiguration
+    static class BlockingLoaderConfig {
+
+        @Bean
+        InitialDataLoader initialDataLoader() {
+            return new InitialDataLoader(null, null, null, null, null, null) {
+                @Override
+                public LoadStatistics load(Resource resource, InMemoryRepository cache) throws InterruptedException {
+                    RELEASE_LOADER.await();
+                    return new LoadStatistics();
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InMemoryRepository inMemoryRepository;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Test
+    @DisplayName("در حین گرم شدن Cache، خواندن ها از دیتابیس انجام و وضعیت آمادگی منتشر می شود")
+    void servesFromDatabaseWhileWarming() throws InterruptedException {
+        // Given - بارگذاری هنوز تمام نشده است
+        assertThat(inMemoryRepository.getWarmupState()).isEqualTo(WarmupState.WARMING);
+        assertThat(applicationAvailability.getState(WarmupState.class)).isEqualTo(WarmupState.WARMING);
+
+        PersonEntity person = entityManager.persist(PersonEntity.builder()
+                .nationalCode("0012345678")
+                .firstName("سارا")
+                .lastName("کریمی")
+                .phone("09121112233")
+                .address("تهران")
+                .build());
+        IssuerEntity issuer = entityManager.persist(IssuerEntity.builder()
+                .issuerCode("627353")
+                .name("بانک تجارت")
+                .build());
+        AccountEntity account = entityManager.persist(AccountEntity.builder()
+                .accountNumber("1000000001")
+                .accountType(AccountType.SAVINGS)
+                .owner(person)
+                .build());
+        entityManager.persistAndFlush(CardEntity.builder()
+                .cardNumber("6273531234567890")
+                .cardType(CardType.DEBIT)
+                .active(true)
+                .expirationMonth("05")
+                .expirationYear("1406")
+                .account(account)
+                .issuer(issuer)
+                .build());
+        entityManager.clear();
+
+        // When
+        List<CardView> cards = inMemoryRepository.getCardsByNationalCode("0012345678");
+
+        // Then - از دیتابیس خوانده شده و Cache در اختیار بارگذار باقی مانده است
+        assertThat(cards).extracting(CardView::cardNumber).containsExactly("6273531234567890");
+        assertThat(inMemoryRepository.getAll()).doesNotContainKey("0012345678");
+        assertThat(inMemoryRepository.searchCards(
+                new CardSearchFilter(null, null, null, null, null, null), PageRequest.of(0, 10))).isEmpty();
+
+        // When - بارگذاری تمام می شود
+        RELEASE_LOADER.countDown();
+        for (int i = 0; i < 100 && !inMemoryRepository.isWarm(); i++) {
+            Thread.sleep(50);
+        }
+
+        // Then
+        assertThat(inMemoryRepository.getWarmupState()).isEqualTo(WarmupState.READY);
+        assertThat(applicationAvailability.getState(WarmupState.class)).isEqualTo(WarmupState.READY);
+    }
+}
@@ -0,0 +1,153 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.exception.BusinessException;
+import com.isc.cardManagement.repository.CacheSnapshotStore;
+import com.isc.cardManagement.repository.CacheTier;
+import com.isc.cardManagement.repository.CardView;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.repository.InitialDataLoader;
+import com.isc.cardManagement.repository.jpa.AccountRepository;
+import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.CardSearchFilter;
+import com.isc.cardManagement.repository.jpa.PersonRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Every tier except issuers holds a single entry, far less than the seed file; the cache must still load,
+ * answer every lookup correctly from the database and stay within its bounds.
+ */
+@DataJpaTest
+@Import({InMemoryRepository.class, InitialDataLoader.class, CacheSnapshotStore.class})
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-seed.txt",
+        "app.warmup.async=false",
+        "app.cache.persons.max-size=1",
+        "app.cache.accounts.max-size=1",
+        "app.cache.cards.max-size=1",
+        "app.cache.national-codes.max-size=1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("Bounded cache Tests")
+public class BoundedCacheTest {
+
+    @Autowired
+    private InMemoryRepository inMemoryRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Test
+    @DisplayName("بارگذاری با Cache کوچک کامل انجام می شود و Cache از ظرفیت خود فراتر نمی رود")
+    void loadsEverythingWithinBounds() {
+        // Then - والدهای حذف شده از Cache از دیتابیس خوانده شده اند
+        assertThat(personRepository.count()).isEqualTo(3);
+        assertThat(accountRepository.count()).isEqualTo(3);
+        assertThat(cardRepository.count()).isEqualTo(3);
+
+        assertThat(inMemoryRepository.getCacheTiers())
+                .filteredOn(CacheTier::isBounded)
+                .hasSize(5)
+                .allSatisfy(tier -> assertThat(tier.size()).as(tier.getName()).isLessThanOrEqualTo(1));
+        assertThat(tier("cards").stats().evictionCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("کارت های حذف شده از Cache از دیتابیس خوانده می شوند")
+    void evictedEntriesAreReadThrough() {
+        for (CardEntity stored : cardRepository.findAll()) {
+            String nationalCode = stored.getAccount().getOwner().getNationalCode();
+
+            List<CardView> cards = inMemoryRepository.getCardsByNationalCode(nationalCode);
+
+            assertThat(cards).extracting(CardView::cardNumber).contains(stored.getCardNumber());
+            assertThat(inMemoryRepository.isCardNumberTaken(stored.getCardNumber())).isTrue();
+        }
+        assertThat(inMemoryRepository.isCardNumberTaken("0000000000000000")).isFalse();
+
+        // When - همان کد ملی دوباره خوانده می شود
+        long hits = tier("nationalCodes").stats().hitCount();
+        inMemoryRepository.getCardsByNationalCode("0099887766");
+        inMemoryRepository.getCardsByNationalCode("0099887766");
+
+        // Then
+        assertThat(tier("nationalCodes").stats().hitCount()).isGreaterThan(hits);
+    }
+
+    @Test
+    @DisplayName("با Cache محدود، جستجو به دیتابیس واگذار و Snapshot نوشته نمی شود")
+    void boundedCacheDisablesIndexAndSnapshot() {
+        assertThat(inMemoryRepository.checkSearchCompleteness()).isFalse();
+        assertThat(inMemoryRepository.searchCards(
+                new CardSearchFilter(null, null, null, null, null, null), PageRequest.of(0, 10))).isEmpty();
+        assertThatThrownBy(() -> inMemoryRepository.writeSnapshot()).isInstanceOf(BusinessException.class);
+    }
+
+    /**
+     * Only the person lists are bounded: every card stays cached and indexed, so the index is complete while
+     * most people's lists have been evicted.
+     */
+    @Nested
+    @TestPropertySource(properties = {
+            "app.cache.persons.max-size=0",
+            "app.cache.accounts.max-size=0",
+            "app.cache.cards.max-size=0",
+            "app.cache.national-codes.max-size=1"
+    })
+    @DisplayName("Bounded national codes only")
+    class NationalCodesOnly {
+
+        // the enclosing instance is wired from the fully bounded context
+        @Autowired
+        private InMemoryRepository inMemoryRepository;
+
+        @Autowired
+        private CardRepository cardRepository;
+
+        @Test
+        @DisplayName("لیست کارت حذف شده از Cache با وجود ایندکس کامل از دیتابیس خوانده می شود")
+        void evictedListIsReadThroughWhileIndexIsComplete() {
+            // Given
+            assertThat(inMemoryRepository.checkSearchCompleteness()).isTrue();
+
+            for (CardEntity stored : cardRepository.findAll()) {
+                String nationalCode = stored.getAccount().getOwner().getNationalCode();
+
+                // When - لیست های دیگر افراد، لیست این فرد را از Cache بیرون کرده اند
+                List<CardView> cards = inMemoryRepository.getCardsByNationalCode(nationalCode);
+
+                // Then
+                assertThat(cards).as(nationalCode)
+                        .extracting(CardView::cardNumber).contains(stored.getCardNumber());
+            }
+            assertThat(inMemoryRepository.getCacheTiers())
+                    .filteredOn(tier -> tier.getName().equals("nationalCodes"))
+                    .allSatisfy(tier -> assertThat(tier.stats().evictionCount()).isPositive());
+        }
+    }
+
+    private CacheTier<?, ?> tier(String name) {
+        return inMemoryRepository.getCacheTiers().stream()
+                .filter(tier -> tier.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
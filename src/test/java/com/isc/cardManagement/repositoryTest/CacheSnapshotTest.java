@@ -0,0 +1,180 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.PersonEntity;
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.CacheSnapshotStore;
+import com.isc.cardManagement.repository.CardView;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.repository.InitialDataLoader;
+import com.isc.cardManagement.repository.jpa.AccountRepository;
+import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.IssuerRepository;
+import com.isc.cardManagement.repository.jpa.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({InMemoryRepository.class, InitialDataLoader.class, CacheSnapshotStore.class})
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-seed.txt",
+        "app.warmup.async=false",
+        "app.snapshot.enabled=true",
+        "app.snapshot.path=target/test-snapshots/cache-snapshot.bin",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("Cache Snapshot Tests")
+public class CacheSnapshotTest {
+
+    @Autowired
+    private InMemoryRepository inMemoryRepository;
+
+    @Autowired
+    private CacheSnapshotStore snapshotStore;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private IssuerRepository issuerRepository;
+
+    @BeforeEach
+    void setUp() {
+        // هر تست Cache را پاک می کند، پس از روی فایل اولیه دوباره پر می شود
+        inMemoryRepository.clearAll();
+        inMemoryRepository.loadDataFromFile();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(snapshotStore.getPath());
+    }
+
+    @Test
+    @DisplayName("Cache باید از Snapshot به طور کامل بازیابی شود")
+    void shouldRestoreCacheFromSnapshot() throws Exception {
+        // Given
+        Map<String, Integer> before = inMemoryRepository.getStatistics();
+        inMemoryRepository.writeSnapshot();
+        inMemoryRepository.clearAll();
+
+        // When
+        boolean restored = inMemoryRepository.restoreSnapshot();
+
+        // Then
+        assertThat(restored).isTrue();
+        assertThat(inMemoryRepository.getStatistics()).isEqualTo(before);
+
+        List<CardView> cards = inMemoryRepository.getCardsByNationalCode("0063531425");
+        assertThat(cards).singleElement().satisfies(card -> {
+            assertThat(card.cardNumber()).isEqualTo("1234567812345678");
+            assertThat(card.issuer().issuerCode()).isEqualTo("123456");
+            assertThat(card.nationalCode()).isEqualTo("0063531425");
+            assertThat(card.id()).isPositive();
+        });
+    }
+
+    @Test
+    @DisplayName("اگر دیتابیس تغییر کرده باشد Snapshot نباید استفاده شود")
+    void shouldIgnoreStaleSnapshot() throws Exception {
+        // Given
+        inMemoryRepository.writeSnapshot();
+        CardEntity card = cardRepository.findByCardNumber("1111222233334444").orElseThrow();
+        cardRepository.delete(card);
+        cardRepository.flush();
+        inMemoryRepository.clearAll();
+
+        // When & Then
+        assertThat(inMemoryRepository.restoreSnapshot()).isFalse();
+        assertThat(inMemoryRepository.getStatistics().get("cards")).isZero();
+    }
+
+    @Test
+    @DisplayName("تغییر محتوای دیتابیس بدون تغییر تعداد ردیف ها هم Snapshot را بی اعتبار می کند")
+    void shouldIgnoreSnapshotAfterUpdateWithSameCounts() throws Exception {
+        // Given
+        inMemoryRepository.writeSnapshot();
+        CardEntity card = cardRepository.findByCardNumber("1111222233334444").orElseThrow();
+        card.setActive(!card.isActive());
+        cardRepository.saveAndFlush(card);
+        inMemoryRepository.clearAll();
+
+        // When & Then
+        assertThat(inMemoryRepository.restoreSnapshot()).isFalse();
+    }
+
+    @Test
+    @DisplayName("کارتی که در Cache miss از دیتابیس خوانده شده باید همراه حسابش در Snapshot ذخیره شود")
+    void shouldRestoreCardsSyncedOnCacheMiss() throws Exception {
+        // Given - کارتی که مستقیم در دیتابیس درج شده و فقط از مسیر miss وارد Cache می شود
+        PersonEntity person = personRepository.save(PersonEntity.builder()
+                .nationalCode("0071234567")
+                .firstName("نگار")
+                .lastName("صادقی")
+                .phone("09130000000")
+                .address("اصفهان")
+                .build());
+        AccountEntity account = accountRepository.save(AccountEntity.builder()
+                .accountNumber("7777777777")
+                .accountType(AccountType.SAVINGS)
+                .owner(person)
+                .build());
+        cardRepository.saveAndFlush(CardEntity.builder()
+                .cardNumber("6037990011223344")
+                .cardType(CardType.CREDIT)
+                .active(true)
+                .expirationMonth("10")
+                .expirationYear("1407")
+                .account(account)
+                .issuer(issuerRepository.findByIssuerCode("123456").orElseThrow())
+                .build());
+        assertThat(inMemoryRepository.getCardsByNationalCode("0071234567")).hasSize(1);
+
+        inMemoryRepository.writeSnapshot();
+        inMemoryRepository.clearAll();
+
+        // When
+        boolean restored = inMemoryRepository.restoreSnapshot();
+
+        // Then
+        assertThat(restored).isTrue();
+        assertThat(inMemoryRepository.findAccount("7777777777")).isPresent();
+        assertThat(inMemoryRepository.getAll().get("0071234567")).containsKey("6037990011223344");
+    }
+
+    @Test
+    @DisplayName("Snapshot خراب نباید استفاده شود")
+    void shouldIgnoreCorruptSnapshot() throws Exception {
+        // Given
+        inMemoryRepository.writeSnapshot();
+        Path path = snapshotStore.getPath();
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(path, bytes);
+        inMemoryRepository.clearAll();
+
+        // When & Then
+        assertThat(inMemoryRepository.restoreSnapshot()).isFalse();
+    }
+}
@@ -0,0 +1,45 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.exception.BadRequestException;
+import com.isc.cardManagement.repository.CardConstraintKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CardConstraintKey Tests")
+class CardConstraintKeyTest {
+
+    @Test
+    @DisplayName("کلید باید برای هر ترکیب کد ملی، نوع کارت و صادرکننده یکتا باشد")
+    void shouldDistinguishEachComponent() {
+        long key = CardConstraintKey.of("1234567890", CardType.DEBIT, "603799");
+
+        assertThat(CardConstraintKey.of("1234567890", CardType.DEBIT, "603799")).isEqualTo(key);
+        assertThat(CardConstraintKey.of("1234567891", CardType.DEBIT, "603799")).isNotEqualTo(key);
+        assertThat(CardConstraintKey.of("1234567890", CardType.CREDIT, "603799")).isNotEqualTo(key);
+        assertThat(CardConstraintKey.of("1234567890", CardType.DEBIT, "603798")).isNotEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("بزرگ ترین مقادیر نباید با هم تداخل داشته باشند")
+    void shouldRoundTripExtremeValues() {
+        assertThat(CardConstraintKey.toString(CardConstraintKey.of("9999999999", CardType.CREDIT, "999999")))
+                .isEqualTo("9999999999_CREDIT_999999");
+        assertThat(CardConstraintKey.toString(CardConstraintKey.of("0000000001", CardType.DEBIT, "000000")))
+                .isEqualTo("0000000001_DEBIT_000000");
+    }
+
+    @Test
+    @DisplayName("کد ملی یا کد صادرکننده نامعتبر باید خطا بدهد")
+    void shouldRejectInvalidCodes() {
+        assertThatThrownBy(() -> CardConstraintKey.of("12345", CardType.DEBIT, "603799"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CardConstraintKey.of("12345678a0", CardType.DEBIT, "603799"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CardConstraintKey.of("1234567890", CardType.DEBIT, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,144 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.CardSearchFilter;
+import com.isc.cardManagement.repository.jpa.CardSearchRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every query shape of {@link CardRepository} against a seeded dataset and EXPLAINs each statement it
+ * issued, with the values it was bound to. A statement that filters rows must not be planned as a table
+ * scan; only statements without a WHERE clause may read the whole table.
+ * <p>
+ * The regular build seeds 100k cards. The 1M-card check is opt-in, as its seed needs a larger heap:
+ * {@code mvn test -Dtest=CardRepositoryExplainTest -Dexplain.cards=1000000 -DargLine=-Xmx4g}.
+ */
+@DataJpaTest
+@Import(SqlCapture.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("CardRepository EXPLAIN Tests")
+public class CardRepositoryExplainTest {
+
+    private static final int CARDS = Integer.getInteger("explain.cards", 100_000);
+    private static final int ISSUERS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    /**
+     * Two accounts per person, one card of each type per account, each account's cards from one issuer.
+     */
+    @BeforeAll
+    void seed() {
+        int accounts = CARDS / 2;
+        int persons = accounts / 2;
+
+        // the generated rows are consistent by construction; per-row foreign key lookups would dominate the seed
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+
+        jdbcTemplate.update("""
+                INSERT INTO tbl_issuer (issuer_id, issuer_code, issuer_name)
+                SELECT X, 600000 + X, 'Issuer ' || X FROM SYSTEM_RANGE(1, ?)""", ISSUERS);
+        jdbcTemplate.update("""
+                INSERT INTO tbl_person (person_id, national_code, first_name, last_name, phone, address)
+                SELECT X, LPAD(X, 10, '0'), 'First', 'Last', '09120000000', 'Tehran' FROM SYSTEM_RANGE(1, ?)""",
+                persons);
+        jdbcTemplate.update("""
+                INSERT INTO tbl_account (account_id, account_number, account_type, person_id)
+                SELECT X, '1' || LPAD(X, 9, '0'), 'SAVINGS', (X + 1) / 2 FROM SYSTEM_RANGE(1, ?)""", accounts);
+        jdbcTemplate.update("""
+                INSERT INTO tbl_card (card_id, card_number, card_type, active, expiration_month, expiration_year,
+                                      issuer_id, account_id)
+                SELECT X, '6037' || LPAD(X, 12, '0'), CASEWHEN(MOD(X, 2) = 0, 'CREDIT', 'DEBIT'), MOD(X, 7) <> 0,
+                       LPAD(MOD(X, 12) + 1, 2, '0'), 1403 + MOD(X, 5), MOD((X + 1) / 2, ?) + 1, (X + 1) / 2
+                FROM SYSTEM_RANGE(1, ?)""", ISSUERS, CARDS);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("هیچ کوئری فیلتردار CardRepository به table scan نمی رسد")
+    void repositoryQueries_UseIndexes() {
+        AccountEntity account = AccountEntity.builder().id(1234L).build();
+        Map<String, Runnable> shapes = new LinkedHashMap<>();
+
+        shapes.put("findByCardNumber", () -> cardRepository.findByCardNumber("6037000000012345"));
+        shapes.put("existsByCardNumber", () -> cardRepository.existsByCardNumber("6037000000012345"));
+        shapes.put("findAllByCardNumberIn", () -> cardRepository.findAllByCardNumberIn(
+                List.of("6037000000012345", "6037000000012346")));
+        shapes.put("findAllByAccount", () -> cardRepository.findAllByAccount(account));
+        shapes.put("findByAccount_Owner_NationalCode", () -> cardRepository.findByAccount_Owner_NationalCode("0000001234"));
+        shapes.put("findByOwnerAndTypeAndIssuer", () -> cardRepository.findByOwnerAndTypeAndIssuer(
+                "0000001234", CardType.DEBIT, "600001"));
+        shapes.put("countByOwnerAndTypeAndIssuer", () -> cardRepository.countByOwnerAndTypeAndIssuer(
+                "0000001234", CardType.DEBIT, "600001"));
+        shapes.put("findByAccountAndTypeAndIssuer", () -> cardRepository.findByAccountAndTypeAndIssuer(
+                1234L, CardType.DEBIT, "600001"));
+
+        // every combination of the six search filters; page 0 of an unfiltered search reads no count
+        for (int mask = 0; mask < 64; mask++) {
+            CardSearchFilter filter = filter(mask);
+            shapes.put("searchCards " + filter, () -> cardRepository.searchCards(filter.nationalCode(),
+                    filter.cardNumber(), filter.issuerCode(), filter.cardType(), filter.active(),
+                    filter.accountNumber(), PageRequest.of(1, 20, Sort.by("id"))));
+        }
+        for (String sortBy : CardSearchRepository.KEYSET_SORT_KEYS) {
+            CardSearchFilter byIssuer = new CardSearchFilter(null, null, "600003", null, null, null);
+            shapes.put("seekCards " + sortBy, () -> cardRepository.seekCards(byIssuer, sortBy, false,
+                    "id".equals(sortBy) ? null : "0", 100L, 21));
+        }
+
+        List<String> scans = new ArrayList<>();
+        for (Map.Entry<String, Runnable> shape : shapes.entrySet()) {
+            SqlCapture.drain();
+            shape.getValue().run();
+            for (SqlCapture.Statement statement : SqlCapture.drain()) {
+                String plan = explain(statement);
+                if (plan.contains("tableScan") && statement.sql().toLowerCase().contains(" where ")) {
+                    scans.add(shape.getKey() + "\n" + plan);
+                }
+            }
+        }
+
+        assertThat(scans).as("table scans on %d cards", CARDS).isEmpty();
+    }
+
+    private String explain(SqlCapture.Statement statement) {
+        return jdbcTemplate.query("EXPLAIN " + statement.sql(), prepared -> {
+            for (int i = 0; i < statement.parameters().size(); i++) {
+                prepared.setObject(i + 1, statement.parameters().get(i));
+            }
+        }, resultSet -> resultSet.next() ? resultSet.getString(1) : "");
+    }
+
+    private static CardSearchFilter filter(int mask) {
+        return new CardSearchFilter(
+                (mask & 1) != 0 ? "0000001234" : null,
+                (mask & 2) != 0 ? "6037000000012345" : null,
+                (mask & 4) != 0 ? "600003" : null,
+                (mask & 8) != 0 ? CardType.CREDIT : null,
+                (mask & 16) != 0 ? Boolean.FALSE : null,
+                (mask & 32) != 0 ? "1000001234" : null);
+    }
+}
@@ -0,0 +1,252 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.entity.PersonEntity;
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.CacheSnapshotStore;
+import com.isc.cardManagement.repository.CardSearchIndex;
+import com.isc.cardManagement.repository.CardView;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.repository.InitialDataLoader;
+import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.CardSearchFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Differential test: every search served from the in-memory index must return exactly what the
+ * JPQL search returns for the same filters, sort and page.
+ */
+@DataJpaTest
+@Import({InMemoryRepository.class, InitialDataLoader.class, CacheSnapshotStore.class})
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-empty-seed.txt",
+        "app.warmup.async=false"
+})
+@DisplayName("CardSearchIndex differential Tests")
+public class CardSearchIndexTest {
+
+    private static final String[] ISSUER_CODES = {"627353", "603799", "610433"};
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InMemoryRepository inMemoryRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    private final List<String> nationalCodes = new ArrayList<>();
+    private final List<String> accountNumbers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        inMemoryRepository.clearAll();
+        // the database is empty again, so the emptied index is complete; saveCard keeps it that way
+        assertThat(inMemoryRepository.checkSearchCompleteness()).isTrue();
+        Random random = new Random(42);
+
+        List<IssuerEntity> issuers = new ArrayList<>();
+        for (String issuerCode : ISSUER_CODES) {
+            issuers.add(entityManager.persistAndFlush(IssuerEntity.builder()
+                    .issuerCode(issuerCode)
+                    .name("بانک " + issuerCode)
+                    .build()));
+        }
+
+        int cardSequence = 0;
+        for (int p = 0; p < 15; p++) {
+            PersonEntity person = entityManager.persistAndFlush(PersonEntity.builder()
+                    .nationalCode(String.format("00000000%02d", p))
+                    .firstName("نام" + p)
+                    .lastName("خانوادگی" + p)
+                    .phone("0912000000" + p % 10)
+                    .address("تهران")
+                    .build());
+            nationalCodes.add(person.getNationalCode());
+
+            List<AccountEntity> accounts = new ArrayList<>();
+            for (int a = 0; a < 1 + p % 2; a++) {
+                AccountEntity account = entityManager.persistAndFlush(AccountEntity.builder()
+                        .accountNumber(String.format("10000%03d%02d", p, a))
+                        .accountType(AccountType.SAVINGS)
+                        .owner(person)
+                        .build());
+                accounts.add(account);
+                accountNumbers.add(account.getAccountNumber());
+            }
+
+            // at most one card per person, card type and issuer
+            for (IssuerEntity issuer : issuers) {
+                for (CardType cardType : CardType.values()) {
+                    if (random.nextInt(3) == 0) {
+                        continue;
+                    }
+                    inMemoryRepository.saveCard(CardEntity.builder()
+                            .cardNumber(String.format("60370000%08d", (cardSequence++ * 7919) % 100_000_000))
+                            .cardType(cardType)
+                            .active(random.nextInt(4) != 0)
+                            .expirationMonth(String.format("%02d", 1 + random.nextInt(12)))
+                            .expirationYear(String.valueOf(1403 + random.nextInt(4)))
+                            .issuer(issuer)
+                            .account(accounts.get(random.nextInt(accounts.size())))
+                            .build());
+                }
+            }
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("نتایج ایندکس حافظه با کوئری دیتابیس برای ترکیب فیلترها، مرتب سازی و صفحه ها یکسان است")
+    void searchCards_IndexMatchesDatabase() {
+        List<CardSearchFilter> filters = new ArrayList<>(List.of(
+                new CardSearchFilter(null, null, null, null, null, null),
+                new CardSearchFilter(null, null, "627353", null, null, null),
+                new CardSearchFilter(null, null, null, CardType.CREDIT, true, null),
+                new CardSearchFilter(null, null, "603799", CardType.DEBIT, false, null),
+                new CardSearchFilter(nationalCodes.get(3), null, null, null, null, null),
+                new CardSearchFilter(nationalCodes.get(5), null, "610433", null, true, null),
+                new CardSearchFilter(null, null, null, null, null, accountNumbers.get(2)),
+                new CardSearchFilter(null, "6037000000000000", null, null, null, null),
+                new CardSearchFilter(null, "6037000000007919", "627353", null, null, null),
+                new CardSearchFilter("9999999999", null, null, null, null, null),
+                new CardSearchFilter(null, null, "999999", null, null, null)));
+
+        List<Sort> sorts = List.of(
+                Sort.by(Sort.Direction.ASC, "id"),
+                Sort.by(Sort.Direction.DESC, "cardNumber").and(Sort.by(Sort.Direction.DESC, "id")),
+                Sort.by(Sort.Direction.ASC, "expirationYear").and(Sort.by(Sort.Direction.ASC, "id")),
+                Sort.by(Sort.Direction.DESC, "cardType").and(Sort.by(Sort.Direction.DESC, "id")),
+                Sort.by(Sort.Direction.ASC, "active").and(Sort.by(Sort.Direction.ASC, "id")));
+
+        int compared = 0;
+        for (CardSearchFilter filter : filters) {
+            for (Sort sort : sorts) {
+                for (int page = 0; page < 4; page++) {
+                    Pageable pageable = PageRequest.of(page, 7, sort);
+                    Page<CardView> fromIndex = inMemoryRepository.searchCards(filter, pageable).orElseThrow();
+                    Page<CardEntity> fromDb = search(filter, pageable);
+
+                    assertThat(viewIds(fromIndex)).as("%s %s page %d", filter, sort, page)
+                            .containsExactlyElementsOf(ids(fromDb));
+                    assertThat(fromIndex.getTotalElements()).isEqualTo(fromDb.getTotalElements());
+                    assertThat(fromIndex.getTotalPages()).isEqualTo(fromDb.getTotalPages());
+                    compared++;
+                }
+            }
+
+            Page<CardView> unpagedIndex = inMemoryRepository.searchCards(filter, Pageable.unpaged()).orElseThrow();
+            assertThat(viewIds(unpagedIndex)).containsExactlyInAnyOrderElementsOf(ids(search(filter, Pageable.unpaged())));
+        }
+        assertThat(compared).isEqualTo(filters.size() * sorts.size() * 4);
+    }
+
+    @Test
+    @DisplayName("مرتب سازی بر اساس فیلد پشتیبانی نشده به دیتابیس واگذار می شود")
+    void searchCards_UnsupportedSort_FallsBack() {
+        CardSearchFilter filter = new CardSearchFilter(null, null, null, null, null, null);
+
+        assertThat(inMemoryRepository.searchCards(filter, PageRequest.of(0, 5, Sort.by("issuer.name"))))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("وقتی کارتی بدون عبور از Cache در دیتابیس ثبت شده باشد، جستجو به دیتابیس واگذار می شود")
+    void searchCards_IncompleteIndex_FallsBack() {
+        // Given - کارتی که مستقیم در دیتابیس درج شده و در ایندکس نیست
+        PersonEntity person = entityManager.persist(PersonEntity.builder()
+                .nationalCode("0000000099")
+                .firstName("نام")
+                .lastName("خانوادگی")
+                .phone("09120000000")
+                .address("تهران")
+                .build());
+        AccountEntity account = entityManager.persist(AccountEntity.builder()
+                .accountNumber("2000000001")
+                .accountType(AccountType.SAVINGS)
+                .owner(person)
+                .build());
+        entityManager.persistAndFlush(CardEntity.builder()
+                .cardNumber("6104330000000001")
+                .cardType(CardType.DEBIT)
+                .active(true)
+                .expirationMonth("01")
+                .expirationYear("1406")
+                .issuer(cardRepository.findAll().get(0).getIssuer())
+                .account(account)
+                .build());
+        CardSearchFilter filter = new CardSearchFilter(null, null, null, null, null, null);
+
+        // When & Then
+        assertThat(inMemoryRepository.checkSearchCompleteness()).isFalse();
+        assertThat(inMemoryRepository.searchCards(filter, PageRequest.of(0, 5))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("حافظه ایندکس با تعداد کارت ها خطی رشد می کند")
+    void index_RetainedSizeGrowsLinearly() {
+        // Given - هر کارت حساب و کد ملی خودش را دارد، روی بازه بزرگی از اسلات ها
+        System.setProperty("jol.magicFieldOffset", "true");
+        int count = 100_000;
+        CardView.Issuer issuer = new CardView.Issuer(1, "627353", "بانک تجارت");
+        CardView[] cards = new CardView[count];
+        CardSearchIndex index = new CardSearchIndex();
+        for (int i = 0; i < count; i++) {
+            String suffix = String.format("%09d", i);
+            CardView.Owner owner = new CardView.Owner(i, "0" + suffix, "نام", "خانوادگی", "0912", "تهران");
+            CardView.Account account = new CardView.Account(i, "1" + suffix, AccountType.SAVINGS, owner);
+            cards[i] = new CardView(i, "6273530" + suffix, i % 2 == 0 ? CardType.DEBIT : CardType.CREDIT,
+                    i % 3 != 0, "12", "1408", issuer, account);
+            index.add(cards[i]);
+        }
+
+        // When
+        long indexBytes = GraphLayout.parseInstance(index)
+                .subtract(GraphLayout.parseInstance((Object[]) cards))
+                .totalSize();
+
+        // Then - یک Bitmap برای هر حساب و کد ملی، بیش از ۱ گیگابایت می شد
+        assertThat(indexBytes / count)
+                .as("index bytes per card, %d bytes for %d cards", indexBytes, count)
+                .isLessThan(400);
+        CardSearchFilter byAccount = new CardSearchFilter(null, null, null, null, null, "1000054321");
+        assertThat(index.search(byAccount, Comparator.comparing(CardView::cardNumber), 0, 10).content())
+                .containsExactly(cards[54321]);
+    }
+
+    private Page<CardEntity> search(CardSearchFilter filter, Pageable pageable) {
+        return cardRepository.searchCards(filter.nationalCode(), filter.cardNumber(), filter.issuerCode(),
+                filter.cardType(), filter.active(), filter.accountNumber(), pageable);
+    }
+
+    private static List<Long> ids(Page<CardEntity> page) {
+        return page.getContent().stream().map(CardEntity::getId).toList();
+    }
+
+    private static List<Long> viewIds(Page<CardView> page) {
+        return page.getContent().stream().map(CardView::id).toList();
+    }
+}
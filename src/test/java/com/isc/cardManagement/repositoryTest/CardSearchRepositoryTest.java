@@ -0,0 +1,175 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.dto.CardResponseDto;
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.entity.PersonEntity;
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.CardSearchFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(SqlCapture.class)
+@DisplayName("CardSearchRepository Tests")
+public class CardSearchRepositoryTest {
+
+    private static final CardSearchFilter NO_FILTER = new CardSearchFilter(null, null, null, null, null, null);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    private List<CardEntity> cards;
+
+    @BeforeEach
+    void setUp() {
+        PersonEntity person = entityManager.persistAndFlush(PersonEntity.builder()
+                .nationalCode("1234567890")
+                .firstName("علی")
+                .lastName("احمدی")
+                .phone("09121234567")
+                .address("تهران")
+                .build());
+
+        IssuerEntity issuer = entityManager.persistAndFlush(IssuerEntity.builder()
+                .issuerCode("627353")
+                .name("بانک تجارت")
+                .build());
+
+        // few distinct expiration years so the (year, id) tie-break is exercised
+        cards = new ArrayList<>();
+        AccountEntity account = null;
+        for (int i = 0; i < 25; i++) {
+            // one DEBIT and one CREDIT card per account
+            if (i % 2 == 0) {
+                account = entityManager.persist(AccountEntity.builder()
+                        .accountNumber(String.format("12345678%02d", i / 2))
+                        .accountType(AccountType.SAVINGS)
+                        .owner(person)
+                        .build());
+            }
+            cards.add(entityManager.persist(CardEntity.builder()
+                    .cardNumber(String.format("62735300000000%02d", (i * 7) % 25))
+                    .cardType(i % 2 == 0 ? CardType.DEBIT : CardType.CREDIT)
+                    .active(i % 3 != 0)
+                    .expirationMonth(String.format("%02d", i % 12 + 1))
+                    .expirationYear(String.valueOf(2026 + i % 3))
+                    .issuer(issuer)
+                    .account(account)
+                    .build()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("پیمایش صفحه به صفحه بر اساس سال انقضا همان ترتیب کامل را می دهد")
+    void seekCards_ByExpirationYear_MatchesFullOrder() {
+        Comparator<CardEntity> byYear = Comparator.comparing(CardEntity::getExpirationYear)
+                .thenComparing(CardEntity::getId);
+
+        assertThat(pageThrough("expirationYear", false, 4))
+                .containsExactlyElementsOf(ids(cards.stream().sorted(byYear).toList()));
+        assertThat(pageThrough("expirationYear", true, 4))
+                .containsExactlyElementsOf(ids(cards.stream().sorted(byYear.reversed()).toList()));
+    }
+
+    @Test
+    @DisplayName("پیمایش بر اساس id و اعمال فیلتر")
+    void seekCards_ByIdWithFilter() {
+        assertThat(pageThrough("id", false, 7)).containsExactlyElementsOf(
+                ids(cards.stream().sorted(Comparator.comparing(CardEntity::getId)).toList()));
+
+        CardSearchFilter debitOnly = new CardSearchFilter(null, null, "627353", CardType.DEBIT, null, null);
+        List<CardEntity> page = cardRepository.seekCards(debitOnly, "id", false, null, null, 100);
+
+        assertThat(page).hasSize(13).allMatch(card -> card.getCardType() == CardType.DEBIT);
+        assertThat(cardRepository.countCards(debitOnly)).isEqualTo(13);
+        assertThat(cardRepository.countCards(NO_FILTER)).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("جستجوی پویا - فقط فیلترهای داده شده اعمال می شوند")
+    void searchCards_OnlyGivenFiltersApply() {
+        Page<CardEntity> all = cardRepository.searchCards(null, null, null, null, null, null,
+                PageRequest.of(0, 10, Sort.by("id")));
+        assertThat(all.getTotalElements()).isEqualTo(25);
+        assertThat(all.getContent()).hasSize(10);
+
+        Page<CardEntity> inactiveCredit = cardRepository.searchCards(null, null, "627353", CardType.CREDIT,
+                false, null, PageRequest.of(0, 10, Sort.by("id")));
+        List<Long> expected = cards.stream()
+                .filter(card -> card.getCardType() == CardType.CREDIT && !card.isActive())
+                .map(CardEntity::getId)
+                .sorted()
+                .toList();
+        assertThat(inactiveCredit.getContent()).extracting(CardEntity::getId).containsExactlyElementsOf(expected);
+        assertThat(inactiveCredit.getTotalElements()).isEqualTo(expected.size());
+
+        Page<CardEntity> byOwner = cardRepository.searchCards("1234567890", null, null, null, null, "1234567803",
+                Pageable.unpaged());
+        assertThat(byOwner.getContent()).hasSize(2)
+                .allMatch(card -> card.getAccount().getAccountNumber().equals("1234567803"));
+    }
+
+    @Test
+    @DisplayName("جستجو و پیمایش، کارت را با حساب، مالک و صادرکننده در همان دستور می خوانند")
+    void searchAndSeek_FetchWholeGraphInOneStatement() {
+        // Given
+        SqlCapture.drain();
+
+        // When - نگاشت به پاسخ، همه روابط EAGER کارت را می خواند
+        Page<CardEntity> page = cardRepository.searchCards(null, null, "627353", null, null, null,
+                PageRequest.of(0, 10, Sort.by("id")));
+        List<CardEntity> seek = cardRepository.seekCards(NO_FILTER, "expirationYear", false, null, null, 10);
+        List<CardResponseDto> responses = Stream.concat(page.stream(), seek.stream())
+                .map(CardResponseDto::fromEntity)
+                .toList();
+
+        // Then - یک SELECT و یک COUNT برای جستجو و یک SELECT برای پیمایش، بدون SELECT جداگانه برای روابط
+        assertThat(responses).hasSize(20);
+        assertThat(SqlCapture.drain()).hasSize(3);
+    }
+
+    private List<Long> pageThrough(String sortBy, boolean descending, int size) {
+        List<Long> seen = new ArrayList<>();
+        String afterValue = null;
+        Long afterId = null;
+        while (true) {
+            List<CardEntity> page = cardRepository.seekCards(NO_FILTER, sortBy, descending, afterValue, afterId, size);
+            page.forEach(card -> seen.add(card.getId()));
+            if (page.size() < size) {
+                return seen;
+            }
+            CardEntity last = page.get(page.size() - 1);
+            afterId = last.getId();
+            afterValue = "id".equals(sortBy) ? null : last.getExpirationYear();
+        }
+    }
+
+    private static List<Long> ids(List<CardEntity> cards) {
+        return cards.stream().map(CardEntity::getId).toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.entity.PersonEntity;
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.CacheSnapshotStore;
+import com.isc.cardManagement.repository.CardView;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.repository.InitialDataLoader;
+import com.isc.cardManagement.repository.jpa.CardRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures, with JOL, the heap retained by the cards of many persons when held as the detached entities
+ * the cache used to keep, and as the {@link CardView}s it keeps now.
+ */
+@DataJpaTest
+@Import({InMemoryRepository.class, InitialDataLoader.class, CacheSnapshotStore.class})
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-empty-seed.txt",
+        "app.warmup.async=false"
+})
+@DisplayName("حجم حافظه کارت های Cache")
+class CardViewFootprintTest {
+
+    private static final int PERSONS = 500;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InMemoryRepository inMemoryRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @BeforeAll
+    static void allowRecordFieldOffsets() {
+        // JDK 17 refuses Unsafe field offsets of record components; JOL then has to find them itself
+        System.setProperty("jol.magicFieldOffset", "true");
+    }
+
+    @Test
+    @DisplayName("CardView ها حافظه کمتری از Entity ها اشغال می کنند")
+    void viewsRetainLessHeapThanEntities() {
+        // Given - هر شخص دو حساب و روی هر حساب یک کارت از هر صادرکننده دارد
+        List<IssuerEntity> issuers = List.of(
+                entityManager.persist(IssuerEntity.builder().issuerCode("627353").name("بانک تجارت").build()),
+                entityManager.persist(IssuerEntity.builder().issuerCode("603799").name("بانک ملی").build()));
+        List<String> nationalCodes = new ArrayList<>();
+        for (int p = 0; p < PERSONS; p++) {
+            String nationalCode = String.format("%010d", p + 1);
+            nationalCodes.add(nationalCode);
+            persistPersonWithCards(nationalCode, issuers);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        inMemoryRepository.clearAll();
+
+        // When
+        List<CardEntity> entities = cardRepository.findAll();
+        entityManager.clear();
+        List<CardView> views = new ArrayList<>();
+        for (String nationalCode : nationalCodes) {
+            views.addAll(inMemoryRepository.getCardsByNationalCode(nationalCode));
+        }
+
+        // Then
+        long entityBytesPerCard = GraphLayout.parseInstance(entities).totalSize() / entities.size();
+        long viewBytesPerCard = GraphLayout.parseInstance(views).totalSize() / views.size();
+
+        assertThat(views).hasSameSizeAs(entities).hasSize(PERSONS * 4);
+        // the views drop the entities' boxed ids and Hibernate collection wrappers
+        assertThat(viewBytesPerCard)
+                .as("bytes per card: views %d, entities %d", viewBytesPerCard, entityBytesPerCard)
+                .isLessThan(entityBytesPerCard * 3 / 4)
+                // the shared issuer, account and owner leave little beyond the card's own fields (~180 bytes)
+                .isLessThan(200);
+    }
+
+    private void persistPersonWithCards(String nationalCode, List<IssuerEntity> issuers) {
+        PersonEntity person = entityManager.persist(PersonEntity.builder()
+                .nationalCode(nationalCode)
+                .firstName("نام")
+                .lastName("خانوادگی")
+                .phone("09120000000")
+                .address("تهران")
+                .build());
+
+        for (int a = 0; a < 2; a++) {
+            AccountEntity account = entityManager.persist(AccountEntity.builder()
+                    .accountNumber(nationalCode.substring(1) + a)
+                    .accountType(AccountType.SAVINGS)
+                    .owner(person)
+                    .build());
+
+            for (IssuerEntity issuer : issuers) {
+                entityManager.persist(CardEntity.builder()
+                        .cardNumber(issuer.getIssuerCode() + nationalCode.substring(1) + a)
+                        .cardType(a == 0 ? CardType.DEBIT : CardType.CREDIT)
+                        .active(true)
+                        .expirationMonth("12")
+                        .expirationYear("1408")
+                        .issuer(issuer)
+                        .account(account)
+                        .build());
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.entity.AccountEntity;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.entity.IssuerEntity;
+import com.isc.cardManagement.entity.PersonEntity;
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.CacheSnapshotStore;
+import com.isc.cardManagement.repository.CardView;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.repository.InitialDataLoader;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({InMemoryRepository.class, InitialDataLoader.class, CacheSnapshotStore.class})
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-empty-seed.txt",
+        "app.warmup.async=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DisplayName("تعداد کوئری های خواندن کارت های یک شخص")
+class CardsByNationalCodeQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InMemoryRepository inMemoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private List<IssuerEntity> issuers;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // the tests write cards around the cache, so it is no longer known to hold every card
+        inMemoryRepository.clearAll();
+        issuers = List.of(
+                entityManager.persist(IssuerEntity.builder().issuerCode("627353").name("بانک تجارت").build()),
+                entityManager.persist(IssuerEntity.builder().issuerCode("603799").name("بانک ملی").build()));
+    }
+
+    @Test
+    @DisplayName("Cache miss کارت های شخص را با هر تعداد حساب در یک دستور می خواند")
+    void cacheMissRunsOneStatementWhateverTheNumberOfAccounts() {
+        // Given - کارت ها فقط در دیتابیس هستند
+        persistPersonWithCards("0000000001", 1);
+        persistPersonWithCards("0000000002", 5);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        statistics.clear();
+        List<CardView> oneAccount = inMemoryRepository.getCardsByNationalCode("0000000001");
+        long oneAccountStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<CardView> fiveAccounts = inMemoryRepository.getCardsByNationalCode("0000000002");
+        long fiveAccountStatements = statistics.getPrepareStatementCount();
+
+        // Then
+        assertThat(oneAccount).hasSize(2);
+        assertThat(fiveAccounts).hasSize(10);
+        assertThat(fiveAccounts).allSatisfy(card -> {
+            assertThat(card.nationalCode()).isEqualTo("0000000002");
+            assertThat(card.issuer().issuerCode()).isNotNull();
+        });
+        assertThat(oneAccountStatements).isEqualTo(1);
+        assertThat(fiveAccountStatements).isEqualTo(1);
+
+        // و از این پس از Cache خوانده می شود
+        statistics.clear();
+        assertThat(inMemoryRepository.getCardsByNationalCode("0000000002")).hasSize(10);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("کد ملی بدون کارت تا زمان ثبت کارت دوباره از دیتابیس پرسیده نمی شود")
+    void unknownNationalCodeIsRememberedUntilACardIsSaved() {
+        // Given
+        assertThat(inMemoryRepository.getCardsByNationalCode("0000000003")).isEmpty();
+
+        // When
+        statistics.clear();
+        List<CardView> again = inMemoryRepository.getCardsByNationalCode("0000000003");
+
+        // Then
+        assertThat(again).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // When - کارتی برای همان شخص ثبت می شود
+        PersonEntity person = entityManager.persist(PersonEntity.builder()
+                .nationalCode("0000000003")
+                .firstName("نام")
+                .lastName("خانوادگی")
+                .phone("09120000000")
+                .address("تهران")
+                .build());
+        AccountEntity account = entityManager.persist(AccountEntity.builder()
+                .accountNumber("0000300000")
+                .accountType(AccountType.SAVINGS)
+                .owner(person)
+                .build());
+        inMemoryRepository.saveCard(CardEntity.builder()
+                .cardNumber("6273530000300000")
+                .cardType(CardType.CREDIT)
+                .active(true)
+                .expirationMonth("12")
+                .expirationYear("1408")
+                .issuer(issuers.get(0))
+                .account(account)
+                .build());
+
+        // Then
+        assertThat(inMemoryRepository.getCardsByNationalCode("0000000003"))
+                .extracting(CardView::cardNumber).containsExactly("6273530000300000");
+    }
+
+    @Test
+    @DisplayName("وقتی Cache همه کارت ها را دارد، کد ملی ناشناس بدون دیتابیس پاسخ داده می شود")
+    void completeCacheAnswersUnknownNationalCodesFromMemory() {
+        // Given - دیتابیس و Cache هر دو خالی هستند
+        assertThat(inMemoryRepository.checkSearchCompleteness()).isTrue();
+
+        // When
+        statistics.clear();
+        List<CardView> cards = inMemoryRepository.getCardsByNationalCode("0000000004");
+
+        // Then
+        assertThat(cards).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private void persistPersonWithCards(String nationalCode, int accounts) {
+        PersonEntity person = entityManager.persist(PersonEntity.builder()
+                .nationalCode(nationalCode)
+                .firstName("نام")
+                .lastName("خانوادگی")
+                .phone("09120000000")
+                .address("تهران")
+                .build());
+
+        for (int a = 0; a < accounts; a++) {
+            AccountEntity account = entityManager.persist(AccountEntity.builder()
+                    .accountNumber(nationalCode.substring(5) + String.format("%05d", a))
+                    .accountType(AccountType.SAVINGS)
+                    .owner(person)
+                    .build());
+
+            for (IssuerEntity issuer : issuers) {
+                entityManager.persist(CardEntity.builder()
+                        .cardNumber(issuer.getIssuerCode() + account.getAccountNumber())
+                        .cardType(CardType.DEBIT)
+                        .active(true)
+                        .expirationMonth("12")
+                        .expirationYear("1408")
+                        .issuer(issuer)
+                        .account(account)
+                        .build());
+            }
+        }
+    }
+}
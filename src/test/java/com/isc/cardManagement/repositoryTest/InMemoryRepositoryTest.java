@@ -7,7 +7,10 @@ import com.isc.cardManagement.entity.PersonEntity;
 import com.isc.cardManagement.enums.AccountType;
 import com.isc.cardManagement.enums.CardType;
 import com.isc.cardManagement.exception.BadRequestException;
+import com.isc.cardManagement.repository.CacheSnapshotStore;
+import com.isc.cardManagement.repository.CardView;
 import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.repository.InitialDataLoader;
 import com.isc.cardManagement.repository.jpa.AccountRepository;
 import com.isc.cardManagement.repository.jpa.CardRepository;
 import com.isc.cardManagement.repository.jpa.IssuerRepository;
@@ -20,17 +23,18 @@ import org.springframework.context.annotation.Import;
 import org.springframework.core.annotation.Order;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 
 
 @DataJpaTest
-@Import(InMemoryRepository.class)
+@Import({InMemoryRepository.class, InitialDataLoader.class, CacheSnapshotStore.class})
 @TestPropertySource(properties = {
         "app.data.file-path=test-data-empty.txt",  // فایل خالی
+        "app.warmup.async=false",
         "spring.jpa.hibernate.ddl-auto=create-drop"
 })
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -189,9 +193,9 @@ public class InMemoryRepositoryTest {
         assertThat(dbCard).isPresent();
         assertThat(dbCard.get().getCardNumber()).isEqualTo("6273531234567890");
 
-        Set<CardEntity> cards = inMemoryRepository.getCardsByNationalCode("1234567890");
+        List<CardView> cards = inMemoryRepository.getCardsByNationalCode("1234567890");
         assertThat(cards).hasSize(1);
-        assertThat(cards.iterator().next().getCardNumber()).isEqualTo("6273531234567890");
+        assertThat(cards.iterator().next().cardNumber()).isEqualTo("6273531234567890");
     }
 
     @Test
@@ -278,14 +282,14 @@ public class InMemoryRepositoryTest {
         entityManager.clear();
 
         // When
-        Set<CardEntity> cards = inMemoryRepository.getCardsByNationalCode("1234567890");
+        List<CardView> cards = inMemoryRepository.getCardsByNationalCode("1234567890");
 
         // Then
         assertThat(cards).hasSize(1);
-        assertThat(cards.iterator().next().getCardNumber()).isEqualTo("6273535555555555");
+        assertThat(cards.iterator().next().cardNumber()).isEqualTo("6273535555555555");
 
         // Verify
-        Set<CardEntity> cachedCards = inMemoryRepository.getCardsByNationalCode("1234567890");
+        List<CardView> cachedCards = inMemoryRepository.getCardsByNationalCode("1234567890");
         assertThat(cachedCards).hasSize(1);
     }
 
@@ -304,7 +308,7 @@ public class InMemoryRepositoryTest {
         entityManager.persistAndFlush(personWithoutCard);
 
         // When
-        Set<CardEntity> cards = inMemoryRepository.getCardsByNationalCode("9876543210");
+        List<CardView> cards = inMemoryRepository.getCardsByNationalCode("9876543210");
 
         // Then
         assertThat(cards).isEmpty();
@@ -353,7 +357,7 @@ public class InMemoryRepositoryTest {
         inMemoryRepository.saveCard(creditCard);
 
         // Then
-        Set<CardEntity> cards = inMemoryRepository.getCardsByNationalCode("1234567890");
+        List<CardView> cards = inMemoryRepository.getCardsByNationalCode("1234567890");
         assertThat(cards).hasSize(2);
 
 
@@ -0,0 +1,100 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.repository.CacheSnapshotStore;
+import com.isc.cardManagement.repository.CardView;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.repository.InitialDataLoader;
+import com.isc.cardManagement.repository.LoadStatistics;
+import com.isc.cardManagement.repository.SeedRecordKind;
+import com.isc.cardManagement.repository.WarmupState;
+import com.isc.cardManagement.repository.jpa.AccountRepository;
+import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.IssuerRepository;
+import com.isc.cardManagement.repository.jpa.PersonRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({InMemoryRepository.class, InitialDataLoader.class, CacheSnapshotStore.class})
+@TestPropertySource(properties = {
+        "app.data.file-path=data/test-seed.txt",
+        "app.data.batch-size=2",
+        "app.warmup.async=false",
+        "app.warmup.workers=4",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("InitialDataLoader Tests")
+public class InitialDataLoaderTest {
+
+    @Autowired
+    private InMemoryRepository inMemoryRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private IssuerRepository issuerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Test
+    @DisplayName("باید فایل را در دسته ها بارگذاری و رکوردهای نامعتبر را رد کند")
+    void shouldLoadFileInChunksAndSkipInvalidRecords() {
+        // Then - در زمان راه اندازی بارگذاری شده است
+        assertThat(personRepository.count()).isEqualTo(3);
+        assertThat(issuerRepository.count()).isEqualTo(2);
+        assertThat(accountRepository.count()).isEqualTo(3);
+        assertThat(cardRepository.count()).isEqualTo(3);
+
+        Map<String, Integer> stats = inMemoryRepository.getStatistics();
+        assertThat(stats.get("persons")).isEqualTo(3);
+        assertThat(stats.get("issuers")).isEqualTo(2);
+        assertThat(stats.get("accounts")).isEqualTo(3);
+        assertThat(stats.get("cards")).isEqualTo(3);
+
+        List<CardView> cards = inMemoryRepository.getCardsByNationalCode("0063531425");
+        assertThat(cards).extracting(CardView::cardNumber).containsExactly("1234567812345678");
+    }
+
+    @Test
+    @DisplayName("بعد از بارگذاری کامل، Cache باید آماده باشد")
+    void shouldBeWarmAfterLoad() {
+        assertThat(inMemoryRepository.getWarmupState()).isEqualTo(WarmupState.READY);
+        assertThat(inMemoryRepository.isWarm()).isTrue();
+    }
+
+    @Test
+    @DisplayName("بارگذاری مجدد نباید رکورد تکراری درج کند")
+    void shouldResolveExistingRecordsOnReload() {
+        // Given - فقط Cache پاک می شود، دیتابیس باقی می ماند
+        inMemoryRepository.clearAll();
+
+        // When
+        LoadStatistics statistics = inMemoryRepository.loadDataFromFile();
+
+        // Then
+        for (SeedRecordKind kind : SeedRecordKind.values()) {
+            assertThat(statistics.getInserted(kind)).as(kind.name()).isZero();
+        }
+        assertThat(statistics.getExisting(SeedRecordKind.PERSON)).isEqualTo(4);
+        assertThat(statistics.getExisting(SeedRecordKind.CARD)).isEqualTo(3);
+        assertThat(statistics.getRejected(SeedRecordKind.ACCOUNT)).isEqualTo(2);
+        assertThat(statistics.getRejected(SeedRecordKind.CARD)).isEqualTo(2);
+
+        assertThat(cardRepository.count()).isEqualTo(3);
+        assertThat(inMemoryRepository.getStatistics().get("cards")).isEqualTo(3);
+    }
+}
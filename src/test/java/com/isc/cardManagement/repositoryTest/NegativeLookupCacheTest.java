@@ -0,0 +1,58 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.repository.NegativeLookupCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("NegativeLookupCache Tests")
+class NegativeLookupCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("ورودی پس از پایان TTL منقضی می شود")
+    void entryExpiresAfterTtl() {
+        NegativeLookupCache cache = new NegativeLookupCache(Duration.ofSeconds(30), 10, now::get);
+
+        cache.add("0012345678");
+        now.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertThat(cache.contains("0012345678")).isTrue();
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.contains("0012345678")).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("ابطال، ورودی را فوراً حذف می کند")
+    void invalidateRemovesEntry() {
+        NegativeLookupCache cache = new NegativeLookupCache(Duration.ofSeconds(30), 10, now::get);
+
+        cache.add("0012345678");
+        cache.invalidate("0012345678");
+
+        assertThat(cache.contains("0012345678")).isFalse();
+    }
+
+    @Test
+    @DisplayName("ظرفیت محدود است و ورودی های منقضی جای خود را آزاد می کنند")
+    void sizeIsBounded() {
+        NegativeLookupCache cache = new NegativeLookupCache(Duration.ofSeconds(30), 2, now::get);
+
+        cache.add("0000000001");
+        cache.add("0000000002");
+        cache.add("0000000003");
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.contains("0000000003")).isFalse();
+
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        cache.add("0000000003");
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.contains("0000000003")).isTrue();
+    }
+}
@@ -0,0 +1,162 @@
+package com.isc.cardManagement.repositoryTest;
+
+import com.isc.cardManagement.enums.AccountType;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.repository.SeedFileParser;
+import com.isc.cardManagement.repository.SeedRecord;
+import com.isc.cardManagement.repository.SeedRecordHandler;
+import com.isc.cardManagement.repository.SeedRecordKind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SeedFileParser Tests")
+class SeedFileParserTest {
+
+    private static final Set<SeedRecordKind> ALL_KINDS = EnumSet.allOf(SeedRecordKind.class);
+
+    private static final String SEED = String.join("\n",
+            "# persons",
+            "person=Ali,Ahmadi,0063531425,09121234567,Tehran, Valiasr St",
+            "  PERSON= Zahra , Mohammadi ,0012345678,09129876543,Shiraz  ",
+            "",
+            "issuer=123456,Bank Melli, Central",
+            "account=1111111111,current,0063531425",
+            "card=1234567812345678,DEBIT,TRUE,12,1407,123456,1111111111",
+            "card=8765432187654321,Credit,false,08,1406,123456,1111111111");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("باید همه نوع رکوردها را با فیلدهای Trim شده بخواند")
+    void shouldParseAllKinds() throws Exception {
+        // Given
+        Path file = write(SEED);
+        RecordingHandler handler = new RecordingHandler();
+
+        // When
+        long lines = new SeedFileParser().parse(file, ALL_KINDS, handler);
+
+        // Then
+        assertThat(lines).isEqualTo(8);
+        assertThat(handler.malformed).isEmpty();
+        assertThat(handler.records).containsExactly(
+                new SeedRecord.Person("Ali", "Ahmadi", "0063531425", "09121234567", "Tehran, Valiasr St"),
+                new SeedRecord.Person("Zahra", "Mohammadi", "0012345678", "09129876543", "Shiraz"),
+                new SeedRecord.Issuer("123456", "Bank Melli, Central"),
+                new SeedRecord.Account("1111111111", AccountType.CURRENT, "0063531425"),
+                new SeedRecord.Card("1234567812345678", CardType.DEBIT, true, "12", "1407", "123456", "1111111111"),
+                new SeedRecord.Card("8765432187654321", CardType.CREDIT, false, "08", "1406", "123456", "1111111111"));
+    }
+
+    @Test
+    @DisplayName("فقط رکوردهای نوع درخواست شده باید برگردانده شوند")
+    void shouldSkipKindsNotRequested() throws Exception {
+        // Given
+        Path file = write(SEED);
+        RecordingHandler handler = new RecordingHandler();
+
+        // When
+        new SeedFileParser().parse(file, EnumSet.of(SeedRecordKind.CARD), handler);
+
+        // Then
+        assertThat(handler.records).hasSize(2).allMatch(r -> r.kind() == SeedRecordKind.CARD);
+    }
+
+    @Test
+    @DisplayName("خطوطی که از مرز پنجره Map عبور می کنند باید درست خوانده شوند")
+    void shouldHandleLinesAcrossWindowBoundaries() throws Exception {
+        // Given - پنجره کوچک و پایان خط ویندوزی، بدون خط خالی در انتها
+        Path file = write("\uFEFF" + SEED.replace("\n", "\r\n"));
+        RecordingHandler expected = new RecordingHandler();
+        new SeedFileParser().parse(write(SEED), ALL_KINDS, expected);
+
+        // When
+        RecordingHandler handler = new RecordingHandler();
+        long lines = new SeedFileParser(80).parse(file, ALL_KINDS, handler);
+
+        // Then
+        assertThat(lines).isEqualTo(8);
+        assertThat(handler.records).isEqualTo(expected.records);
+    }
+
+    @Test
+    @DisplayName("رکورد نامعتبر باید با موقعیت بایت گزارش شود")
+    void shouldReportMalformedLinesWithOffset() throws Exception {
+        // Given
+        String valid = "person=Ali,Ahmadi,0063531425,09121234567,Tehran\n";
+        String content = valid
+                + "person=Broken,Line\n"
+                + "account=2222222222,UNKNOWN,0012345678\n"
+                + "card=1234567812345678,PREPAID,true,12,1407,123456,1111111111\n"
+                + "unknown=ignored\n";
+        Path file = write(content);
+        RecordingHandler handler = new RecordingHandler();
+
+        // When
+        long lines = new SeedFileParser().parse(file, ALL_KINDS, handler);
+
+        // Then
+        assertThat(lines).isEqualTo(5);
+        assertThat(handler.records).hasSize(1);
+        assertThat(handler.malformed).containsExactly(
+                "PERSON@" + valid.length() + ": expected 5 fields: Broken,Line",
+                "ACCOUNT@" + content.indexOf("account=") + ": invalid account type: 2222222222,UNKNOWN,0012345678",
+                "CARD@" + content.indexOf("card=")
+                        + ": invalid card type: 1234567812345678,PREPAID,true,12,1407,123456,1111111111");
+    }
+
+    @Test
+    @DisplayName("منبع غیر فایلی باید با بافر محدود و به صورت جریانی خوانده شود")
+    void shouldStreamNonFileResources() throws Exception {
+        // Given - بافر کوچکتر از یک خط، مثل فایل داخل jar
+        String content = "\uFEFF" + SEED.replace("\n", "\r\n") + "\nperson=Broken,Line";
+        Resource resource = new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+        RecordingHandler expected = new RecordingHandler();
+        new SeedFileParser().parse(write(content), ALL_KINDS, expected);
+
+        // When
+        RecordingHandler handler = new RecordingHandler();
+        long lines = new SeedFileParser(16).parse(resource, ALL_KINDS, handler);
+
+        // Then
+        assertThat(resource.isFile()).isFalse();
+        assertThat(lines).isEqualTo(9);
+        assertThat(handler.records).hasSize(6).isEqualTo(expected.records);
+        assertThat(handler.malformed).hasSize(1).isEqualTo(expected.malformed);
+    }
+
+    private Path write(String content) throws Exception {
+        Path file = Files.createTempFile(tempDir, "seed", ".txt");
+        return Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private static final class RecordingHandler implements SeedRecordHandler {
+
+        private final List<SeedRecord> records = new ArrayList<>();
+        private final List<String> malformed = new ArrayList<>();
+
+        @Override
+        public void onRecord(SeedRecord record) {
+            records.add(record);
+        }
+
+        @Override
+        public void onMalformed(SeedRecordKind kind, long offset, String reason) {
+            malformed.add(kind + "@" + offset + ": " + reason);
+        }
+    }
+}
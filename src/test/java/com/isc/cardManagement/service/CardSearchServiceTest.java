@@ -8,21 +8,31 @@ import com.isc.cardManagement.entity.CardEntity;
 import com.isc.cardManagement.entity.IssuerEntity;
 import com.isc.cardManagement.entity.PersonEntity;
 import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.exception.BadRequestException;
+import com.isc.cardManagement.repository.CardView;
+import com.isc.cardManagement.repository.InMemoryRepository;
 import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.CardSearchFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,6 +43,12 @@ public class CardSearchServiceTest {
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private InMemoryRepository inMemoryRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private CardServiceImpl cardSearchService;
 
@@ -42,6 +58,8 @@ public class CardSearchServiceTest {
 
     @BeforeEach
     void setUp() {
+        cardSearchService.init();
+
         PersonEntity testPerson = PersonEntity.builder()
                 .id(1L)
                 .nationalCode("1234567890")
@@ -578,5 +596,108 @@ public class CardSearchServiceTest {
         assertThat(result.getTotalPages()).isEqualTo(2);
     }
 
-}
+    @Test
+    @DisplayName("جستجو با cache گرم - از ایندکس حافظه و بدون کوئری دیتابیس")
+    void searchCards_WarmCache_ServedFromIndex() {
+        // Given
+        CardSearchDto searchDto = CardSearchDto.builder()
+                .issuerCode("627353")
+                .page(0)
+                .size(10)
+                .build();
+
+        when(inMemoryRepository.searchCards(any(CardSearchFilter.class), any(Pageable.class)))
+                .thenReturn(Optional.of(new PageImpl<>(List.of(CardView.from(testCard)), PageRequest.of(0, 10), 1)));
+
+        // When
+        PagedResponseDto<CardResponseDto> result = cardSearchService.searchCards(searchDto);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        verify(inMemoryRepository).searchCards(
+                argThat(filter -> "627353".equals(filter.issuerCode()) && filter.cardType() == null),
+                any(Pageable.class));
+        verify(cardRepository, never()).searchCards(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    // ==================== صفحه بندی کلیدی ====================
+
+    @Test
+    @DisplayName("صفحه بندی کلیدی - صفحه اول بدون شمارش و با cursor صفحه بعد")
+    void searchCards_Keyset_FirstPage_NoCount() {
+        // Given
+        CardEntity secondCard = CardEntity.builder()
+                .id(2L).cardNumber("6273531234567891").cardType(CardType.CREDIT).active(true)
+                .issuer(testIssuer).account(testAccount).expirationMonth("01").expirationYear("2026")
+                .build();
+
+        CardSearchDto searchDto = CardSearchDto.builder()
+                .keyset(true)
+                .size(1)
+                .sortBy("cardNumber")
+                .build();
 
+        when(cardRepository.seekCards(any(CardSearchFilter.class), eq("cardNumber"), eq(false),
+                isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(testCard, secondCard));
+
+        // When
+        PagedResponseDto<CardResponseDto> result = cardSearchService.searchCards(searchDto);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getContent().get(0).getCardNumber()).isEqualTo("6273531234567890");
+        assertThat(result.isFirst()).isTrue();
+        assertThat(result.isLast()).isFalse();
+        assertThat(result.getNextCursor()).isNotNull();
+        assertThat(result.getTotalElements()).isEqualTo(-1);
+        verify(cardRepository, never()).countCards(any());
+        verify(cardRepository, never()).searchCards(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("صفحه بندی کلیدی - cursor از آخرین کارت صفحه قبل ادامه می دهد")
+    void searchCards_Keyset_CursorSeeksPastLastCard() {
+        // Given
+        String cursor = new SearchCursor("cardNumber", false, 1L, "6273531234567890").encode();
+        CardSearchDto searchDto = CardSearchDto.builder()
+                .cursor(cursor)
+                .size(10)
+                .sortBy("cardNumber")
+                .withTotal(true)
+                .build();
+
+        when(cardRepository.seekCards(any(CardSearchFilter.class), eq("cardNumber"), eq(false),
+                eq("6273531234567890"), eq(1L), eq(11)))
+                .thenReturn(Collections.emptyList());
+        when(cardRepository.countCards(any(CardSearchFilter.class))).thenReturn(1L);
+
+        // When
+        PagedResponseDto<CardResponseDto> result = cardSearchService.searchCards(searchDto);
+
+        // Then
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.isFirst()).isFalse();
+        assertThat(result.isLast()).isTrue();
+        assertThat(result.getNextCursor()).isNull();
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getTotalPages()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("صفحه بندی کلیدی - cursor نامعتبر یا با مرتب سازی متفاوت رد می شود")
+    void searchCards_Keyset_InvalidCursor_ThrowsBadRequest() {
+        String descCursor = new SearchCursor("id", true, 5L, null).encode();
+
+        assertThatThrownBy(() -> cardSearchService.searchCards(
+                CardSearchDto.builder().cursor("not-a-cursor!").build()))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> cardSearchService.searchCards(
+                CardSearchDto.builder().cursor(descCursor).sortDirection("ASC").build()))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> cardSearchService.searchCards(
+                CardSearchDto.builder().keyset(true).sortBy("issuer.name").build()))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
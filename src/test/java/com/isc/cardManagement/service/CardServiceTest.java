@@ -8,18 +8,21 @@ import com.isc.cardManagement.entity.PersonEntity;
 import com.isc.cardManagement.enums.AccountType;
 import com.isc.cardManagement.enums.CardType;
 import com.isc.cardManagement.exception.NotFoundException;
+import com.isc.cardManagement.repository.CardView;
 import com.isc.cardManagement.repository.InMemoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -33,6 +36,9 @@ class CardServiceTest {
     private InMemoryRepository repository;
 
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private CardServiceImpl cardService;
 
@@ -41,6 +47,8 @@ class CardServiceTest {
 
     @BeforeEach
     void setUp() {
+        cardService.init();
+
         PersonEntity testPerson = PersonEntity.builder()
                 .id(1L)
                 .nationalCode("1234567890")
@@ -82,7 +90,7 @@ class CardServiceTest {
                 .build();
 
         when(repository.getCardsByNationalCode(nationalCode))
-                .thenReturn(Set.of(card));
+                .thenReturn(List.of(CardView.from(card)));
 
         // When
         List<CardResponseDto> result = cardService.getCardsByNationalCode(nationalCode);
@@ -102,7 +110,7 @@ class CardServiceTest {
         String nationalCode = "0000000000";
 
         when(repository.getCardsByNationalCode(nationalCode))
-                .thenReturn(Collections.emptySet());
+                .thenReturn(Collections.emptyList());
 
         // When & Then
         assertThatThrownBy(() -> cardService.getCardsByNationalCode(nationalCode))
@@ -0,0 +1,118 @@
+package com.isc.cardManagement.service;
+
+import com.isc.cardManagement.dto.CardDto;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.exception.BadRequestException;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.repository.jpa.CardRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrent-create;DB_CLOSE_DELAY=-1",
+        "app.warmup.async=false"
+})
+@DisplayName("تست همزمانی ایجاد کارت")
+class ConcurrentCreateCardTest {
+
+    private static final int REQUESTS = 300;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private InMemoryRepository inMemoryRepository;
+
+    @Test
+    @DisplayName("از درخواست های همزمان برای یک شخص، نوع کارت و صادرکننده فقط یکی باید موفق شود")
+    void onlyOneOfConcurrentDuplicateCreatesSucceeds() throws Exception {
+        // Given - حساب 1111111111 (کد ملی 0063531425) هنوز کارت اعتباری بانک ملی ندارد
+        long cardsBefore = cardRepository.count();
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            CardDto dto = card(String.format("60379900%08d", i), CardType.CREDIT, "12");
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    cardService.createCard(dto);
+                    created.incrementAndGet();
+                } catch (BadRequestException e) {
+                    duplicates.incrementAndGet();
+                } catch (Throwable t) {
+                    unexpected.add(t);
+                }
+                return null;
+            }));
+        }
+
+        // When
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Then
+        assertThat(unexpected).isEmpty();
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(duplicates.get()).isEqualTo(REQUESTS - 1);
+        assertThat(cardRepository.count()).isEqualTo(cardsBefore + 1);
+        assertThat(inMemoryRepository.getCardsByNationalCode("0063531425"))
+                .filteredOn(card -> card.cardType() == CardType.CREDIT)
+                .hasSize(1);
+    }
+
+    @Test
+    @DisplayName("اگر درج در دیتابیس شکست بخورد، رزرو باید آزاد شود")
+    void failedInsertReleasesReservation() {
+        // Given - ماه انقضای نامعتبر در زمان درج رد می شود
+        CardDto invalid = card("6543210000000001", CardType.DEBIT, "13");
+        invalid.setAccountNumber("2222222222");
+        invalid.setIssuerCode("123456");
+
+        assertThatThrownBy(() -> cardService.createCard(invalid))
+                .isNotInstanceOf(BadRequestException.class);
+
+        // When
+        CardDto valid = card("6543210000000002", CardType.DEBIT, "11");
+        valid.setAccountNumber("2222222222");
+        valid.setIssuerCode("123456");
+        CardDto result = cardService.createCard(valid);
+
+        // Then
+        assertThat(result.getCardNumber()).isEqualTo("6543210000000002");
+        assertThat(cardRepository.findByCardNumber("6543210000000001")).isEmpty();
+    }
+
+    private static CardDto card(String cardNumber, CardType cardType, String expirationMonth) {
+        return CardDto.builder()
+                .cardNumber(cardNumber)
+                .cardType(cardType)
+                .expirationMonth(expirationMonth)
+                .expirationYear("1408")
+                .issuerCode("123456")
+                .accountNumber("1111111111")
+                .build();
+    }
+}
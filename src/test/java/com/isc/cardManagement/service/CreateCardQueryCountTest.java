@@ -0,0 +1,66 @@
+package com.isc.cardManagement.service;
+
+import com.isc.cardManagement.dto.CardDto;
+import com.isc.cardManagement.enums.CardType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:create-card-queries;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.warmup.async=false"
+})
+@DisplayName("تعداد کوئری های ایجاد کارت")
+class CreateCardQueryCountTest {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("ایجاد کارت با Cache گرم فقط باید یک دستور INSERT اجرا کند")
+    void createCardRunsExactlyOneStatement() {
+        // Given - اولین ایجاد، شناسه های Sequence را رزرو می کند
+        cardService.createCard(card("6037990000000001", "1111111111", CardType.CREDIT));
+        statistics.clear();
+
+        // When
+        cardService.createCard(card("6037990000000002", "2222222222", CardType.DEBIT));
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getQueryExecutionCount()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private static CardDto card(String cardNumber, String accountNumber, CardType cardType) {
+        return CardDto.builder()
+                .cardNumber(cardNumber)
+                .cardType(cardType)
+                .expirationMonth("12")
+                .expirationYear("1408")
+                .issuerCode("123456")
+                .accountNumber(accountNumber)
+                .build();
+    }
+}
@@ -15,16 +15,18 @@ import com.isc.cardManagement.repository.InMemoryRepository;
 import com.isc.cardManagement.repository.jpa.AccountRepository;
 import com.isc.cardManagement.repository.jpa.CardRepository;
 import com.isc.cardManagement.repository.jpa.IssuerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
-import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -47,6 +49,9 @@ class CreateCardServiceTest {
     @Mock
     private IssuerRepository issuerRepository;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private CardServiceImpl cardService;
 
@@ -57,6 +62,8 @@ class CreateCardServiceTest {
 
     @BeforeEach
     void setUp() {
+        cardService.init();
+
         // Setup Person
         PersonEntity mockPerson = PersonEntity.builder()
                 .id(1L)
@@ -110,18 +117,15 @@ class CreateCardServiceTest {
     @DisplayName("ایجاد کارت موفق - سناریو کامل")
     void createCard_Success() {
         // Given
-        when(accountRepository.findByAccountNumber("1234567890"))
+        when(inMemoryRepository.findAccount("1234567890"))
                 .thenReturn(Optional.of(mockAccount));
 
-        when(inMemoryRepository.getCardsByNationalCode("1234567890"))
-                .thenReturn(Set.of()); // هیچ کارت قبلی وجود ندارد
+        when(inMemoryRepository.isCardNumberTaken("6037997711223344"))
+                .thenReturn(false); // هیچ کارت قبلی وجود ندارد
 
-        when(issuerRepository.findByIssuerCode("603799"))
+        when(inMemoryRepository.findIssuer("603799"))
                 .thenReturn(Optional.of(mockIssuer));
 
-        when(cardRepository.saveAndFlush(any(CardEntity.class)))
-                .thenReturn(mockCard);
-
         when(inMemoryRepository.saveCard(any(CardEntity.class)))
                 .thenReturn(mockCard);
         // When
@@ -135,22 +139,53 @@ class CreateCardServiceTest {
         assertThat(result.getCardType()).isEqualTo(CardType.DEBIT);
         assertThat(result.isActive()).isTrue();
 
-        // Verify interactions
-        verify(accountRepository, times(2)).findByAccountNumber("1234567890");
-        verify(inMemoryRepository).getCardsByNationalCode("1234567890");
-        verify(issuerRepository).findByIssuerCode("603799");
-        verify(cardRepository).saveAndFlush(argThat(card ->
+        // Verify interactions - حساب و صادرکننده از Cache خوانده می شوند
+        verify(inMemoryRepository).findAccount("1234567890");
+        verify(inMemoryRepository).isCardNumberTaken("6037997711223344");
+        verify(inMemoryRepository).findIssuer("603799");
+        verifyNoInteractions(accountRepository, issuerRepository, cardRepository);
+        verify(inMemoryRepository).saveCard(argThat(card ->
                 card.getCardNumber().equals("6037997711223344") &&
                         card.getCardType() == CardType.DEBIT &&
                         card.isActive()
         ));
-        verify(inMemoryRepository).saveCard(any(CardEntity.class));
+    }
+
+    @Test
+    @DisplayName("حساب در Cache نیست - از دیتابیس خوانده شود")
+    void createCard_AccountNotInCache_FallsBackToDatabase() {
+        // Given
+        when(inMemoryRepository.findAccount("1234567890"))
+                .thenReturn(Optional.empty());
+
+        when(accountRepository.findByAccountNumber("1234567890"))
+                .thenReturn(Optional.of(mockAccount));
+
+        when(inMemoryRepository.isCardNumberTaken("6037997711223344"))
+                .thenReturn(false);
+
+        when(inMemoryRepository.findIssuer("603799"))
+                .thenReturn(Optional.of(mockIssuer));
+
+        when(inMemoryRepository.saveCard(any(CardEntity.class)))
+                .thenReturn(mockCard);
+
+        // When
+        CardDto result = cardService.createCard(validRequest);
+
+        // Then
+        assertThat(result.getCardNumber()).isEqualTo("6037997711223344");
+        verify(accountRepository, times(1)).findByAccountNumber("1234567890");
+        verify(inMemoryRepository).saveCard(argThat(card -> card.getAccount() == mockAccount));
     }
 
     @Test
     @DisplayName("خطا: حساب یافت نشد - مرحله اول")
     void createCard_AccountNotFound_FirstCheck() {
         // Given
+        when(inMemoryRepository.findAccount("1234567890"))
+                .thenReturn(Optional.empty());
+
         when(accountRepository.findByAccountNumber("1234567890"))
                 .thenReturn(Optional.empty());
 
@@ -161,33 +196,27 @@ class CreateCardServiceTest {
 
         // Verify که فقط یک بار جستجو شد
         verify(accountRepository, times(1)).findByAccountNumber("1234567890");
-        verify(inMemoryRepository, never()).getCardsByNationalCode(anyString());
-        verify(cardRepository, never()).saveAndFlush(any());
+        verify(inMemoryRepository, never()).isCardNumberTaken(anyString());
+        verify(inMemoryRepository, never()).saveCard(any());
     }
 
     @Test
     @DisplayName("خطا: کارت تکراری در Cache")
     void createCard_DuplicateCardInCache() {
         // Given
-        CardEntity existingCard = CardEntity.builder()
-                .id(99L)
-                .cardNumber("6037997711223344") // همان شماره کارت
-                .build();
-
-        when(accountRepository.findByAccountNumber("1234567890"))
+        when(inMemoryRepository.findAccount("1234567890"))
                 .thenReturn(Optional.of(mockAccount));
 
-        when(inMemoryRepository.getCardsByNationalCode("1234567890"))
-                .thenReturn(Set.of(existingCard)); // کارت قبلی با همان شماره
+        when(inMemoryRepository.isCardNumberTaken("6037997711223344"))
+                .thenReturn(true); // کارت قبلی با همان شماره
 
         // When & Then
         assertThatThrownBy(() -> cardService.createCard(validRequest))
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("شماره کارت تکراری: 6037997711223344");
 
-        verify(accountRepository, times(1)).findByAccountNumber("1234567890");
-        verify(inMemoryRepository).getCardsByNationalCode("1234567890");
-        verify(cardRepository, never()).saveAndFlush(any());
+        verify(inMemoryRepository).isCardNumberTaken("6037997711223344");
+        verify(inMemoryRepository, never()).findIssuer(anyString());
         verify(inMemoryRepository, never()).saveCard(any());
     }
 
@@ -195,11 +224,14 @@ class CreateCardServiceTest {
     @DisplayName("خطا: صادرکننده یافت نشد")
     void createCard_IssuerNotFound() {
         // Given
-        when(accountRepository.findByAccountNumber("1234567890"))
+        when(inMemoryRepository.findAccount("1234567890"))
                 .thenReturn(Optional.of(mockAccount));
 
-        when(inMemoryRepository.getCardsByNationalCode("1234567890"))
-                .thenReturn(Set.of());
+        when(inMemoryRepository.isCardNumberTaken("6037997711223344"))
+                .thenReturn(false);
+
+        when(inMemoryRepository.findIssuer("603799"))
+                .thenReturn(Optional.empty());
 
         when(issuerRepository.findByIssuerCode("603799"))
                 .thenReturn(Optional.empty()); // صادرکننده یافت نشد
@@ -209,80 +241,32 @@ class CreateCardServiceTest {
                 .isInstanceOf(NotFoundException.class)
                 .hasMessage("صادرکننده یافت نشد");
 
-        verify(accountRepository, times(2)).findByAccountNumber("1234567890");
         verify(issuerRepository).findByIssuerCode("603799");
-        verify(cardRepository, never()).saveAndFlush(any());
         verify(inMemoryRepository, never()).saveCard(any());
     }
 
     @Test
-    @DisplayName("بررسی عدم تکراری بودن - کارت‌های دیگر در Cache")
-    void createCard_WithOtherCardsInMemory_Success() {
-        // Given
-        CardEntity otherCard1 = CardEntity.builder()
-                .id(2L)
-                .cardNumber("6037991122334455") // شماره متفاوت
-                .build();
-
-        CardEntity otherCard2 = CardEntity.builder()
-                .id(3L)
-                .cardNumber("6037995566778899") // شماره متفاوت
-                .build();
-
-        when(accountRepository.findByAccountNumber("1234567890"))
-                .thenReturn(Optional.of(mockAccount));
-
-        when(inMemoryRepository.getCardsByNationalCode("1234567890"))
-                .thenReturn(Set.of(otherCard1, otherCard2)); // کارت‌های دیگر
-
-        when(issuerRepository.findByIssuerCode("603799"))
-                .thenReturn(Optional.of(mockIssuer));
-
-        when(cardRepository.saveAndFlush(any(CardEntity.class)))
-                .thenReturn(mockCard);
-
-        when(inMemoryRepository.saveCard(any(CardEntity.class)))
-                .thenReturn(mockCard);
-
-        // When
-        CardDto result = cardService.createCard(validRequest);
-
-        // Then
-        assertThat(result).isNotNull();
-        assertThat(result.getCardNumber()).isEqualTo("6037997711223344");
-
-        verify(cardRepository).saveAndFlush(any(CardEntity.class));
-        verify(inMemoryRepository).saveCard(any(CardEntity.class));
-    }
-
-
-    @Test
-    @DisplayName("بررسی ذخیره در InMemory بعد از Database")
-    void createCard_SavesInMemoryAfterDatabase() {
+    @DisplayName("ذخیره فقط یک بار و از طریق InMemoryRepository انجام شود")
+    void createCard_SavesOnlyThroughInMemoryRepository() {
         // Given
-        when(accountRepository.findByAccountNumber("1234567890"))
+        when(inMemoryRepository.findAccount("1234567890"))
                 .thenReturn(Optional.of(mockAccount));
 
-        when(inMemoryRepository.getCardsByNationalCode("1234567890"))
-                .thenReturn(Set.of());
+        when(inMemoryRepository.isCardNumberTaken("6037997711223344"))
+                .thenReturn(false);
 
-        when(issuerRepository.findByIssuerCode("603799"))
+        when(inMemoryRepository.findIssuer("603799"))
                 .thenReturn(Optional.of(mockIssuer));
 
-        when(cardRepository.saveAndFlush(any(CardEntity.class)))
-                .thenReturn(mockCard);
-
-        // تغییر از doNothing به when().thenReturn()
         when(inMemoryRepository.saveCard(any(CardEntity.class)))
                 .thenReturn(mockCard);
 
         // When
         cardService.createCard(validRequest);
 
-        // Then - بررسی ترتیب فراخوانی
-        var inOrder = inOrder(cardRepository, inMemoryRepository);
-        inOrder.verify(cardRepository).saveAndFlush(any(CardEntity.class));
-        inOrder.verify(inMemoryRepository).saveCard(any(CardEntity.class));
+        // Then - رزرو کلید یکتا و درج در یک فراخوانی
+        verify(inMemoryRepository, times(1)).saveCard(any(CardEntity.class));
+        verify(cardRepository, never()).saveAndFlush(any());
     }
 
 
@@ -290,27 +274,23 @@ class CreateCardServiceTest {
     @DisplayName("بررسی مقادیر ذخیره شده در Entity")
     void createCard_VerifyEntityValues() {
         // Given
-        when(accountRepository.findByAccountNumber("1234567890"))
+        when(inMemoryRepository.findAccount("1234567890"))
                 .thenReturn(Optional.of(mockAccount));
 
-        when(inMemoryRepository.getCardsByNationalCode("1234567890"))
-                .thenReturn(Set.of());
+        when(inMemoryRepository.isCardNumberTaken("6037997711223344"))
+                .thenReturn(false);
 
-        when(issuerRepository.findByIssuerCode("603799"))
+        when(inMemoryRepository.findIssuer("603799"))
                 .thenReturn(Optional.of(mockIssuer));
 
-        when(cardRepository.saveAndFlush(any(CardEntity.class)))
-                .thenReturn(mockCard);
-
-        // اگر saveCard مقداری برمی‌گرداند (مثلا CardEntity یا boolean)
         when(inMemoryRepository.saveCard(any(CardEntity.class)))
-                .thenReturn(mockCard); // یا true اگر boolean برمی‌گرداند
+                .thenReturn(mockCard);
 
         // When
         cardService.createCard(validRequest);
 
         // Then - بررسی دقیق مقادیر Entity
-        verify(cardRepository).saveAndFlush(argThat(card -> {
+        verify(inMemoryRepository).saveCard(argThat(card -> {
             assertThat(card.getCardNumber()).isEqualTo("6037997711223344");
             assertThat(card.getCardType()).isEqualTo(CardType.DEBIT);
             assertThat(card.getExpirationMonth()).isEqualTo("12");
@@ -322,4 +302,3 @@ class CreateCardServiceTest {
         }));
     }
 }
-
@@ -0,0 +1,152 @@
+package com.isc.cardManagement.service;
+
+import com.isc.cardManagement.dto.BatchCardResponseDto;
+import com.isc.cardManagement.dto.BatchCardResultDto;
+import com.isc.cardManagement.dto.CardDto;
+import com.isc.cardManagement.entity.CardEntity;
+import com.isc.cardManagement.enums.BatchItemStatus;
+import com.isc.cardManagement.enums.CardType;
+import com.isc.cardManagement.exception.BadRequestException;
+import com.isc.cardManagement.repository.CardView;
+import com.isc.cardManagement.repository.InMemoryRepository;
+import com.isc.cardManagement.repository.jpa.AccountRepository;
+import com.isc.cardManagement.repository.jpa.CardRepository;
+import com.isc.cardManagement.repository.jpa.IssuerRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:create-cards-batch;DB_CLOSE_DELAY=-1",
+        "app.warmup.async=false",
+        "app.cards.batch.chunk-size=2",
+        "app.cards.batch.max-size=10"
+})
+@DisplayName("تست ایجاد گروهی کارت")
+class CreateCardsBatchTest {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private IssuerRepository issuerRepository;
+
+    @Autowired
+    private InMemoryRepository inMemoryRepository;
+
+    @Test
+    @DisplayName("هر کارت باید نتیجه خودش را داشته باشد و خطای یک کارت بقیه را متوقف نکند")
+    void shouldReturnPerItemResults() {
+        // Given - داده های اولیه: حساب 1111111111 کارت نقدی بانک 123456 دارد
+        long cardsBefore = cardRepository.count();
+        List<CardDto> batch = List.of(
+                card("6037990000000001", "1111111111", CardType.CREDIT, "123456", "12"),  // 0 ok
+                card("6037990000000002", "2222222222", CardType.DEBIT, "123456", "13"),   // 1 invalid month
+                card("6037990000000001", "2222222222", CardType.DEBIT, "654321", "12"),   // 2 duplicate in batch
+                card("1234567812345678", "2222222222", CardType.DEBIT, "654321", "12"),   // 3 existing number
+                card("6037990000000003", "9999999999", CardType.DEBIT, "123456", "12"),   // 4 unknown account
+                card("6037990000000004", "1111111111", CardType.DEBIT, "123456", "12"),   // 5 duplicate constraint
+                card("6037990000000005", "2222222222", CardType.DEBIT, "123456", "12"),   // 6 ok
+                card("6037990000000006", "2222222222", CardType.DEBIT, "654321", "12"));  // 7 ok
+
+        // When
+        BatchCardResponseDto response = cardService.createCards(batch);
+
+        // Then
+        assertThat(response.getTotal()).isEqualTo(8);
+        assertThat(response.getCreated()).isEqualTo(3);
+        assertThat(response.getRejected()).isEqualTo(5);
+        assertThat(response.getResults()).extracting(BatchCardResultDto::getIndex)
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+        assertThat(response.getResults()).extracting(BatchCardResultDto::getStatus).containsExactly(
+                BatchItemStatus.CREATED, BatchItemStatus.REJECTED, BatchItemStatus.REJECTED,
+                BatchItemStatus.REJECTED, BatchItemStatus.REJECTED, BatchItemStatus.REJECTED,
+                BatchItemStatus.CREATED, BatchItemStatus.CREATED);
+        assertThat(response.getResults().get(1).getError()).startsWith("expirationMonth:");
+        assertThat(response.getResults().get(2).getError()).contains("تکراری در درخواست");
+        assertThat(response.getResults().get(3).getError()).isEqualTo("شماره کارت تکراری: 1234567812345678");
+        assertThat(response.getResults().get(4).getError()).isEqualTo("حساب یافت نشد");
+        assertThat(response.getResults().get(5).getError()).startsWith("کارت تکراری");
+
+        assertThat(cardRepository.count()).isEqualTo(cardsBefore + 3);
+        assertThat(inMemoryRepository.getCardsByNationalCode("0012345678"))
+                .extracting(CardView::cardNumber)
+                .contains("6037990000000005", "6037990000000006");
+    }
+
+    @Test
+    @DisplayName("اگر یک دسته در دیتابیس شکست بخورد، کارت ها تک به تک ثبت شوند")
+    void shouldRetryFailedChunkOneByOne() {
+        // Given - کارتی که در دیتابیس هست ولی در Cache نیست
+        CardEntity hidden = CardEntity.builder()
+                .cardNumber("6037990000000099")
+                .cardType(CardType.CREDIT)
+                .expirationMonth("01")
+                .expirationYear("1409")
+                .active(true)
+                .account(accountRepository.findByAccountNumber("2222222222").orElseThrow())
+                .issuer(issuerRepository.findByIssuerCode("123456").orElseThrow())
+                .build();
+        cardRepository.saveAndFlush(hidden);
+
+        List<CardDto> batch = List.of(
+                card("6037990000000099", "1111111111", CardType.CREDIT, "123456", "12"),
+                card("6037990000000010", "1111111111", CardType.CREDIT, "654321", "12"));
+
+        // When
+        BatchCardResponseDto response = cardService.createCards(batch);
+
+        // Then
+        assertThat(response.getResults()).extracting(BatchCardResultDto::getStatus)
+                .containsExactly(BatchItemStatus.REJECTED, BatchItemStatus.CREATED);
+        assertThat(cardRepository.findByCardNumber("6037990000000010")).isPresent();
+
+        // رزرو کارت رد شده باید آزاد شده باشد
+        BatchCardResponseDto retry = cardService.createCards(List.of(
+                card("6037990000000011", "1111111111", CardType.CREDIT, "123456", "12")));
+        assertThat(retry.getCreated()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("لیست خالی یا بزرگتر از حد مجاز باید رد شود")
+    void shouldRejectEmptyOrOversizedBatch() {
+        assertThatThrownBy(() -> cardService.createCards(List.of()))
+                .isInstanceOf(BadRequestException.class);
+
+        List<CardDto> oversized = IntStream.range(0, 11)
+                .mapToObj(i -> card(String.format("60379900000001%02d", i), "1111111111",
+                        CardType.CREDIT, "123456", "12"))
+                .toList();
+        assertThatThrownBy(() -> cardService.createCards(oversized))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static CardDto card(String cardNumber, String accountNumber, CardType cardType,
+                                String issuerCode, String expirationMonth) {
+        return CardDto.builder()
+                .cardNumber(cardNumber)
+                .cardType(cardType)
+                .expirationMonth(expirationMonth)
+                .expirationYear("1408")
+                .issuerCode(issuerCode)
+                .accountNumber(accountNumber)
+                .build();
+    }
+}
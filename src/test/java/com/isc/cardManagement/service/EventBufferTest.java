@@ -0,0 +1,44 @@
+package com.isc.cardManagement.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("بافر رویدادهای هر مشترک")
+class EventBufferTest {
+
+    @Test
+    @DisplayName("وقتی بافر پر است قدیمی ترین رویداد حذف و شمرده می شود")
+    void dropOldestKeepsTheNewestEvents() {
+        // Given
+        EventBuffer<String> buffer = new EventBuffer<>(2, CardEventStreams.OverflowPolicy.DROP_OLDEST);
+
+        // When
+        assertThat(buffer.offer("1")).isTrue();
+        assertThat(buffer.offer("2")).isTrue();
+        assertThat(buffer.offer("3")).isTrue();
+        assertThat(buffer.offer("4")).isTrue();
+
+        // Then
+        assertThat(buffer.takeDropped()).isEqualTo(2);
+        assertThat(buffer.takeDropped()).isZero();
+        assertThat(buffer.poll()).isEqualTo("3");
+        assertThat(buffer.poll()).isEqualTo("4");
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    @DisplayName("با سیاست قطع اتصال، رویداد اضافه پذیرفته نمی شود")
+    void disconnectRefusesWhenFull() {
+        // Given
+        EventBuffer<String> buffer = new EventBuffer<>(1, CardEventStreams.OverflowPolicy.DISCONNECT);
+        assertThat(buffer.offer("1")).isTrue();
+
+        // When & Then
+        assertThat(buffer.offer("2")).isFalse();
+        assertThat(buffer.takeDropped()).isZero();
+        assertThat(buffer.poll()).isEqualTo("1");
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+}